@@ -165,6 +165,17 @@ public interface Datastore {
      */
     <T> WriteResult delete(T entity, DeleteOptions options);
 
+    /**
+     * Deletes the given entities (by @Id).  The entities may be of different types.  They are grouped by collection and each collection
+     * is sent as few deletes as the size of the IDs allows.
+     *
+     * @param entities the entities to delete
+     * @param options  the options to use when deleting
+     * @return the combined results of the deletes
+     * @since 1.5
+     */
+    WriteResult delete(Iterable<?> entities, DeleteOptions options);
+
     /**
      * Deletes the given entity (by @Id), with the WriteConcern
      *
@@ -448,8 +459,8 @@ public interface Datastore {
      * @param clazz the class to use for mapping
      * @param keys  the keys to search with
      * @param <T>   the type to fetch
-     * @return the matched entities.  may be null.
-     * @deprecated use a {@link Query} instead
+     * @return the matched entities in the order of the keys.  may be null.
+     * @deprecated use a {@link Query} or {@link #getByKeys(Class, Iterable, GetByKeysOptions)} instead
      */
     @Deprecated
     <T> List<T> getByKeys(Class<T> clazz, Iterable<Key<T>> keys);
@@ -459,12 +470,37 @@ public interface Datastore {
      *
      * @param keys the keys to search with
      * @param <T>  the type to fetch
-     * @return the matched entities.  may be null.
-     * @deprecated use a {@link Query} instead
+     * @return the matched entities in the order of the keys.  may be null.
+     * @deprecated use a {@link Query} or {@link #getByKeys(Iterable, GetByKeysOptions)} instead
      */
     @Deprecated
     <T> List<T> getByKeys(Iterable<Key<T>> keys);
 
+    /**
+     * Find the given entities (by id).  The keys for each collection are fetched with {@code _id in} queries of at most
+     * {@link GetByKeysOptions#getChunkSize()} ids each, concurrently if an executor is configured.
+     *
+     * @param keys    the keys to search with
+     * @param options the options to apply
+     * @param <T>     the type to fetch
+     * @return the matched entities in the order of the keys
+     * @since 1.5
+     */
+    <T> List<T> getByKeys(Iterable<Key<T>> keys, GetByKeysOptions options);
+
+    /**
+     * Find the given entities (by id), verifying they are of the correct type.  The keys for each collection are fetched with
+     * {@code _id in} queries of at most {@link GetByKeysOptions#getChunkSize()} ids each, concurrently if an executor is configured.
+     *
+     * @param clazz   the class to use for mapping
+     * @param keys    the keys to search with
+     * @param options the options to apply
+     * @param <T>     the type to fetch
+     * @return the matched entities in the order of the keys
+     * @since 1.5
+     */
+    <T> List<T> getByKeys(Class<T> clazz, Iterable<Key<T>> keys, GetByKeysOptions options);
+
     /**
      * @param clazz the class to use for mapping
      * @return the mapped collection for the collection
@@ -1,14 +1,20 @@
 package dev.morphia;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
 import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import com.mongodb.DefaultDBDecoder;
 import com.mongodb.DuplicateKeyException;
+import com.mongodb.ErrorCategory;
 import com.mongodb.MapReduceCommand;
 import com.mongodb.MapReduceCommand.OutputType;
 import com.mongodb.MongoClient;
@@ -24,40 +30,60 @@ import com.mongodb.client.model.ValidationOptions;
 import dev.morphia.aggregation.AggregationPipeline;
 import dev.morphia.aggregation.AggregationPipelineImpl;
 import dev.morphia.annotations.CappedAt;
+import dev.morphia.annotations.Embedded;
 import dev.morphia.annotations.Entity;
 import dev.morphia.annotations.NotSaved;
 import dev.morphia.annotations.PostPersist;
 import dev.morphia.annotations.Validation;
 import dev.morphia.annotations.Version;
+import dev.morphia.mapping.EntitySnapshots;
+import dev.morphia.mapping.EntitySnapshots.Snapshot;
 import dev.morphia.mapping.MappedClass;
 import dev.morphia.mapping.MappedField;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.MappingException;
 import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.mapping.cache.SharedEntityCache;
+import dev.morphia.mapping.codec.EntityCodecProvider;
+import dev.morphia.mapping.codec.EntityDecoder;
+import dev.morphia.mapping.codec.EntityDecoderFactory;
+import dev.morphia.mapping.codec.EntityDocument;
+import dev.morphia.mapping.codec.EntityEncoder;
 import dev.morphia.mapping.lazy.proxy.ProxyHelper;
 import dev.morphia.query.CountOptions;
 import dev.morphia.query.DefaultQueryFactory;
 import dev.morphia.query.Query;
 import dev.morphia.query.QueryException;
+import dev.morphia.query.QueryResultCache;
 import dev.morphia.query.QueryFactory;
 import dev.morphia.query.UpdateException;
 import dev.morphia.query.UpdateOperations;
 import dev.morphia.query.UpdateOpsImpl;
 import dev.morphia.query.UpdateResults;
 import dev.morphia.utils.Assert;
+import dev.morphia.utils.ReflectionUtils;
+import org.bson.BasicBSONEncoder;
 import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import static com.mongodb.BasicDBObject.parse;
 import static com.mongodb.BasicDBObjectBuilder.start;
@@ -76,6 +102,10 @@ import static java.util.Collections.singletonList;
 @Deprecated
 public class DatastoreImpl implements AdvancedDatastore {
     private static final Logger LOG = LoggerFactory.getLogger(DatastoreImpl.class);
+    /**
+     * The room left in a batched delete for everything but the IDs
+     */
+    private static final int DELETE_HEADROOM = 16 * 1024;
 
     private final Morphia morphia;
     private final MongoClient mongoClient;
@@ -85,6 +115,9 @@ public class DatastoreImpl implements AdvancedDatastore {
     private Mapper mapper;
     private WriteConcern defConcern;
     private DBDecoderFactory decoderFactory;
+    private final EntityDecoder entityDecoder;
+    private final EntityEncoder entityEncoder;
+    private final EntitySnapshots snapshots;
 
     private volatile QueryFactory queryFactory = new DefaultQueryFactory();
 
@@ -124,7 +157,11 @@ public class DatastoreImpl implements AdvancedDatastore {
         this.database =
             database.withCodecRegistry(CodecRegistries.fromRegistries(
                 mongoClient.getMongoClientOptions().getCodecRegistry(),
+                CodecRegistries.fromProviders(new EntityCodecProvider(this)),
                 MongoClientSettings.getDefaultCodecRegistry()));
+        this.entityDecoder = new EntityDecoder(this, this.database.getCodecRegistry());
+        this.entityEncoder = new EntityEncoder(this, mongoClient.getMongoClientOptions().getCodecRegistry());
+        this.snapshots = new EntitySnapshots(mongoClient.getMongoClientOptions().getCodecRegistry());
         this.db = mongoClient.getDB(database.getName());
         this.defConcern = mongoClient.getWriteConcern();
         this.indexHelper = new IndexHelper(mapper, database);
@@ -179,7 +216,10 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new QueryException("Delete does not allow sort/offset/limit query options.");
         }
 
-        return dbColl.remove(query.getQueryObject(), enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        final DBObject queryObject = query.getQueryObject();
+        final WriteResult result = dbColl.remove(queryObject, enforceWriteConcern(options, query.getEntityClass()).getOptions());
+        invalidate(dbColl.getName(), queryObject);
+        return result;
     }
 
     @Override
@@ -242,6 +282,46 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
     }
 
+    @Override
+    public WriteResult delete(final Iterable<?> entities, final DeleteOptions options) {
+        final Map<String, BulkDelete> deletes = new LinkedHashMap<String, BulkDelete>();
+        for (final Object entity : entities) {
+            final Object unwrapped = ProxyHelper.unwrap(entity);
+            if (unwrapped == null || unwrapped instanceof Class<?>) {
+                throw new MappingException("Can not delete " + unwrapped);
+            }
+            final Object id = mapper.getId(unwrapped);
+            if (id == null) {
+                throw new MappingException("Could not get id for " + unwrapped.getClass().getName());
+            }
+            final MappedClass mc = mapper.getMappedClass(unwrapped);
+            final DBCollection dbColl = getCollection(unwrapped);
+            BulkDelete delete = deletes.get(dbColl.getName());
+            if (delete == null) {
+                delete = new BulkDelete(dbColl, enforceWriteConcern(options, unwrapped.getClass()));
+                deletes.put(dbColl.getName(), delete);
+            }
+            delete.add(mapper.toMongoObject(mc.getMappedIdField(), null, id));
+        }
+
+        final int maxSize = mongoClient.getMaxBsonObjectSize() - DELETE_HEADROOM;
+        int count = 0;
+        boolean acknowledged = true;
+        for (final BulkDelete delete : deletes.values()) {
+            for (final WriteResult result : delete.execute(maxSize)) {
+                if (result.wasAcknowledged()) {
+                    count += result.getN();
+                } else {
+                    acknowledged = false;
+                }
+            }
+            for (final Object id : delete.ids) {
+                invalidateId(delete.dbColl.getName(), id);
+            }
+        }
+        return acknowledged ? new WriteResult(count, false, null) : WriteResult.unacknowledged();
+    }
+
     @Override
     public void ensureCaps() {
         for (final MappedClass mc : mapper.getMappedClasses()) {
@@ -354,7 +434,9 @@ public class DatastoreImpl implements AdvancedDatastore {
                                         .upsert(false)
                                         .remove(true);
 
-        final DBObject result = dbColl.findAndModify(query.getQueryObject(), copy.getOptions());
+        final DBObject queryObject = query.getQueryObject();
+        final DBObject result = dbColl.findAndModify(queryObject, copy.getOptions());
+        invalidate(dbColl.getName(), queryObject, result);
 
         return mapper.fromDBObject(this, query.getEntityClass(), result, createCache());
     }
@@ -368,11 +450,13 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
 
         updateForVersioning(query, operations);
-        DBObject res = dbColl.findAndModify(query.getQueryObject(), options.copy()
-                                                                           .sort(query.getSortObject())
-                                                                           .projection(query.getFieldsObject())
-                                                                           .update(((UpdateOpsImpl<T>) operations).getOps())
-                                                                           .getOptions());
+        final DBObject queryObject = query.getQueryObject();
+        DBObject res = dbColl.findAndModify(queryObject, options.copy()
+                                                                .sort(query.getSortObject())
+                                                                .projection(query.getFieldsObject())
+                                                                .update(((UpdateOpsImpl<T>) operations).getOps())
+                                                                .getOptions());
+        invalidate(dbColl.getName(), queryObject, res);
 
         return mapper.fromDBObject(this, query.getEntityClass(), res, createCache());
 
@@ -439,43 +523,169 @@ public class DatastoreImpl implements AdvancedDatastore {
         if (id instanceof DBObject) {
             ((DBObject) id).removeField(mapper.getOptions().getDiscriminatorField());
         }
+        final SharedEntityCache sharedCache = mapper.getSharedEntityCache();
+        if (sharedCache != null) {
+            final Object storedId = toStoredId(clazz, id);
+            DBObject document = sharedCache.get(collectionName, storedId);
+            if (document == null) {
+                final long version = sharedCache.getVersion(collectionName);
+                document = getCollection(clazz).findOne(new BasicDBObject(ID_FIELD_NAME, storedId));
+                if (document == null) {
+                    return null;
+                }
+                sharedCache.put(collectionName, storedId, document, version);
+            }
+            return mapper.fromDBObject(this, clazz, document, createCache());
+        }
         return get(clazz, id);
     }
 
     @Override
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public <T> List<T> getByKeys(final Class<T> clazz, final Iterable<Key<T>> keys) {
+        return getByKeys(clazz, keys, new GetByKeysOptions());
+    }
+
+    @Override
+    public <T> List<T> getByKeys(final Iterable<Key<T>> keys) {
+        return getByKeys(null, keys);
+    }
+
+    @Override
+    public <T> List<T> getByKeys(final Iterable<Key<T>> keys, final GetByKeysOptions options) {
+        return getByKeys(null, keys, options);
+    }
 
-        final Map<String, List<Key>> kindMap = new HashMap<String, List<Key>>();
-        final List<T> entities = new ArrayList<T>();
-        for (final Key<?> key : keys) {
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public <T> List<T> getByKeys(final Class<T> clazz, final Iterable<Key<T>> keys, final GetByKeysOptions options) {
+        final List<Key<T>> keyList = new ArrayList<Key<T>>();
+        final Map<String, Map<Object, Object>> kindMap = new LinkedHashMap<String, Map<Object, Object>>();
+        final Map<String, Class> kindClasses = new HashMap<String, Class>();
+        for (final Key<T> key : keys) {
             mapper.updateCollection(key);
+            keyList.add(key);
 
-            if (kindMap.containsKey(key.getCollection())) {
-                kindMap.get(key.getCollection()).add(key);
-            } else {
-                kindMap.put(key.getCollection(), new ArrayList<Key>(singletonList((Key) key)));
+            Map<Object, Object> ids = kindMap.get(key.getCollection());
+            if (ids == null) {
+                ids = new LinkedHashMap<Object, Object>();
+                kindMap.put(key.getCollection(), ids);
+                kindClasses.put(key.getCollection(), clazz == null ? key.getType() : clazz);
+            }
+            // ids held as stored documents are queried without their discriminator, any other id as given
+            final Object idKey = toIdKey(key.getId());
+            if (!ids.containsKey(idKey)) {
+                ids.put(idKey, key.getId() instanceof DBObject ? idKey : key.getId());
             }
         }
-        for (final Map.Entry<String, List<Key>> entry : kindMap.entrySet()) {
-            final List<Key> kindKeys = entry.getValue();
 
-            final List<Object> objIds = new ArrayList<Object>();
-            for (final Key key : kindKeys) {
-                objIds.add(key.getId());
+        final List<Callable<List>> chunks = new ArrayList<Callable<List>>();
+        final List<String> chunkKinds = new ArrayList<String>();
+        for (final Map.Entry<String, Map<Object, Object>> entry : kindMap.entrySet()) {
+            final List<Object> ids = new ArrayList<Object>(entry.getValue().values());
+            for (int start = 0; start < ids.size(); start += options.getChunkSize()) {
+                final String kind = entry.getKey();
+                final Class kindClass = kindClasses.get(kind);
+                final List<Object> chunk = ids.subList(start, Math.min(ids.size(), start + options.getChunkSize()));
+                chunks.add(new Callable<List>() {
+                    @Override
+                    public List call() {
+                        return find(kind, kindClass).disableValidation().filter("_id in", chunk).asList();
+                    }
+                });
+                chunkKinds.add(kind);
             }
-            final Class clazzKind = clazz == null ? kindKeys.get(0).getType() : clazz;
-            final List kindResults = find(entry.getKey(), clazzKind).disableValidation().filter("_id in", objIds).asList();
-            entities.addAll(kindResults);
         }
 
-        // TODO: order them based on the incoming Keys.
+        final List<List> results = fetchChunks(chunks, options.getExecutor());
+        final Map<String, Map<Object, Object>> found = new HashMap<String, Map<Object, Object>>();
+        for (int i = 0; i < results.size(); i++) {
+            Map<Object, Object> byId = found.get(chunkKinds.get(i));
+            if (byId == null) {
+                byId = new HashMap<Object, Object>();
+                found.put(chunkKinds.get(i), byId);
+            }
+            for (final Object entity : results.get(i)) {
+                byId.put(toIdKey(mapper.getId(entity)), entity);
+            }
+        }
+
+        final List<T> entities = new ArrayList<T>(keyList.size());
+        for (final Key<T> key : keyList) {
+            final Map<Object, Object> byId = found.get(key.getCollection());
+            final T entity = byId == null ? null : (T) byId.get(toIdKey(key.getId()));
+            if (entity != null || options.isIncludeMissing()) {
+                entities.add(entity);
+            }
+        }
         return entities;
     }
 
-    @Override
-    public <T> List<T> getByKeys(final Iterable<Key<T>> keys) {
-        return getByKeys(null, keys);
+    /**
+     * Converts an id to a value which is equal for the ids of a key and of the entity it was read as.  Ids which are embedded entities
+     * may be held by a key as the stored document, with or without a discriminator, so they are compared as the document the query
+     * filter stores.  Byte array ids are compared by content and all other ids as they are.
+     */
+    private Object toIdKey(final Object id) {
+        Object value = id;
+        if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        if (value != null && !(value instanceof DBObject) && isEmbeddedId(value.getClass())) {
+            value = mapper.toMongoObject(null, mapper.getMappedClass(value), value);
+        }
+        if (value instanceof DBObject) {
+            final BasicDBObject copy = new BasicDBObject(((DBObject) value).toMap());
+            copy.removeField(mapper.getOptions().getDiscriminatorField());
+            return copy;
+        }
+        return value;
+    }
+
+    private boolean isEmbeddedId(final Class<?> type) {
+        return !ReflectionUtils.isPropertyType(type)
+               && !mapper.getConverters().hasSimpleValueConverter(type)
+               && (type.isAnnotationPresent(Embedded.class) || mapper.isMapped(type));
+    }
+
+    private static <R> List<R> fetchChunks(final List<Callable<R>> chunks, final Executor executor) {
+        final List<R> results = new ArrayList<R>(chunks.size());
+        if (executor == null || chunks.size() < 2) {
+            for (final Callable<R> chunk : chunks) {
+                try {
+                    results.add(chunk.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new MappingException(e.getMessage(), e);
+                }
+            }
+            return results;
+        }
+
+        final List<FutureTask<R>> tasks = new ArrayList<FutureTask<R>>(chunks.size());
+        for (final Callable<R> chunk : chunks) {
+            final FutureTask<R> task = new FutureTask<R>(chunk);
+            tasks.add(task);
+            executor.execute(task);
+        }
+        try {
+            for (final FutureTask<R> task : tasks) {
+                results.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException("Interrupted while fetching entities by key", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MappingException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (final FutureTask<R> task : tasks) {
+                task.cancel(true);
+            }
+        }
+        return results;
     }
 
     /**
@@ -692,23 +902,35 @@ public class DatastoreImpl implements AdvancedDatastore {
         final MappedClass mc = mapper.getMappedClass(unwrapped);
         final DBCollection dbColl = getCollection(unwrapped);
 
+        // with change tracking only the fields which differ from the stored document are set
+        final Snapshot snapshot = getSnapshot(unwrapped, dbColl.getName());
+        final DBObject fields = snapshot != null ? snapshot.changedFields(dbObj) : dbObj;
+
         // try to do an update if there is a @Version field
-        final DBObject set = new BasicDBObject("$set", dbObj);
+        final DBObject set = new BasicDBObject("$set", fields);
         wr = tryVersionedUpdate(dbColl, unwrapped, set, idValue, new InsertOptions().writeConcern(wc), mc);
 
-        if (wr == null) {
+        if (wr == null && !fields.keySet().isEmpty()) {
             final Query<T> query = (Query<T>) createQuery(unwrapped.getClass()).filter("_id", id);
             wr = update(query, set, new UpdateOptions().writeConcern(wc)).getWriteResult();
         }
 
-        final UpdateResults res = new UpdateResults(wr);
-
-        if (res.getUpdatedCount() == 0) {
+        if (wr != null && new UpdateResults(wr).getUpdatedCount() == 0) {
             throw new UpdateException("Nothing updated");
         }
 
         dbObj.put("_id", idValue);
         postSaveOperations(Collections.<Object>singletonList(entity), involvedObjects, false, dbColl.getName());
+        if (snapshot != null) {
+            // the changed fields were set whole, so the stored document is the snapshot with the written fields and new version
+            final DBObject stored = snapshot.getDocument();
+            stored.putAll(dbObj);
+            final MappedField mfVersion = mc.getMappedVersionField();
+            if (mfVersion != null && fields.containsField(mfVersion.getNameToStore())) {
+                stored.put(mfVersion.getNameToStore(), fields.get(mfVersion.getNameToStore()));
+            }
+            snapshots.take(unwrapped, dbColl.getName(), stored);
+        }
         return key;
     }
 
@@ -732,6 +954,9 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> Iterable<Key<T>> save(final Iterable<T> entities, final InsertOptions options) {
+        if (morphia != null && morphia.isUseBulkWriteOperations()) {
+            return bulkSave(entities, options);
+        }
         final List<Key<T>> savedKeys = new ArrayList<Key<T>>();
         for (final T ent : entities) {
             savedKeys.add(save(ent, options));
@@ -1045,6 +1270,24 @@ public class DatastoreImpl implements AdvancedDatastore {
         decoderFactory = fact;
     }
 
+    /**
+     * Returns the DBDecoderFactory to use for a query returning entities.  Unless a custom factory has been set, this reads documents
+     * directly in to entities when {@link dev.morphia.mapping.MapperOptions#isDirectDecoding()} is enabled.
+     *
+     * @param type  the type of the entities
+     * @param cache the EntityCache of the query
+     * @param <T>   the type of the entities
+     * @return the decoder factory
+     * @morphia.internal
+     * @since 1.5
+     */
+    public <T> DBDecoderFactory getDecoderFact(final Class<T> type, final EntityCache cache) {
+        if (decoderFactory == null && mapper.getOptions().isDirectDecoding()) {
+            return new EntityDecoderFactory<T>(entityDecoder, type, cache);
+        }
+        return getDecoderFact();
+    }
+
     @Override
     public <T> Key<T> insert(final String collection, final T entity) {
         final T unwrapped = ProxyHelper.unwrap(entity);
@@ -1162,6 +1405,18 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mapper;
     }
 
+    /**
+     * Gets the snapshots of the stored documents of the entities this Datastore read and saved while change tracking is enabled
+     *
+     * @return the snapshots
+     * @morphia.internal
+     * @see dev.morphia.mapping.MapperOptions.Builder#changeTracking(boolean)
+     * @since 1.5
+     */
+    public EntitySnapshots getSnapshots() {
+        return snapshots;
+    }
+
     /**
      * Sets the Mapper this Datastore uses
      *
@@ -1211,8 +1466,8 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     protected <T> Key<T> insert(final DBCollection dbColl, final T entity, final InsertOptions options) {
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        dbColl.insert(singletonList(entityToDBObj(entity, involvedObjects)), enforceWriteConcern(options, entity.getClass())
-                                                                                 .getOptions());
+        dbColl.insert(singletonList(entityToDocument(entity, involvedObjects)), toInsertOptions(enforceWriteConcern(options,
+            entity.getClass())));
 
         return postSaveOperations(singletonList(entity), involvedObjects, dbColl.getName()).get(0);
     }
@@ -1265,14 +1520,19 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         // involvedObjects is used not only as a cache but also as a list of what needs to be called for life-cycle methods at the end.
         final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
-        final DBObject document = entityToDBObj(entity, involvedObjects);
-
-        // try to do an update if there is a @Version field
-        final Object idValue = document.get("_id");
-        WriteResult wr = tryVersionedUpdate(dbColl, entity, document, idValue, enforceWriteConcern(options, entity.getClass()), mc);
-
-        if (wr == null) {
-            saveDocument(dbColl, document, options);
+        final Snapshot snapshot = getSnapshot(entity, dbColl.getName());
+        final DBObject document = snapshot != null
+                                  ? mapper.toDBObject(entity, involvedObjects)
+                                  : entityToDocument(entity, involvedObjects);
+
+        if (snapshot == null || !saveChanges(dbColl, entity, snapshot, document, options, mc)) {
+            // try to do an update if there is a @Version field
+            final Object idValue = document.get("_id");
+            WriteResult wr = tryVersionedUpdate(dbColl, entity, document, idValue, enforceWriteConcern(options, entity.getClass()), mc);
+
+            if (wr == null) {
+                saveDocument(dbColl, document, options);
+            }
         }
 
         return postSaveOperations(singletonList(entity), involvedObjects, dbColl.getName()).get(0);
@@ -1306,6 +1566,51 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 */
 
+    /**
+     * Saves the entities using bulk writes.  The entities are grouped by collection, and versioned entities by class, and each group is
+     * sent once it holds {@link Morphia#getBulkWriteBatchSize()} entities or all the entities have been seen.
+     *
+     * @return the keys in the same order as the entities
+     * @throws VersionConflictException if any versioned entities were concurrently saved.  All the other entities are still saved.
+     */
+    private <T> List<Key<T>> bulkSave(final Iterable<T> entities, final InsertOptions options) {
+        final int batchSize = morphia.getBulkWriteBatchSize();
+        final List<Key<T>> keys = new ArrayList<Key<T>>();
+        final List<Object> conflicts = new ArrayList<Object>();
+        final Map<Object, BulkSave<T>> pending = new LinkedHashMap<Object, BulkSave<T>>();
+        for (final T entity : entities) {
+            final T unwrapped = ProxyHelper.unwrap(entity);
+            final MappedClass mc = validateSave(unwrapped);
+            final DBCollection dbColl = getCollection(unwrapped);
+            final InsertOptions entityOptions = enforceWriteConcern(options, unwrapped.getClass());
+            final MappedField versionField = mc.getMappedVersionField();
+            final Object group = versionField != null ? mc.getClazz() : dbColl.getName();
+
+            BulkSave<T> bulkSave = pending.get(group);
+            if (bulkSave != null && !bulkSave.accepts(entityOptions)) {
+                bulkSave.execute(this, keys, conflicts);
+                bulkSave = null;
+            }
+            if (bulkSave == null) {
+                bulkSave = new BulkSave<T>(dbColl, entityOptions, versionField);
+                pending.put(group, bulkSave);
+            }
+            keys.add(null);
+            bulkSave.add(unwrapped, keys.size() - 1);
+            if (bulkSave.size() == batchSize) {
+                bulkSave.execute(this, keys, conflicts);
+                pending.remove(group);
+            }
+        }
+        for (final BulkSave<T> bulkSave : pending.values()) {
+            bulkSave.execute(this, keys, conflicts);
+        }
+        if (!conflicts.isEmpty()) {
+            throw new VersionConflictException(conflicts, keys);
+        }
+        return keys;
+    }
+
     private <T> MappedClass validateSave(final T entity) {
         if (entity == null) {
             throw new UpdateException("Can not persist a null entity");
@@ -1319,14 +1624,64 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mc;
     }
 
+    private Snapshot getSnapshot(final Object entity, final String collection) {
+        return mapper.getOptions().isChangeTracking() ? snapshots.get(ProxyHelper.unwrap(entity), collection) : null;
+    }
+
+    /**
+     * Writes only the fields of an entity which differ from the snapshot of its stored document.
+     *
+     * @return false if the whole document still needs to be written
+     * @see dev.morphia.mapping.MapperOptions.Builder#changeTracking(boolean)
+     */
+    private <T> boolean saveChanges(final DBCollection dbColl, final T entity, final Snapshot snapshot, final DBObject document,
+                                    final InsertOptions options, final MappedClass mc) {
+        final Object idValue = document.get("_id");
+        final DBObject changes = idValue != null ? snapshot.diff(document) : null;
+        if (changes == null) {
+            return false;
+        }
+
+        final MappedField mfVersion = mc.getMappedVersionField();
+        if (mfVersion != null) {
+            if (nextValue((Long) mfVersion.getFieldValue(entity)) == 1) {
+                return false;
+            }
+            if (changes.get("$set") == null) {
+                changes.put("$set", new BasicDBObject());
+            }
+            tryVersionedUpdate(dbColl, entity, changes, idValue, enforceWriteConcern(options, entity.getClass()), mc);
+
+            // the entity's version is updated from the saved document
+            final String versionKeyName = mfVersion.getNameToStore();
+            document.put(versionKeyName, ((DBObject) changes.get("$set")).get(versionKeyName));
+            return true;
+        }
+
+        if (changes.keySet().isEmpty()) {
+            // nothing is written unless the document was removed since it was read
+            return dbColl.findOne(new BasicDBObject(ID_FIELD_NAME, idValue), new BasicDBObject(ID_FIELD_NAME, 1),
+                                  ReadPreference.primary()) != null;
+        }
+        final Query<?> query = find(dbColl.getName(), entity.getClass())
+                                   .disableValidation()
+                                   .filter("_id", idValue);
+        final UpdateResults res = update(query, changes, new UpdateOptions()
+                                                             .bypassDocumentValidation(options.getBypassDocumentValidation())
+                                                             .writeConcern(options.getWriteConcern()));
+        // the document is written whole if it was removed since it was read
+        return res.getUpdatedCount() == 1;
+    }
+
     private WriteResult saveDocument(final DBCollection dbColl, final DBObject document, final InsertOptions options) {
         if (document.get(ID_FIELD_NAME) == null) {
-            return dbColl.insert(singletonList(document), options.getOptions());
+            return dbColl.insert(singletonList(document), toInsertOptions(options));
         } else {
             return dbColl.update(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME)), document,
                 new DBCollectionUpdateOptions()
                     .bypassDocumentValidation(options.getBypassDocumentValidation())
                     .writeConcern(options.getWriteConcern())
+                    .encoder(document instanceof EntityDocument ? entityEncoder : null)
                     .upsert(true));
         }
     }
@@ -1353,7 +1708,7 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         if (idValue != null && newVersion == 1) {
             try {
-                wr = dbColl.insert(singletonList(dbObj), options.getOptions());
+                wr = dbColl.insert(singletonList(dbObj), toInsertOptions(options));
             } catch (DuplicateKeyException e) {
                 throw new ConcurrentModificationException(format("Entity of class %s (id='%s') was concurrently saved.",
                     entity.getClass().getName(), idValue));
@@ -1392,6 +1747,93 @@ public class DatastoreImpl implements AdvancedDatastore {
         return find(key.getCollection(), key.getType()).filter("_id", key.getId());
     }
 
+    /**
+     * Removes the documents a write by query may have changed from the shared cache.  A query on a single {@code _id} only invalidates
+     * that document, any other query invalidates the whole collection.  The cached query results of the collection are dropped.
+     */
+    private void invalidate(final String collection, final DBObject queryObject) {
+        invalidateResults(collection);
+        final SharedEntityCache sharedCache = mapper.getSharedEntityCache();
+        if (sharedCache == null) {
+            return;
+        }
+        final Object id = queryObject == null ? null : queryObject.get(ID_FIELD_NAME);
+        if (id == null || isOperator(id)) {
+            sharedCache.invalidate(collection);
+        } else {
+            sharedCache.invalidate(collection, stripDiscriminator(id));
+        }
+    }
+
+    /**
+     * Removes the document changed by a findAndModify from the shared cache.  Without a result no cached document was changed, but an
+     * upsert may still have changed the results of the collection's queries.
+     */
+    private void invalidate(final String collection, final DBObject queryObject, final DBObject result) {
+        invalidateResults(collection);
+        if (result != null) {
+            if (result.get(ID_FIELD_NAME) != null) {
+                invalidateId(collection, result.get(ID_FIELD_NAME));
+            } else {
+                invalidate(collection, queryObject);
+            }
+        }
+    }
+
+    /**
+     * Removes a document from the shared cache by its stored id
+     */
+    private void invalidateId(final String collection, final Object id) {
+        invalidateResults(collection);
+        final SharedEntityCache sharedCache = mapper.getSharedEntityCache();
+        if (sharedCache != null) {
+            if (id == null) {
+                sharedCache.invalidate(collection);
+            } else {
+                sharedCache.invalidate(collection, stripDiscriminator(id));
+            }
+        }
+    }
+
+    /**
+     * Encodes an entity's id the way an {@code _id} filter does.  The shared cache is keyed by these stored ids, which are also what
+     * references and written documents hold.
+     */
+    private Object toStoredId(final Class<?> type, final Object id) {
+        if (id == null) {
+            return null;
+        }
+        final MappedClass mc = mapper.getMappedClass(type);
+        return stripDiscriminator(mapper.toMongoObject(mc.getMappedIdField(), null, id));
+    }
+
+    private Object stripDiscriminator(final Object id) {
+        if (!(id instanceof DBObject)) {
+            return id;
+        }
+        final BasicDBObject copy = new BasicDBObject(((DBObject) id).toMap());
+        copy.removeField(mapper.getOptions().getDiscriminatorField());
+        return copy;
+    }
+
+    private void invalidateResults(final String collection) {
+        final QueryResultCache resultCache = mapper.getOptions().getQueryResultCache();
+        if (resultCache != null) {
+            resultCache.invalidate(collection);
+        }
+    }
+
+    private static boolean isOperator(final Object value) {
+        if (value instanceof DBObject) {
+            for (final String key : ((DBObject) value).keySet()) {
+                if (key.startsWith("$")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private EntityCache createCache() {
         return mapper.createEntityCache();
     }
@@ -1400,6 +1842,25 @@ public class DatastoreImpl implements AdvancedDatastore {
         return mapper.toDBObject(ProxyHelper.unwrap(entity), involvedObjects);
     }
 
+    /**
+     * Maps an entity for saving.  With direct encoding enabled, this is an {@link EntityDocument} whose fields are written by
+     * {@link #entityEncoder} as the driver sends it.
+     */
+    private DBObject entityToDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        final Object unwrapped = ProxyHelper.unwrap(entity);
+        if (mapper.getOptions().isDirectEncoding() && entityEncoder.isDirectlyEncodable(mapper.getMappedClass(unwrapped))) {
+            return entityEncoder.toDocument(unwrapped, involvedObjects);
+        }
+        return mapper.toDBObject(unwrapped, involvedObjects);
+    }
+
+    private com.mongodb.InsertOptions toInsertOptions(final InsertOptions options) {
+        if (mapper.getOptions().isDirectEncoding()) {
+            return options.copy().getOptions().dbEncoder(entityEncoder);
+        }
+        return options.getOptions();
+    }
+
     private <T> Iterable<Key<T>> insert(final DBCollection dbColl, final Iterable<T> entities, final InsertOptions options) {
         if (!entities.iterator().hasNext()) {
             return emptyList();
@@ -1407,10 +1868,10 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         final Map<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
         final List<DBObject> list = new ArrayList<DBObject>();
-        com.mongodb.InsertOptions insertOptions = options.getOptions();
+        com.mongodb.InsertOptions insertOptions = toInsertOptions(options);
         for (final T entity : entities) {
             if (options.getWriteConcern() == null) {
-                insertOptions = enforceWriteConcern(options, entity.getClass()).getOptions();
+                insertOptions = toInsertOptions(enforceWriteConcern(options, entity.getClass()));
             }
             list.add(toDbObject(entity, involvedObjects));
         }
@@ -1461,6 +1922,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                 mapper.updateKeyAndVersionInfo(this, dbObj, createCache(), entity);
                 keys.add(new Key<T>((Class<? extends T>) entity.getClass(), collectionName, mapper.getId(entity)));
             }
+            // the id is only known once the key is assigned, an unknown id flushes the collection
+            invalidateId(collectionName, dbObj != null && dbObj.get(ID_FIELD_NAME) != null
+                                         ? dbObj.get(ID_FIELD_NAME)
+                                         : toStoredId(entity.getClass(), mapper.getId(entity)));
+            if (mapper.getOptions().isChangeTracking()) {
+                updateSnapshot(entity, collectionName, fetchKeys ? dbObj : null);
+            }
             mapper.getMappedClass(entity).callLifecycleMethods(PostPersist.class, entity, dbObj, mapper);
         }
 
@@ -1472,6 +1940,18 @@ public class DatastoreImpl implements AdvancedDatastore {
         return keys;
     }
 
+    /**
+     * Records the document written for an entity as its snapshot, or drops the snapshot when the stored document is not known.
+     */
+    private void updateSnapshot(final Object entity, final String collection, final DBObject document) {
+        final Object unwrapped = ProxyHelper.unwrap(entity);
+        if (document == null || document instanceof EntityDocument || mapper.getMappedClass(unwrapped).getEntityAnnotation() == null) {
+            snapshots.remove(unwrapped);
+        } else {
+            snapshots.take(unwrapped, collection, document);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> Query<T> queryByExample(final DBCollection coll, final T example) {
         // TODO: think about remove className from baseQuery param below.
@@ -1486,7 +1966,7 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new MappingException(format("Entity type: %s is marked as NotSaved which means you should not try to save it!",
                 mc.getClazz().getName()));
         }
-        DBObject dbObject = entityToDBObj(ent, involvedObjects);
+        DBObject dbObject = entityToDocument(ent, involvedObjects);
         List<MappedField> versionFields = mc.getFieldsAnnotatedWith(Version.class);
         for (MappedField mappedField : versionFields) {
             String name = mappedField.getNameToStore();
@@ -1524,9 +2004,11 @@ public class DatastoreImpl implements AdvancedDatastore {
                 dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
+        final UpdateResults results = new UpdateResults(dbColl.update(queryObject, update,
             enforceWriteConcern(options, query.getEntityClass())
                 .getOptions()));
+        invalidate(dbColl.getName(), queryObject);
+        return results;
     }
 
     @SuppressWarnings("unchecked")
@@ -1572,9 +2054,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                 dbColl.getName(), queryObject, update, options.isMulti(), options.isUpsert()));
         }
 
-        return new UpdateResults(dbColl.update(queryObject, update,
-            enforceWriteConcern(options, query.getEntityClass())
-                .getOptions()));
+        final DBCollectionUpdateOptions updateOptions = enforceWriteConcern(options, query.getEntityClass()).getOptions();
+        if (update instanceof EntityDocument) {
+            updateOptions.encoder(entityEncoder);
+        }
+        final UpdateResults results = new UpdateResults(dbColl.update(queryObject, update, updateOptions));
+        invalidate(dbColl.getName(), queryObject);
+        return results;
     }
 
     /**
@@ -1593,4 +2079,197 @@ public class DatastoreImpl implements AdvancedDatastore {
 
         return wc;
     }
+
+    /**
+     * The IDs of the entities to delete from one collection
+     */
+    private static final class BulkDelete {
+        private final DBCollection dbColl;
+        private final DeleteOptions options;
+        private final List<Object> ids = new ArrayList<Object>();
+
+        private BulkDelete(final DBCollection dbColl, final DeleteOptions options) {
+            this.dbColl = dbColl;
+            this.options = options;
+        }
+
+        private void add(final Object id) {
+            ids.add(id);
+        }
+
+        /**
+         * Deletes the entities with {@code _id $in} queries, starting a new query whenever the IDs would take the query over the size
+         * given.
+         *
+         * @param maxSize the largest size, in bytes, the IDs of one query may take
+         * @return the results of each delete
+         */
+        private List<WriteResult> execute(final int maxSize) {
+            final List<WriteResult> results = new ArrayList<WriteResult>();
+            final BasicBSONEncoder encoder = new BasicBSONEncoder();
+            List<Object> chunk = new ArrayList<Object>();
+            int size = 0;
+            for (final Object id : ids) {
+                final int idSize = encoder.encode(new BasicDBObject(ID_FIELD_NAME, id)).length;
+                if (!chunk.isEmpty() && size + idSize > maxSize) {
+                    results.add(remove(chunk));
+                    chunk = new ArrayList<Object>();
+                    size = 0;
+                }
+                chunk.add(id);
+                size += idSize;
+            }
+            if (!chunk.isEmpty()) {
+                results.add(remove(chunk));
+            }
+            return results;
+        }
+
+        private WriteResult remove(final List<Object> chunk) {
+            return dbColl.remove(new BasicDBObject(ID_FIELD_NAME, new BasicDBObject("$in", chunk)), options.getOptions());
+        }
+    }
+
+    /**
+     * The entities waiting to be saved to one collection with one write concern.  Versioned entities are saved in groups of a single class
+     * so they share a version field.
+     */
+    private static final class BulkSave<T> {
+        private final DBCollection dbColl;
+        private final InsertOptions options;
+        private final MappedField versionField;
+        private final List<T> entities = new ArrayList<T>();
+        private final List<Integer> positions = new ArrayList<Integer>();
+
+        private BulkSave(final DBCollection dbColl, final InsertOptions options, final MappedField versionField) {
+            this.dbColl = dbColl;
+            this.options = options;
+            this.versionField = versionField;
+        }
+
+        private boolean accepts(final InsertOptions entityOptions) {
+            final WriteConcern writeConcern = options.getWriteConcern();
+            return writeConcern == null ? entityOptions.getWriteConcern() == null : writeConcern.equals(entityOptions.getWriteConcern());
+        }
+
+        private void add(final T entity, final int position) {
+            entities.add(entity);
+            positions.add(position);
+        }
+
+        private int size() {
+            return entities.size();
+        }
+
+        /**
+         * Sends the entities as a single bulk write of inserts, for entities without an ID, and replacing upserts.  Versioned entities
+         * are instead replaced only if the stored version still matches, or inserted if new, and are always sent unordered so that every
+         * entity is tried.  A versioned insert which fails on a duplicate key lost the race to a concurrent save.  The bulk result only
+         * counts the replacements which matched, so when some did not the documents are read back, and the entities whose document is no
+         * longer stored as they wrote it are added to the conflicts and left unchanged.
+         *
+         * @param datastore the datastore saving the entities
+         * @param keys      the keys of all the entities being saved.  The keys for these entities are set once they are saved.
+         * @param conflicts the versioned entities which were concurrently saved
+         */
+        private void execute(final DatastoreImpl datastore, final List<Key<T>> keys, final List<Object> conflicts) {
+            final LinkedHashMap<Object, DBObject> involvedObjects = new LinkedHashMap<Object, DBObject>();
+            final BulkWriteOperation operation = options.isContinueOnError() || versionField != null
+                                                 ? dbColl.initializeUnorderedBulkOperation()
+                                                 : dbColl.initializeOrderedBulkOperation();
+            operation.setBypassDocumentValidation(options.getBypassDocumentValidation());
+            final Map<Integer, DBObject> replaced = new HashMap<Integer, DBObject>();
+            for (int i = 0; i < entities.size(); i++) {
+                final T entity = entities.get(i);
+                final DBObject document = datastore.entityToDBObj(entity, involvedObjects);
+                final Long oldVersion = versionField != null ? (Long) versionField.getFieldValue(entity) : null;
+                if (versionField != null) {
+                    document.put(versionField.getNameToStore(), datastore.nextValue(oldVersion));
+                }
+                if (document.get(ID_FIELD_NAME) == null) {
+                    document.put(ID_FIELD_NAME, new ObjectId());
+                    operation.insert(document);
+                } else if (versionField == null) {
+                    operation.find(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME))).upsert().replaceOne(document);
+                } else if (oldVersion == null) {
+                    operation.insert(document);
+                } else {
+                    operation.find(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME))
+                                       .append(versionField.getNameToStore(), oldVersion))
+                             .replaceOne(document);
+                    replaced.put(i, document);
+                }
+            }
+
+            final Set<Integer> lost = new HashSet<Integer>();
+            BulkWriteResult result;
+            try {
+                result = options.getWriteConcern() != null ? operation.execute(options.getWriteConcern()) : operation.execute();
+            } catch (BulkWriteException e) {
+                if (versionField == null || e.getWriteConcernError() != null) {
+                    throw e;
+                }
+                for (final BulkWriteError error : e.getWriteErrors()) {
+                    if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                        throw e;
+                    }
+                    lost.add(error.getIndex());
+                }
+                result = e.getWriteResult();
+            }
+            if (result.isAcknowledged() && result.getMatchedCount() < replaced.size()) {
+                lost.addAll(findUnmatched(replaced));
+            }
+
+            final List<T> saved = new ArrayList<T>();
+            final List<Integer> savedPositions = new ArrayList<Integer>();
+            for (int i = 0; i < entities.size(); i++) {
+                if (lost.contains(i)) {
+                    involvedObjects.remove(entities.get(i));
+                    conflicts.add(entities.get(i));
+                } else {
+                    saved.add(entities.get(i));
+                    savedPositions.add(positions.get(i));
+                }
+            }
+            final List<Key<T>> savedKeys = datastore.postSaveOperations(saved, involvedObjects, dbColl.getName());
+            for (int i = 0; i < savedKeys.size(); i++) {
+                keys.set(savedPositions.get(i), savedKeys.get(i));
+            }
+        }
+
+        /**
+         * Finds the versioned replacements which matched no document.  The bulk result only counts the matches, so the replaced documents
+         * are read back.  A replacement whose document is stored as it was written is saved, even should a concurrent save have written
+         * the very same document.  Any other document, or none, means the entity lost the race to a concurrent save or delete and its
+         * version no longer matches the stored one.
+         */
+        private Set<Integer> findUnmatched(final Map<Integer, DBObject> replaced) {
+            final List<Object> ids = new ArrayList<Object>();
+            for (final DBObject document : replaced.values()) {
+                ids.add(document.get(ID_FIELD_NAME));
+            }
+            // ids are keyed by their encoded form so that arrays and embedded ids compare by value
+            final Map<DBObject, DBObject> stored = new HashMap<DBObject, DBObject>();
+            final DBCursor cursor = dbColl.find(new BasicDBObject(ID_FIELD_NAME, new BasicDBObject("$in", ids)))
+                                          .setReadPreference(ReadPreference.primary());
+            try {
+                while (cursor.hasNext()) {
+                    final DBObject document = cursor.next();
+                    stored.put(new BasicDBObject(ID_FIELD_NAME, document.get(ID_FIELD_NAME)), document);
+                }
+            } finally {
+                cursor.close();
+            }
+
+            final Set<Integer> unmatched = new HashSet<Integer>();
+            for (final Entry<Integer, DBObject> entry : replaced.entrySet()) {
+                final DBObject written = entry.getValue();
+                if (!written.equals(stored.get(new BasicDBObject(ID_FIELD_NAME, written.get(ID_FIELD_NAME))))) {
+                    unmatched.add(entry.getKey());
+                }
+            }
+            return unmatched;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package dev.morphia;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The options to apply when fetching entities by their keys
+ *
+ * @see Datastore#getByKeys(Iterable, GetByKeysOptions)
+ * @since 1.5
+ */
+public final class GetByKeysOptions {
+    /**
+     * The default number of keys fetched by a single query
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private boolean includeMissing;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private Executor executor;
+
+    /**
+     * Creates a new options instance.
+     */
+    public GetByKeysOptions() {
+    }
+
+    /**
+     * Copies this instance to a new one.
+     *
+     * @return the new instance
+     */
+    public GetByKeysOptions copy() {
+        return new GetByKeysOptions()
+                   .includeMissing(isIncludeMissing())
+                   .chunkSize(getChunkSize())
+                   .executor(getExecutor());
+    }
+
+    /**
+     * @return true if keys without a stored entity have a null in the results
+     */
+    public boolean isIncludeMissing() {
+        return includeMissing;
+    }
+
+    /**
+     * Sets whether keys without a stored entity have a null in the results.  If true, the results are exactly as long as the keys and
+     * the entity for each key can be found at the key's position.  Otherwise the missing entities are left out.  Either way, the results
+     * are in the order of the keys.
+     *
+     * @param includeMissing true to include nulls for missing entities
+     * @return this
+     */
+    public GetByKeysOptions includeMissing(final boolean includeMissing) {
+        this.includeMissing = includeMissing;
+        return this;
+    }
+
+    /**
+     * @return the largest number of keys fetched by a single query
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the largest number of keys fetched by a single query.  The keys for a collection are split in to as many {@code $in} queries as
+     * needed.
+     *
+     * @param chunkSize the chunk size
+     * @return this
+     */
+    public GetByKeysOptions chunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return the executor running the queries, or null if they are run one after another by the calling thread
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the executor used to run the queries so that the chunks, and the collections, are fetched concurrently.  The calling thread
+     * waits for all the queries to finish.
+     *
+     * @param executor the executor to use or null to run the queries on the calling thread
+     * @return this
+     */
+    public GetByKeysOptions executor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+}
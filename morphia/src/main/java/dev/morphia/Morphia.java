@@ -38,6 +38,8 @@ import java.util.Set;
 public class Morphia {
     private static final Logger LOG = LoggerFactory.getLogger(Morphia.class);
     private final Mapper mapper;
+    private volatile boolean useBulkWriteOperations;
+    private volatile int bulkWriteBatchSize = 1000;
 
     /**
      * Creates a Morphia instance with a default Mapper and an empty class set.
@@ -146,13 +148,36 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if Morphia should use bulk writes
+     * @deprecated use {@link #isUseBulkWriteOperations()}
      */
     @Deprecated
     public boolean getUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
+    }
+
+    /**
+     * @return the largest number of entities sent in a single bulk write
+     * @see #setBulkWriteBatchSize(int)
+     * @since 1.5
+     */
+    public int getBulkWriteBatchSize() {
+        return bulkWriteBatchSize;
+    }
+
+    /**
+     * Sets the largest number of entities {@link Datastore#save(Iterable, InsertOptions)} sends in a single bulk write when bulk writes are
+     * enabled.  Larger saves are split in to several bulk writes.
+     *
+     * @param bulkWriteBatchSize the batch size
+     * @see #setUseBulkWriteOperations(boolean)
+     * @since 1.5
+     */
+    public void setBulkWriteBatchSize(final int bulkWriteBatchSize) {
+        if (bulkWriteBatchSize < 1) {
+            throw new IllegalArgumentException("The bulk write batch size must be at least 1");
+        }
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
     }
 
     /**
@@ -166,24 +191,25 @@ public class Morphia {
     }
 
     /**
-     * @return false.  Setting this value has no value functionally or performance-wise.
-     * @deprecated
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
+     * @return true if Morphia should use bulk writes
+     * @see #setUseBulkWriteOperations(boolean)
      */
-    @Deprecated
     public boolean isUseBulkWriteOperations() {
-        return false;
+        return useBulkWriteOperations;
     }
 
     /**
-     * Configures Morphia to use bulk writes.  Only useful with MongoDB 2.6+.
+     * Configures Morphia to use bulk writes.  When enabled, {@link Datastore#save(Iterable, InsertOptions)} groups the entities by
+     * collection and sends them as bulk writes of inserts and replacing upserts rather than one write per entity.  The writes are
+     * unordered if {@link InsertOptions#continueOnError(boolean)} is set and ordered otherwise.  Lifecycle methods are still called for
+     * each entity.  Versioned entities are only replaced if their stored versions still match.  Those which do not are reported together
+     * by a {@link VersionConflictException} once the rest are saved.
      *
      * @param useBulkWriteOperations true if Morphia should use bulk writes
-     * @see <a href="https://github.com/MorphiaOrg/morphia/issues/1052">Issue #1052</a>
-     * @deprecated Setting this value has no value functionally or performance-wise.
+     * @see #setBulkWriteBatchSize(int)
      */
-    @Deprecated
     public void setUseBulkWriteOperations(final boolean useBulkWriteOperations) {
+        this.useBulkWriteOperations = useBulkWriteOperations;
     }
 
     /**
@@ -0,0 +1,47 @@
+package dev.morphia;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * Signifies that some versioned entities in a bulk save were concurrently saved or updated by someone else.  Unlike a single save, the
+ * rest of the entities are still saved and their versions updated.  The entities which lost the race are left unchanged.
+ *
+ * @see Morphia#setUseBulkWriteOperations(boolean)
+ * @since 1.5
+ */
+public class VersionConflictException extends ConcurrentModificationException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<Object> conflicts;
+    private final transient List<Key<?>> keys;
+
+    /**
+     * Creates an instance for the given entities
+     *
+     * @param conflicts the entities which were not saved
+     * @param keys      the keys of all the entities in the save in the order they were given, with null for the conflicting entities
+     */
+    public VersionConflictException(final List<?> conflicts, final List<? extends Key<?>> keys) {
+        super(String.format("%d of %d versioned entities were concurrently saved or updated", conflicts.size(), keys.size()));
+        this.conflicts = Collections.unmodifiableList(new ArrayList<Object>(conflicts));
+        this.keys = Collections.unmodifiableList(new ArrayList<Key<?>>(keys));
+    }
+
+    /**
+     * @return the entities which were not saved because their versions did not match the stored versions
+     */
+    public List<Object> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return the keys of all the entities in the save in the order they were given, with null for the conflicting entities
+     */
+    public List<Key<?>> getKeys() {
+        return keys;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.morphia.converters;
 
 import com.mongodb.DBObject;
+import dev.morphia.mapping.EphemeralMappedField;
 import dev.morphia.mapping.MappedField;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.MapperOptions;
@@ -14,19 +15,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.lang.String.format;
 
 /**
- * Defines a bundle of converters
+ * Defines a bundle of converters.  The converter chosen for a type, or for a value's type and a java field, is remembered until a
+ * converter is added or removed so {@link #getEncoder(Class)} and {@link #getEncoder(Object, MappedField)} are only asked once for each
+ * combination.  Subclasses overriding those methods should therefore give the same answer each time for the same arguments.  The
+ * fields describing the type arguments of a field, such as the values of a {@code Map<String, List<String>>}, are not remembered.
  */
 public abstract class Converters {
     private static final Logger LOG = LoggerFactory.getLogger(Converters.class);
+    private static final Class NO_VALUE = Void.class;
+    private static final int MAX_RESOLUTIONS = 10000;
 
     private final Mapper mapper;
     private final List<TypeConverter> untypedTypeEncoders = new LinkedList<TypeConverter>();
     private final Map<Class, List<TypeConverter>> tcMap = new ConcurrentHashMap<Class, List<TypeConverter>>();
     private final List<Class<? extends TypeConverter>> registeredConverterClasses = new ArrayList<Class<? extends TypeConverter>>();
+    private volatile int revision;
+    private volatile ResolutionCache resolutionCache = new ResolutionCache();
+    private final AtomicLong resolutions = new AtomicLong();
 
     /**
      * Creates a bundle with a particular Mapper.
@@ -64,6 +75,7 @@ public abstract class Converters {
 
         registeredConverterClasses.add(tc.getClass());
         tc.setMapper(mapper);
+        invalidate();
 
         return tc;
     }
@@ -82,7 +94,7 @@ public abstract class Converters {
         if (toDecode == null) {
             toDecode = fromDBObject.getClass();
         }
-        return getEncoder(toDecode).decode(toDecode, fromDBObject, mf);
+        return resolve(toDecode).decode(toDecode, fromDBObject, mf);
     }
 
     /**
@@ -106,7 +118,7 @@ public abstract class Converters {
      * @return the encoded version of the object
      */
     public Object encode(final Class c, final Object o) {
-        return getEncoder(c).encode(o);
+        return resolve(c).encode(o);
     }
 
     /**
@@ -118,9 +130,23 @@ public abstract class Converters {
      * @param targetEntity then entity to hold the state from the database
      */
     public void fromDBObject(final DBObject dbObj, final MappedField mf, final Object targetEntity) {
+        fromDBObject(dbObj, mf, targetEntity, resolve(null, mf));
+    }
+
+    /**
+     * Populates a field with a converter already looked up for it.
+     *
+     * @param dbObj        the object state to use
+     * @param mf           the MappedField containing the metadata to use when decoding in to a field
+     * @param targetEntity then entity to hold the state from the database
+     * @param enc          the converter to use
+     * @morphia.internal
+     * @see #getFieldConverter(MappedField)
+     * @since 1.5
+     */
+    public void fromDBObject(final DBObject dbObj, final MappedField mf, final Object targetEntity, final TypeConverter enc) {
         final Object object = mf.getDbObjectValue(dbObj);
         if (object != null) {
-            final TypeConverter enc = getEncoder(mf);
             final Object decodedValue = enc.decode(mf.getType(), object, mf);
             try {
                 mf.setFieldValue(targetEntity, decodedValue);
@@ -131,12 +157,45 @@ public abstract class Converters {
         }
     }
 
+    /**
+     * Looks up the converter used to read a field.  The result stays valid until the {@link #getRevision() revision} changes.
+     *
+     * @param field the field to check with
+     * @return the converter or null if there is none
+     * @morphia.internal
+     * @since 1.5
+     */
+    public TypeConverter getFieldConverter(final MappedField field) {
+        return resolve(null, field);
+    }
+
+    /**
+     * @return a number which changes each time a converter is added or removed
+     * @morphia.internal
+     * @since 1.5
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Returns how many times a converter has been looked up rather than taken from the cache of earlier lookups.  This count grows once
+     * per type, or value type and java field, between changes to the registered converters, and on each lookup for a type argument.
+     *
+     * @return the number of lookups
+     * @morphia.internal
+     * @since 1.5
+     */
+    public long getResolutionCount() {
+        return resolutions.get();
+    }
+
     /**
      * @param field the field to check with
      * @return true if there is a converter for the type of the field
      */
     public boolean hasDbObjectConverter(final MappedField field) {
-        final TypeConverter converter = getEncoder(field);
+        final TypeConverter converter = resolve(null, field);
         return converter != null && !(converter instanceof IdentityConverter) && !(converter instanceof SimpleValueConverter);
     }
 
@@ -145,7 +204,7 @@ public abstract class Converters {
      * @return true if there is a converter for the type
      */
     public boolean hasDbObjectConverter(final Class c) {
-        final TypeConverter converter = getEncoder(c);
+        final TypeConverter converter = resolve(c);
         return converter != null && !(converter instanceof IdentityConverter) && !(converter instanceof SimpleValueConverter);
     }
 
@@ -173,7 +232,7 @@ public abstract class Converters {
      * @see SimpleValueConverter
      */
     public boolean hasSimpleValueConverter(final Class c) {
-        return (getEncoder(c) instanceof SimpleValueConverter);
+        return (resolve(c) instanceof SimpleValueConverter);
     }
 
     /**
@@ -182,7 +241,7 @@ public abstract class Converters {
      * @see SimpleValueConverter
      */
     public boolean hasSimpleValueConverter(final MappedField c) {
-        return (getEncoder(c) instanceof SimpleValueConverter);
+        return (resolve(null, c) instanceof SimpleValueConverter);
     }
 
     /**
@@ -214,7 +273,7 @@ public abstract class Converters {
             }
             registeredConverterClasses.remove(tc.getClass());
         }
-
+        invalidate();
     }
 
     /**
@@ -227,7 +286,7 @@ public abstract class Converters {
      */
     public void toDBObject(final Object containingObject, final MappedField mf, final DBObject dbObj, final MapperOptions opts) {
         final Object fieldValue = mf.getFieldValue(containingObject);
-        final TypeConverter enc = getEncoder(fieldValue, mf);
+        final TypeConverter enc = resolve(fieldValue, mf);
 
         final Object encoded = enc.encode(fieldValue, mf);
         if (encoded != null || opts.isStoreNulls()) {
@@ -291,7 +350,106 @@ public abstract class Converters {
         }
     }
 
-    private TypeConverter getEncoder(final MappedField mf) {
-        return getEncoder(null, mf);
+    private void invalidate() {
+        resolutionCache = new ResolutionCache();
+        revision++;
+    }
+
+    private TypeConverter resolve(final Class c) {
+        if (c == null) {
+            return getEncoder(c);
+        }
+        final ResolutionCache cache = resolutionCache;
+        Resolution resolution = cache.byClass.get(c);
+        if (resolution == null) {
+            resolutions.incrementAndGet();
+            resolution = new Resolution(getEncoder(c));
+            if (cache.byClass.size() < MAX_RESOLUTIONS) {
+                cache.byClass.put(c, resolution);
+            }
+        }
+        return resolution.converter;
+    }
+
+    private TypeConverter resolve(final Object val, final MappedField mf) {
+        // the fields made for the type arguments of a field share its java field, so they are looked up each time
+        if (mf == null || mf.getField() == null || mf instanceof EphemeralMappedField) {
+            resolutions.incrementAndGet();
+            return getEncoder(val, mf);
+        }
+        final ResolutionCache cache = resolutionCache;
+        final FieldKey key = new FieldKey(mf, val != null ? val.getClass() : NO_VALUE);
+        Resolution resolution = cache.byField.get(key);
+        if (resolution == null) {
+            resolutions.incrementAndGet();
+            resolution = new Resolution(getEncoder(val, mf));
+            if (cache.byField.size() < MAX_RESOLUTIONS) {
+                cache.byField.put(key, resolution);
+            }
+        }
+        return resolution.converter;
+    }
+
+    /**
+     * The converters found since the last change to the registered converters.  A new instance replaces this one on each change so that a
+     * lookup racing with the change can not leave a stale entry behind.
+     */
+    private static final class ResolutionCache {
+        private final ConcurrentMap<Class, Resolution> byClass = new ConcurrentHashMap<Class, Resolution>();
+        private final ConcurrentMap<FieldKey, Resolution> byField = new ConcurrentHashMap<FieldKey, Resolution>();
+    }
+
+    /**
+     * Identifies a field by its java field rather than its MappedField, since a field can be described by more than one instance.  The
+     * field's type is kept as well since a field declared with a type variable has a type for each class mapping it.
+     */
+    private static final class FieldKey {
+        private final Class declaringClass;
+        private final String name;
+        private final Class type;
+        private final Class subClass;
+        private final Class valueClass;
+
+        private FieldKey(final MappedField mf, final Class valueClass) {
+            declaringClass = mf.getDeclaringClass();
+            name = mf.getJavaFieldName();
+            type = mf.getType();
+            subClass = mf.getSubClass();
+            this.valueClass = valueClass;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FieldKey)) {
+                return false;
+            }
+            final FieldKey that = (FieldKey) o;
+            return declaringClass == that.declaringClass
+                   && name.equals(that.name)
+                   && type == that.type
+                   && subClass == that.subClass
+                   && valueClass == that.valueClass;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = declaringClass.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + (type != null ? type.hashCode() : 0);
+            result = 31 * result + (subClass != null ? subClass.hashCode() : 0);
+            result = 31 * result + valueClass.hashCode();
+            return result;
+        }
+    }
+
+    private static final class Resolution {
+        private final TypeConverter converter;
+
+        private Resolution(final TypeConverter converter) {
+            this.converter = converter;
+        }
     }
 }
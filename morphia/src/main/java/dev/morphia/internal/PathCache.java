@@ -0,0 +1,180 @@
+package dev.morphia.internal;
+
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.morphia.internal.MorphiaUtils.join;
+import static java.util.Arrays.asList;
+
+/**
+ * Caches the translated paths and target fields resolved by {@link PathTarget}.  Paths are keyed with their array index segments
+ * replaced by {@code $}, which resolves the same way, so that {@code items.3.name} and {@code items.7.name} share an entry.  The cache
+ * is cleared whenever a class is mapped since new subtypes can change how paths resolve.  Once it holds {@link #MAX_PATHS} paths,
+ * further paths are resolved on each use.
+ *
+ * @morphia.internal
+ * @see dev.morphia.mapping.Mapper#getPathCache()
+ * @since 1.5
+ */
+public class PathCache {
+    /**
+     * The most paths held
+     */
+    public static final int MAX_PATHS = 10000;
+
+    private final ConcurrentMap<PathKey, Entry> paths = new ConcurrentHashMap<PathKey, Entry>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Drops every path
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        paths.clear();
+    }
+
+    /**
+     * @return the number of paths held
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    static boolean isArrayIndex(final String path, final int start, final int end) {
+        if (end <= start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            final char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the array index segments of a path with {@code $}
+     */
+    static String normalize(final String path) {
+        StringBuilder normalized = null;
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isArrayIndex(path, start, end)) {
+                if (normalized == null) {
+                    normalized = new StringBuilder(path.length()).append(path, 0, start);
+                }
+                normalized.append('$');
+            } else if (normalized != null) {
+                normalized.append(path, start, end);
+            }
+            if (normalized != null && end < path.length()) {
+                normalized.append('.');
+            }
+            start = end + 1;
+        }
+        return normalized == null ? path : normalized.toString();
+    }
+
+    long getGeneration() {
+        return generation.get();
+    }
+
+    Entry get(final MappedClass root, final String normalized, final boolean validateNames) {
+        return paths.get(new PathKey(root, normalized, validateNames));
+    }
+
+    void put(final MappedClass root, final String normalized, final boolean validateNames, final Entry entry, final long resolved) {
+        if (paths.size() < MAX_PATHS) {
+            final PathKey key = new PathKey(root, normalized, validateNames);
+            paths.putIfAbsent(key, entry);
+            // a class mapped while resolving may have changed how the path resolves
+            if (generation.get() != resolved) {
+                paths.remove(key, entry);
+            }
+        }
+    }
+
+    /**
+     * A resolved path
+     */
+    static final class Entry {
+        private final String path;
+        private final String translatedPath;
+        private final List<String> rawSegments;
+        private final List<String> segments;
+        private final MappedField target;
+
+        Entry(final String path, final List<String> segments, final MappedField target) {
+            this.path = path;
+            rawSegments = asList(path.split("\\."));
+            this.segments = new ArrayList<String>(segments);
+            translatedPath = join(segments, '.');
+            this.target = target;
+        }
+
+        MappedField getTarget() {
+            return target;
+        }
+
+        /**
+         * Translates a path sharing this entry's normalized form.  Only array indexes can differ from the path resolved and those are
+         * never translated, so the path's own indexes are kept.
+         */
+        String translate(final String raw) {
+            if (raw.equals(path)) {
+                return translatedPath;
+            }
+            final List<String> translated = new ArrayList<String>(segments);
+            final String[] parts = raw.split("\\.");
+            for (int i = 0; i < translated.size() && i < parts.length; i++) {
+                if (!parts[i].equals(rawSegments.get(i))) {
+                    translated.set(i, parts[i]);
+                }
+            }
+            return join(translated, '.');
+        }
+    }
+
+    private static final class PathKey {
+        private final MappedClass root;
+        private final String path;
+        private final boolean validateNames;
+
+        private PathKey(final MappedClass root, final String path, final boolean validateNames) {
+            this.root = root;
+            this.path = path;
+            this.validateNames = validateNames;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PathKey)) {
+                return false;
+            }
+            final PathKey that = (PathKey) o;
+            return validateNames == that.validateNames && root == that.root && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(root);
+            result = 31 * result + path.hashCode();
+            result = 31 * result + (validateNames ? 1 : 0);
+            return result;
+        }
+    }
+}
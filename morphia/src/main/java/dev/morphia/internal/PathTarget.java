@@ -35,7 +35,9 @@ import static dev.morphia.internal.MorphiaUtils.join;
  */
 @SuppressWarnings("deprecation")
 public class PathTarget {
-    private final List<String> segments;
+    private final String path;
+    private List<String> segments;
+    private String translatedPath;
     private boolean validateNames;
     private int position;
     private Mapper mapper;
@@ -71,11 +73,14 @@ public class PathTarget {
      * @param path path
      */
     public PathTarget(final Mapper mapper, final MappedClass root, final String path, boolean validateNames) {
-        segments = asList(path.split("\\."));
+        this.path = path;
         this.root = root;
         this.mapper = mapper;
         this.validateNames = validateNames;
-        resolved = path.startsWith("$");
+        if (path.startsWith("$")) {
+            translatedPath = join(asList(path.split("\\.")), '.');
+            resolved = true;
+        }
     }
 
     private boolean hasNext() {
@@ -91,7 +96,7 @@ public class PathTarget {
         if (!resolved) {
             resolve();
         }
-        return join(segments, '.');
+        return translatedPath;
     }
 
     /**
@@ -111,13 +116,34 @@ public class PathTarget {
     }
 
     private void resolve() {
+        final PathCache cache = mapper != null && root != null ? mapper.getPathCache() : null;
+        if (cache == null) {
+            walk();
+            return;
+        }
+
+        final String normalized = PathCache.normalize(path);
+        final PathCache.Entry entry = cache.get(root, normalized, validateNames);
+        if (entry != null) {
+            translatedPath = entry.translate(path);
+            target = entry.getTarget();
+            resolved = true;
+        } else {
+            final long generation = cache.getGeneration();
+            walk();
+            cache.put(root, normalized, validateNames, new PathCache.Entry(path, segments, target), generation);
+        }
+    }
+
+    private void walk() {
+        segments = asList(path.split("\\."));
         context = this.root;
         position = 0;
         MappedField field = null;
         while (context != null && hasNext()) {
             String segment = next();
 
-            if ("$".equals(segment) || segment.matches("[0-9]+")) {  // array operator
+            if ("$".equals(segment) || PathCache.isArrayIndex(segment, 0, segment.length())) {  // array operator
                 if (!hasNext()) {
                     break;
                 }
@@ -140,6 +166,7 @@ public class PathTarget {
             }
         }
         target = field;
+        translatedPath = join(segments, '.');
         resolved = true;
     }
 
@@ -173,6 +200,6 @@ public class PathTarget {
 
     @Override
     public String toString() {
-        return String.format("PathTarget{root=%s, segments=%s, target=%s}", root.getClazz().getSimpleName(), segments, target);
+        return String.format("PathTarget{root=%s, path=%s, target=%s}", root.getClazz().getSimpleName(), path, target);
     }
 }
@@ -6,8 +6,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import dev.morphia.ObjectFactory;
 import dev.morphia.annotations.ConstructorArgs;
+import dev.morphia.mapping.instantiation.Instantiator;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,7 +27,8 @@ public class DefaultCreator implements ObjectFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultCreator.class);
 
-    private Map<String, Class> classNameCache = new ConcurrentHashMap<String, Class>();
+    private final ConcurrentHashMap<Class, Instantiator> instantiators = new ConcurrentHashMap<Class, Instantiator>();
+    private volatile ClassLookups classLookups = new ClassLookups(null);
 
     private final MapperOptions options;
 
@@ -45,11 +48,41 @@ public class DefaultCreator implements ObjectFactory {
         this.options = options;
     }
 
-    private static <T> Constructor<T> getNoArgsConstructor(final Class<T> type) {
+    /**
+     * Finds the instantiator for a class.  Instantiators are created once per class and then reused.  Abstract collection types are
+     * created using the default {@link List}, {@link Set} or {@link Map} implementation.
+     *
+     * @param type the class to create
+     * @param <T>  the type of the class
+     * @return the instantiator
+     * @throws MappingException if the class has no no-arg constructor
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Instantiator<T> getInstantiator(final Class<T> type) {
+        Instantiator<T> instantiator = instantiators.get(type);
+        if (instantiator == null) {
+            instantiator = createInstantiator(type);
+            final Instantiator<T> existing = instantiators.putIfAbsent(type, instantiator);
+            if (existing != null) {
+                instantiator = existing;
+            }
+        }
+        return instantiator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Instantiator<T> createInstantiator(final Class<T> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            if (Map.class.isAssignableFrom(type)) {
+                return (Instantiator<T>) getInstantiator(HashMap.class);
+            } else if (Set.class.isAssignableFrom(type)) {
+                return (Instantiator<T>) getInstantiator(HashSet.class);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                return (Instantiator<T>) getInstantiator(ArrayList.class);
+            }
+        }
         try {
-            final Constructor<T> constructor = type.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor;
+            return options.getInstantiationStrategy().createInstantiator(type.getDeclaredConstructor());
         } catch (NoSuchMethodException e) {
             throw new MappingException("No usable constructor for " + type.getName(), e);
         }
@@ -70,7 +103,7 @@ public class DefaultCreator implements ObjectFactory {
     @SuppressWarnings("unchecked")
     public <T> T createInstance(final Class<T> clazz) {
         try {
-            return getNoArgsConstructor(clazz).newInstance();
+            return getInstantiator(clazz).newInstance();
         } catch (Exception e) {
             if (Map.class.isAssignableFrom(clazz)) {
                 return (T) createMap(null);
@@ -152,7 +185,7 @@ public class DefaultCreator implements ObjectFactory {
      */
     public Map<String, Class> getClassNameCache() {
         HashMap<String, Class> copy = new HashMap<String, Class>();
-        copy.putAll(classNameCache);
+        copy.putAll(classLookups.classes);
         return copy;
     }
 
@@ -165,14 +198,15 @@ public class DefaultCreator implements ObjectFactory {
             // try to Class.forName(className) as defined in the dbObject first,
             // otherwise return the entityClass
             try {
-                if (options.isCacheClassLookups()) {
-                    c = classNameCache.get(className);
-                    if (c == null) {
-                        c = Class.forName(className, true, classLoader);
-                        classNameCache.put(className, c);
-                    }
-                } else {
+                ClassLookups lookups = classLookups;
+                if (lookups.classLoader != classLoader) {
+                    lookups = new ClassLookups(classLoader);
+                    classLookups = lookups;
+                }
+                c = lookups.classes.get(className);
+                if (c == null) {
                     c = Class.forName(className, true, classLoader);
+                    lookups.classes.put(className, c);
                 }
             } catch (ClassNotFoundException e) {
                 if (LOG.isWarnEnabled()) {
@@ -188,9 +222,8 @@ public class DefaultCreator implements ObjectFactory {
      */
     private <T> T newInstance(final Constructor<T> tryMe, final Class<T> fallbackType) {
         if (tryMe != null) {
-            tryMe.setAccessible(true);
             try {
-                return tryMe.newInstance();
+                return getInstantiator(tryMe.getDeclaringClass()).newInstance();
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -198,4 +231,15 @@ public class DefaultCreator implements ObjectFactory {
         return createInstance(fallbackType);
     }
 
+    /**
+     * The classes found by name through a single class loader.  The cache is replaced if the class loader in the options changes.
+     */
+    private static final class ClassLookups {
+        private final ClassLoader classLoader;
+        private final ConcurrentHashMap<String, Class> classes = new ConcurrentHashMap<String, Class>();
+
+        private ClassLookups(final ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+    }
 }
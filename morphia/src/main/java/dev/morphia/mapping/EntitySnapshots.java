@@ -0,0 +1,377 @@
+package dev.morphia.mapping;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DBObjectCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonType;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Holds the last known stored document of the entities a datastore read or saved while change tracking is enabled.  A save compares the
+ * entity's new document with its snapshot and only writes the fields which changed.  Entities are held weakly and compared by identity,
+ * so a snapshot lives as long as its entity and is not affected by {@code equals} or {@code hashCode}.
+ * <p>
+ * A snapshot holds the stored document encoded as BSON rather than the document itself, so it takes little more memory than the document
+ * did on the wire and is not affected by later changes to the document.  Fields are compared by their encoded values, and the document is
+ * only decoded to find the changes within a nested document.
+ *
+ * @morphia.internal
+ * @see MapperOptions.Builder#changeTracking(boolean)
+ * @since 1.5
+ */
+public class EntitySnapshots {
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().build();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+    private final ConcurrentMap<IdentityKey, Snapshot> snapshots = new ConcurrentHashMap<IdentityKey, Snapshot>();
+    private final DBObjectCodec codec;
+
+    /**
+     * Creates an empty set of snapshots
+     *
+     * @param registry the registry used to encode and decode the documents, which should be the one the documents are written with
+     */
+    public EntitySnapshots(final CodecRegistry registry) {
+        codec = new DBObjectCodec(registry);
+    }
+
+    /**
+     * Finds the changes between two versions of a document.  Changed and added fields are set, removed fields are unset, and nested
+     * documents are compared field by field so that only the changed parts are written.  The {@code _id} is never changed.
+     *
+     * @param snapshot the stored document
+     * @param document the new document
+     * @return the update document holding the {@code $set} and {@code $unset} operations needed, which is empty if nothing changed
+     */
+    public static DBObject diff(final DBObject snapshot, final DBObject document) {
+        final BasicDBObject set = new BasicDBObject();
+        final BasicDBObject unset = new BasicDBObject();
+        diff(null, snapshot, document, set, unset);
+        return toChanges(set, unset);
+    }
+
+    /**
+     * Finds the top level fields of a document which differ from the stored document.  Nested documents are kept whole, so that setting
+     * the fields leaves the stored document equal to the snapshot with the fields of the document put in it.  The {@code _id} is never
+     * changed.
+     *
+     * @param snapshot the stored document
+     * @param document the new document
+     * @return the changed and added fields of the document, which is empty if nothing changed
+     */
+    public static DBObject changedFields(final DBObject snapshot, final DBObject document) {
+        final BasicDBObject changed = new BasicDBObject();
+        for (final String key : document.keySet()) {
+            final Object value = document.get(key);
+            if (!Mapper.ID_KEY.equals(key) && (!snapshot.containsField(key) || !same(snapshot.get(key), value))) {
+                changed.put(key, value);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Records the stored document of an entity
+     *
+     * @param entity     the entity
+     * @param collection the collection the document is stored in
+     * @param document   the document
+     */
+    public void take(final Object entity, final String collection, final DBObject document) {
+        final Snapshot snapshot = new Snapshot(collection, encode(document));
+        expunge();
+        snapshots.put(new IdentityKey(entity, queue), snapshot);
+    }
+
+    /**
+     * Records the stored document of an entity as it was read from the database
+     *
+     * @param entity     the entity
+     * @param collection the collection the document is stored in
+     * @param document   the encoded document, which must not be changed afterwards
+     */
+    public void take(final Object entity, final String collection, final byte[] document) {
+        final Snapshot snapshot = new Snapshot(collection, document);
+        expunge();
+        snapshots.put(new IdentityKey(entity, queue), snapshot);
+    }
+
+    /**
+     * Finds the stored document of an entity
+     *
+     * @param entity     the entity
+     * @param collection the collection the entity is to be written to
+     * @return the snapshot, or null if the entity has no snapshot or one taken from another collection
+     */
+    public Snapshot get(final Object entity, final String collection) {
+        final Snapshot snapshot = snapshots.get(new IdentityKey(entity, null));
+        return snapshot != null && snapshot.collection.equals(collection) ? snapshot : null;
+    }
+
+    /**
+     * Drops the snapshot of an entity
+     *
+     * @param entity the entity
+     */
+    public void remove(final Object entity) {
+        expunge();
+        snapshots.remove(new IdentityKey(entity, null));
+    }
+
+    /**
+     * @return the number of entities with a snapshot, including those no longer referenced but not yet removed
+     */
+    public int size() {
+        expunge();
+        return snapshots.size();
+    }
+
+    private static void diff(final String prefix, final DBObject snapshot, final DBObject document, final DBObject set,
+                             final DBObject unset) {
+        for (final String key : document.keySet()) {
+            final String path = prefix == null ? key : prefix + "." + key;
+            final Object value = document.get(key);
+            if (!snapshot.containsField(key)) {
+                set.put(path, value);
+            } else {
+                final Object stored = snapshot.get(key);
+                if (isDocument(stored) && isDocument(value) && !((DBObject) value).keySet().isEmpty()) {
+                    diff(path, (DBObject) stored, (DBObject) value, set, unset);
+                } else if (!same(stored, value)) {
+                    set.put(path, value);
+                }
+            }
+        }
+        for (final String key : snapshot.keySet()) {
+            if (!document.containsField(key)) {
+                unset.put(prefix == null ? key : prefix + "." + key, "");
+            }
+        }
+    }
+
+    private static boolean isDocument(final Object value) {
+        return value instanceof DBObject && !(value instanceof List);
+    }
+
+    private static boolean same(final Object stored, final Object value) {
+        if (stored == null || value == null) {
+            return stored == value;
+        }
+        if (stored instanceof byte[] && value instanceof byte[]) {
+            return Arrays.equals((byte[]) stored, (byte[]) value);
+        }
+        return stored.equals(value);
+    }
+
+    private byte[] encode(final DBObject document) {
+        final BasicOutputBuffer buffer = new BasicOutputBuffer();
+        final BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
+        try {
+            codec.encode(writer, document, ENCODER_CONTEXT);
+        } finally {
+            writer.close();
+        }
+        return buffer.toByteArray();
+    }
+
+    private DBObject decode(final byte[] bytes) {
+        final BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes));
+        try {
+            return codec.decode(reader, DECODER_CONTEXT);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Finds where the value of each top level field of an encoded document starts and ends
+     */
+    private static Map<String, Element> index(final byte[] bytes) {
+        final Map<String, Element> elements = new HashMap<String, Element>();
+        final BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes));
+        try {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                final String name = reader.readName();
+                final BsonType type = reader.getCurrentBsonType();
+                final int start = reader.getBsonInput().getPosition();
+                reader.skipValue();
+                elements.put(name, new Element(type, start, reader.getBsonInput().getPosition()));
+            }
+        } finally {
+            reader.close();
+        }
+        return elements;
+    }
+
+    private static boolean same(final byte[] stored, final Element storedElement, final byte[] encoded, final Element element) {
+        return storedElement.type == element.type
+               && ByteBuffer.wrap(stored, storedElement.start, storedElement.end - storedElement.start)
+                            .equals(ByteBuffer.wrap(encoded, element.start, element.end - element.start));
+    }
+
+    private static DBObject toChanges(final DBObject set, final DBObject unset) {
+        set.removeField(Mapper.ID_KEY);
+        unset.removeField(Mapper.ID_KEY);
+
+        final BasicDBObject changes = new BasicDBObject();
+        if (!set.keySet().isEmpty()) {
+            changes.put("$set", set);
+        }
+        if (!unset.keySet().isEmpty()) {
+            changes.put("$unset", unset);
+        }
+        return changes;
+    }
+
+    private void expunge() {
+        Object cleared;
+        while ((cleared = queue.poll()) != null) {
+            snapshots.remove(cleared);
+        }
+    }
+
+    /**
+     * The encoded stored document of an entity
+     *
+     * @morphia.internal
+     * @since 1.5
+     */
+    public final class Snapshot {
+        private final String collection;
+        private final byte[] document;
+
+        private Snapshot(final String collection, final byte[] document) {
+            this.collection = collection;
+            this.document = document;
+        }
+
+        /**
+         * Finds the changes between the stored document and a new one, as {@link EntitySnapshots#diff(DBObject, DBObject)} does.
+         *
+         * @param update the new document
+         * @return the update document holding the {@code $set} and {@code $unset} operations needed, which is empty if nothing changed,
+         * or null if the new document has another {@code _id}
+         */
+        public DBObject diff(final DBObject update) {
+            final byte[] encoded = encode(update);
+            final Map<String, Element> stored = index(document);
+            final Map<String, Element> elements = index(encoded);
+            final Element storedId = stored.get(Mapper.ID_KEY);
+            final Element id = elements.get(Mapper.ID_KEY);
+            if (storedId == null || id == null || !same(document, storedId, encoded, id)) {
+                return null;
+            }
+
+            final BasicDBObject set = new BasicDBObject();
+            final BasicDBObject unset = new BasicDBObject();
+            DBObject decoded = null;
+            for (final String key : update.keySet()) {
+                final Object value = update.get(key);
+                final Element storedElement = stored.get(key);
+                if (storedElement == null) {
+                    set.put(key, value);
+                } else if (!same(document, storedElement, encoded, elements.get(key))) {
+                    if (storedElement.type == BsonType.DOCUMENT && isDocument(value) && !((DBObject) value).keySet().isEmpty()) {
+                        if (decoded == null) {
+                            decoded = decode(document);
+                        }
+                        EntitySnapshots.diff(key, (DBObject) decoded.get(key), (DBObject) value, set, unset);
+                    } else {
+                        set.put(key, value);
+                    }
+                }
+            }
+            for (final String key : stored.keySet()) {
+                if (!update.containsField(key)) {
+                    unset.put(key, "");
+                }
+            }
+            return toChanges(set, unset);
+        }
+
+        /**
+         * Finds the top level fields of a new document which differ from the stored document, as
+         * {@link EntitySnapshots#changedFields(DBObject, DBObject)} does.
+         *
+         * @param update the new document
+         * @return the changed and added fields of the document, which is empty if nothing changed
+         */
+        public DBObject changedFields(final DBObject update) {
+            final byte[] encoded = encode(update);
+            final Map<String, Element> stored = index(document);
+            final Map<String, Element> elements = index(encoded);
+            final BasicDBObject changed = new BasicDBObject();
+            for (final String key : update.keySet()) {
+                final Element storedElement = stored.get(key);
+                if (!Mapper.ID_KEY.equals(key) && (storedElement == null || !same(document, storedElement, encoded, elements.get(key)))) {
+                    changed.put(key, update.get(key));
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * @return a copy of the stored document
+         */
+        public DBObject getDocument() {
+            return decode(document);
+        }
+    }
+
+    private static final class Element {
+        private final BsonType type;
+        private final int start;
+        private final int end;
+
+        private Element(final BsonType type, final int start, final int end) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class IdentityKey extends WeakReference<Object> {
+        private final int hash;
+
+        private IdentityKey(final Object entity, final ReferenceQueue<Object> queue) {
+            super(entity, queue);
+            hash = System.identityHashCode(entity);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityKey)) {
+                return false;
+            }
+            final Object entity = get();
+            return entity != null && entity == ((IdentityKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.morphia.mapping;
+
+import com.mongodb.DBObject;
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.NotSaved;
+import dev.morphia.annotations.Property;
+import dev.morphia.annotations.Reference;
+import dev.morphia.annotations.Serialized;
+import dev.morphia.converters.Converters;
+import dev.morphia.converters.TypeConverter;
+import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.mapping.experimental.MorphiaReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Holds the decisions {@link Mapper} makes about how to read and write a field so they are only made once per field instead of once per
+ * document.  The {@link CustomMapper}s themselves are still taken from the {@link MapperOptions} on each use since they can be replaced.
+ * Plans depend on the registered converters and are rebuilt by {@link MappedClass} when those change.
+ */
+final class FieldPlan {
+    private static final Logger LOG = LoggerFactory.getLogger(FieldPlan.class);
+
+    private final MappedField mappedField;
+    private final boolean saved;
+    private final Kind readKind;
+    private final Kind writeKind;
+    private final boolean checkValueConverter;
+    private final TypeConverter readConverter;
+
+    FieldPlan(final MappedField mf, final Converters converters) {
+        mappedField = mf;
+        saved = !mf.hasAnnotation(NotSaved.class);
+
+        final boolean simpleValue = mf.isTypeMongoCompatible() || converters.hasSimpleValueConverter(mf);
+        if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class) || simpleValue) {
+            readKind = Kind.VALUE;
+        } else if (mf.hasAnnotation(Embedded.class)) {
+            readKind = Kind.EMBEDDED;
+        } else if (isReference(mf, mf.hasAnnotation(Reference.class))) {
+            readKind = Kind.REFERENCE;
+        } else {
+            readKind = Kind.DEFAULT;
+        }
+        readConverter = readKind == Kind.VALUE ? converters.getFieldConverter(mf) : null;
+
+        final Class<? extends Annotation> annType = getFieldAnnotation(mf);
+        if (Property.class.equals(annType) || Serialized.class.equals(annType) || simpleValue) {
+            writeKind = Kind.VALUE;
+        } else if (isReference(mf, Reference.class.equals(annType))) {
+            writeKind = Kind.REFERENCE;
+        } else if (Embedded.class.equals(annType)) {
+            writeKind = Kind.EMBEDDED;
+        } else {
+            writeKind = Kind.DEFAULT;
+        }
+        checkValueConverter = writeKind != Kind.VALUE;
+    }
+
+    MappedField getMappedField() {
+        return mappedField;
+    }
+
+    void read(final Datastore datastore, final Object entity, final EntityCache cache, final DBObject dbObject, final Mapper mapper) {
+        final CustomMapper customMapper = readKind.getMapper(mapper.getOptions());
+        if (readConverter != null && customMapper.getClass() == ValueMapper.class) {
+            mapper.getConverters().fromDBObject(dbObject, mappedField, entity, readConverter);
+        } else {
+            customMapper.fromDBObject(datastore, dbObject, mappedField, entity, cache, mapper);
+        }
+    }
+
+    /**
+     * Checks if reading this field from a document without it could change the entity.  The value and embedded mappers leave the field
+     * alone but others, like the reference mapper which sets empty collections, may not.
+     *
+     * @param options the options holding the current mappers
+     * @return true if the field must be read even when the document does not hold it
+     */
+    boolean isReadWhenAbsent(final MapperOptions options) {
+        final Class<? extends CustomMapper> type = readKind.getMapper(options).getClass();
+        return type != ValueMapper.class && type != EmbeddedMapper.class;
+    }
+
+    /**
+     * Checks if this field is read by the value mapper, which only converts the stored value and so never reads from the database.
+     *
+     * @param options the options holding the current mappers
+     * @return true if the field is read as a value
+     */
+    boolean isReadAsValue(final MapperOptions options) {
+        return readKind.getMapper(options).getClass() == ValueMapper.class;
+    }
+
+    void write(final Object entity, final DBObject dbObject, final Map<Object, DBObject> involvedObjects, final Mapper mapper) {
+        if (!saved) {
+            return;
+        }
+        Kind kind = writeKind;
+        if (checkValueConverter && mapper.getConverters().hasSimpleValueConverter(mappedField.getFieldValue(entity))) {
+            kind = Kind.VALUE;
+        }
+        if (kind == Kind.DEFAULT && LOG.isDebugEnabled()) {
+            LOG.debug("No annotation was found, using default mapper " + mapper.getOptions().getDefaultMapper() + " for " + mappedField);
+        }
+        kind.getMapper(mapper.getOptions()).toDBObject(entity, mappedField, dbObject, involvedObjects, mapper);
+    }
+
+    private static boolean isReference(final MappedField mf, final boolean annotated) {
+        return annotated || MorphiaReference.class == mf.getConcreteType();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> getFieldAnnotation(final MappedField mf) {
+        for (final Class<? extends Annotation> testType : new Class[]{Property.class, Embedded.class, Serialized.class, Reference.class}) {
+            if (mf.hasAnnotation(testType)) {
+                return testType;
+            }
+        }
+        return null;
+    }
+
+    private enum Kind {
+        VALUE {
+            @Override
+            CustomMapper getMapper(final MapperOptions options) {
+                return options.getValueMapper();
+            }
+        },
+        EMBEDDED {
+            @Override
+            CustomMapper getMapper(final MapperOptions options) {
+                return options.getEmbeddedMapper();
+            }
+        },
+        REFERENCE {
+            @Override
+            CustomMapper getMapper(final MapperOptions options) {
+                return options.getReferenceMapper();
+            }
+        },
+        DEFAULT {
+            @Override
+            CustomMapper getMapper(final MapperOptions options) {
+                return options.getDefaultMapper();
+            }
+        };
+
+        abstract CustomMapper getMapper(MapperOptions options);
+    }
+}
@@ -0,0 +1,173 @@
+package dev.morphia.mapping;
+
+import com.mongodb.DBObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * The lifecycle methods {@link MappedClass} calls for one event, in the order they were found.  The arguments each method takes are
+ * worked out, and the methods made accessible, once when the class is mapped.  The {@link dev.morphia.annotations.EntityListeners}
+ * instances are looked up on the first call and then reused.
+ */
+final class LifecycleChain {
+    private static final Logger LOG = LoggerFactory.getLogger(LifecycleChain.class);
+
+    private final Class<? extends Annotation> event;
+    private final List<Callback> callbacks;
+    private volatile Listeners listeners;
+
+    LifecycleChain(final Class<? extends Annotation> event, final List<Callback> callbacks) {
+        this.event = event;
+        this.callbacks = Collections.unmodifiableList(new ArrayList<Callback>(callbacks));
+    }
+
+    /**
+     * Calls each method in turn.  A method returning a DBObject replaces the one passed to the methods after it.
+     *
+     * @param entity the entity to process
+     * @param dbObj  the dbObject to use
+     * @param mapper the Mapper to use
+     * @return the dbObject returned by the last method to return one, or dbObj
+     */
+    DBObject invoke(final Object entity, final DBObject dbObj, final Mapper mapper) {
+        final Object[] instances = getListeners(mapper);
+        DBObject retDbObj = dbObj;
+        try {
+            for (int i = 0; i < instances.length; i++) {
+                final Callback callback = callbacks.get(i);
+                final Object inst = instances[i];
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), callback.method, inst));
+                }
+
+                final Object tempObj;
+                switch (callback.arguments) {
+                    case NONE:
+                        tempObj = callback.method.invoke(inst == null ? entity : inst);
+                        break;
+                    case ENTITY:
+                        tempObj = callback.method.invoke(inst, entity);
+                        break;
+                    case DBOBJECT:
+                        tempObj = callback.method.invoke(entity, retDbObj);
+                        break;
+                    default:
+                        tempObj = callback.method.invoke(inst, entity, retDbObj);
+                        break;
+                }
+
+                if (tempObj != null) {
+                    retDbObj = (DBObject) tempObj;
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+        return retDbObj;
+    }
+
+    private Object[] getListeners(final Mapper mapper) {
+        Listeners current = listeners;
+        if (current == null || current.mapper != mapper) {
+            final Object[] instances = new Object[callbacks.size()];
+            for (int i = 0; i < instances.length; i++) {
+                final Class<?> listenerClass = callbacks.get(i).listenerClass;
+                if (listenerClass != null) {
+                    instances[i] = getOrCreateInstance(listenerClass, mapper);
+                }
+            }
+            current = new Listeners(mapper, instances);
+            listeners = current;
+        }
+        return current.instances;
+    }
+
+    private static Object getOrCreateInstance(final Class<?> clazz, final Mapper mapper) {
+        if (mapper.getInstanceCache().containsKey(clazz)) {
+            return mapper.getInstanceCache().get(clazz);
+        }
+
+        final Object o = mapper.getOptions().getObjectFactory().createInstance(clazz);
+        final Object nullO = mapper.getInstanceCache().put(clazz, o);
+        if (nullO != null) {
+            if (LOG.isErrorEnabled()) {
+                LOG.error("Race-condition, created duplicate class: " + clazz);
+            }
+        }
+
+        return o;
+    }
+
+    /**
+     * The arguments a lifecycle method is called with
+     */
+    private enum Arguments {
+        /**
+         * no arguments, called on the entity or listener
+         */
+        NONE,
+        /**
+         * the entity, called on a listener
+         */
+        ENTITY,
+        /**
+         * the dbObject, called on the entity
+         */
+        DBOBJECT,
+        /**
+         * the entity and the dbObject, called on a listener
+         */
+        ENTITY_AND_DBOBJECT
+    }
+
+    /**
+     * A single lifecycle method and the listener class it is declared on, if any
+     */
+    static final class Callback {
+        private final Class<?> listenerClass;
+        private final Method method;
+        private final Arguments arguments;
+
+        /**
+         * @param listenerClass the listener declaring the method or null if the method is on the entity
+         * @param method        the method to call
+         */
+        Callback(final Class<?> listenerClass, final Method method) {
+            this.listenerClass = listenerClass;
+            this.method = method;
+            method.setAccessible(true);
+            final int count = method.getParameterTypes().length;
+            if (count == 0) {
+                arguments = Arguments.NONE;
+            } else if (listenerClass == null) {
+                arguments = Arguments.DBOBJECT;
+            } else if (count == 1) {
+                arguments = Arguments.ENTITY;
+            } else {
+                arguments = Arguments.ENTITY_AND_DBOBJECT;
+            }
+        }
+    }
+
+    private static final class Listeners {
+        private final Mapper mapper;
+        private final Object[] instances;
+
+        private Listeners(final Mapper mapper, final Object[] instances) {
+            this.mapper = mapper;
+            this.instances = instances;
+        }
+    }
+}
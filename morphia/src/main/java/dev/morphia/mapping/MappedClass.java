@@ -45,12 +45,13 @@ import dev.morphia.utils.ReflectionUtils;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -101,12 +102,16 @@ public class MappedClass {
     /**
      * Methods which are life-cycle events
      */
-    private final Map<Class<? extends Annotation>, List<ClassMethodPair>> lifecycleMethods =
-        new HashMap<Class<? extends Annotation>, List<ClassMethodPair>>();
+    private final Map<Class<? extends Annotation>, LifecycleChain> lifecycleMethods =
+        new HashMap<Class<? extends Annotation>, LifecycleChain>();
     /**
      * a list of the fields to map
      */
-    private final List<MappedField> persistenceFields = new ArrayList<MappedField>();
+    private final PersistenceFields persistenceFields = new PersistenceFields();
+    /**
+     * the persistence fields by stored name, alias and java name
+     */
+    private volatile FieldIndex fieldIndex;
     /**
      * the type we are mapping to/from
      */
@@ -123,6 +128,10 @@ public class MappedClass {
     private MapperOptions mapperOptions;
     private MappedClass superClass;
     private List<MappedClass> interfaces = new ArrayList<MappedClass>();
+    /**
+     * the read/write plans of the persistence fields, built on first use
+     */
+    private volatile FieldPlans fieldPlans;
 
     /**
      * Creates a MappedClass instance
@@ -240,60 +249,18 @@ public class MappedClass {
      * @param mapper  the Mapper to use
      * @return dbObj
      */
-    @SuppressWarnings({"WMI", "unchecked"})
     public DBObject callLifecycleMethods(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                          final Mapper mapper) {
-        final List<ClassMethodPair> methodPairs = getLifecycleMethods((Class<Annotation>) event);
-        DBObject retDbObj = dbObj;
-        try {
-            Object tempObj;
-            if (methodPairs != null) {
-                final HashMap<Class<?>, Object> toCall = new HashMap<Class<?>, Object>((int) (methodPairs.size() * 1.3));
-                for (final ClassMethodPair cm : methodPairs) {
-                    toCall.put(cm.clazz, null);
-                }
-                for (final Class<?> c : toCall.keySet()) {
-                    if (c != null) {
-                        toCall.put(c, getOrCreateInstance(c, mapper));
-                    }
-                }
-
-                for (final ClassMethodPair cm : methodPairs) {
-                    final Method method = cm.method;
-                    final Object inst = toCall.get(cm.clazz);
-                    method.setAccessible(true);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(format("Calling lifecycle method(@%s %s) on %s", event.getSimpleName(), method, inst));
-                    }
-
-                    if (inst == null) {
-                        if (method.getParameterTypes().length == 0) {
-                            tempObj = method.invoke(entity);
-                        } else {
-                            tempObj = method.invoke(entity, retDbObj);
-                        }
-                    } else if (method.getParameterTypes().length == 0) {
-                        tempObj = method.invoke(inst);
-                    } else if (method.getParameterTypes().length == 1) {
-                        tempObj = method.invoke(inst, entity);
-                    } else {
-                        tempObj = method.invoke(inst, entity, retDbObj);
-                    }
-
-                    if (tempObj != null) {
-                        retDbObj = (DBObject) tempObj;
-                    }
-                }
-            }
+        final LifecycleChain chain = lifecycleMethods.get(event);
+        final Collection<EntityInterceptor> interceptors = mapper.getInterceptors();
+        if (chain == null && interceptors.isEmpty()) {
+            return dbObj;
+        }
 
+        final DBObject retDbObj = chain != null ? chain.invoke(entity, dbObj, mapper) : dbObj;
+        if (!interceptors.isEmpty()) {
             callGlobalInterceptors(event, entity, dbObj, mapper);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
         }
-
         return retDbObj;
     }
 
@@ -307,6 +274,57 @@ public class MappedClass {
         return getMappedField(name) != null;
     }
 
+    /**
+     * Checks for lifecycle methods, on the class or its listeners, for the given event
+     *
+     * @param event the lifecycle annotation to check for
+     * @return true if at least one method is registered for the event
+     * @morphia.internal
+     * @since 1.5
+     */
+    public boolean hasLifecycle(final Class<? extends Annotation> event) {
+        return lifecycleMethods.containsKey(event);
+    }
+
+    /**
+     * Returns the plans for reading and writing the persistence fields, in the same order as {@link #getPersistenceFields()}.  The plans
+     * are rebuilt if converters have been added or removed since they were last built.
+     *
+     * @param mapper the Mapper to use
+     * @return the plans
+     */
+    List<FieldPlan> getFieldPlans(final Mapper mapper) {
+        return getCurrentFieldPlans(mapper).list;
+    }
+
+    /**
+     * @param mapper the Mapper to use
+     * @param mf     the field to find
+     * @return the plan for the field or null if it is not one of this class's persistence fields
+     */
+    FieldPlan getFieldPlan(final Mapper mapper, final MappedField mf) {
+        return getCurrentFieldPlans(mapper).byField.get(mf);
+    }
+
+    /**
+     * @param mapper     the Mapper to use
+     * @param storedName the stored name, or {@code @AlsoLoad} name, of the field
+     * @return the plan for the field or null if no persistence field is stored under that name
+     */
+    FieldPlan getFieldPlan(final Mapper mapper, final String storedName) {
+        return getCurrentFieldPlans(mapper).byStoredName.get(storedName);
+    }
+
+    private FieldPlans getCurrentFieldPlans(final Mapper mapper) {
+        final int revision = mapper.getConverters().getRevision();
+        FieldPlans plans = fieldPlans;
+        if (plans == null || plans.revision != revision || plans.modCount != persistenceFields.getModCount()) {
+            plans = new FieldPlans(revision, persistenceFields, mapper);
+            fieldPlans = plans;
+        }
+        return plans;
+    }
+
     /**
      * Looks for an annotation of the type given
      *
@@ -395,10 +413,6 @@ public class MappedClass {
         return idField;
     }
 
-    private List<ClassMethodPair> getLifecycleMethods(final Class<Annotation> clazz) {
-        return lifecycleMethods.get(clazz);
-    }
-
     /**
      * Returns the MappedField by the name that it will stored in mongodb as
      *
@@ -406,15 +420,7 @@ public class MappedClass {
      * @return true if that mapped field name is found
      */
     public MappedField getMappedField(final String storedName) {
-        for (final MappedField mf : persistenceFields) {
-            for (final String n : mf.getLoadNames()) {
-                if (storedName.equals(n)) {
-                    return mf;
-                }
-            }
-        }
-
-        return null;
+        return getFieldIndex().byStoredName.get(storedName);
     }
 
     /**
@@ -424,13 +430,19 @@ public class MappedClass {
      * @return the MappedField for the named Java field
      */
     public MappedField getMappedFieldByJavaField(final String name) {
-        for (final MappedField mf : persistenceFields) {
-            if (name.equals(mf.getJavaFieldName())) {
-                return mf;
-            }
-        }
+        return getFieldIndex().byJavaName.get(name);
+    }
 
-        return null;
+    /**
+     * Returns the field indexes, rebuilding them if the persistence fields have been changed since they were built.
+     */
+    private FieldIndex getFieldIndex() {
+        FieldIndex index = fieldIndex;
+        if (index == null || index.modCount != persistenceFields.getModCount()) {
+            index = new FieldIndex(persistenceFields);
+            fieldIndex = index;
+        }
+        return index;
     }
 
     /**
@@ -483,8 +495,8 @@ public class MappedClass {
 
     }
 
-    boolean isSubType(final MappedClass mc) {
-        return mc.equals(superClass) || interfaces.contains(mc);
+    List<MappedClass> getInterfaces() {
+        return interfaces;
     }
 
     @Override
@@ -504,6 +516,7 @@ public class MappedClass {
         if (fields != null && !fields.isEmpty()) {
             idField = fields.get(0).getField();
         }
+        fieldIndex = new FieldIndex(persistenceFields);
     }
 
     /**
@@ -546,15 +559,25 @@ public class MappedClass {
             Collections.addAll(lifecycleClasses, entityLisAnn.value());
         }
 
+        final Map<Class<? extends Annotation>, List<LifecycleChain.Callback>> callbacks =
+            new HashMap<Class<? extends Annotation>, List<LifecycleChain.Callback>>();
         for (final Class<?> cls : lifecycleClasses) {
             for (final Method m : ReflectionUtils.getDeclaredAndInheritedMethods(cls)) {
                 for (final Class<? extends Annotation> c : LIFECYCLE_ANNOTATIONS) {
                     if (m.isAnnotationPresent(c)) {
-                        addLifecycleEventMethod(c, m, cls.equals(clazz) ? null : cls);
+                        List<LifecycleChain.Callback> methods = callbacks.get(c);
+                        if (methods == null) {
+                            methods = new ArrayList<LifecycleChain.Callback>();
+                            callbacks.put(c, methods);
+                        }
+                        methods.add(new LifecycleChain.Callback(cls.equals(clazz) ? null : cls, m));
                     }
                 }
             }
         }
+        for (final Map.Entry<Class<? extends Annotation>, List<LifecycleChain.Callback>> entry : callbacks.entrySet()) {
+            lifecycleMethods.put(entry.getKey(), new LifecycleChain(entry.getKey(), entry.getValue()));
+        }
 
         update();
 
@@ -582,6 +605,7 @@ public class MappedClass {
                 }
             }
         }
+        fieldIndex = new FieldIndex(persistenceFields);
     }
 
     /**
@@ -594,17 +618,6 @@ public class MappedClass {
         }
     }
 
-    private void addLifecycleEventMethod(final Class<? extends Annotation> lceClazz, final Method m, final Class<?> clazz) {
-        final ClassMethodPair cm = new ClassMethodPair(clazz, m);
-        if (lifecycleMethods.containsKey(lceClazz)) {
-            lifecycleMethods.get(lceClazz).add(cm);
-        } else {
-            final List<ClassMethodPair> methods = new ArrayList<ClassMethodPair>();
-            methods.add(cm);
-            lifecycleMethods.put(lceClazz, methods);
-        }
-    }
-
     private void callGlobalInterceptors(final Class<? extends Annotation> event, final Object entity, final DBObject dbObj,
                                         final Mapper mapper) {
         for (final EntityInterceptor ei : mapper.getInterceptors()) {
@@ -626,23 +639,6 @@ public class MappedClass {
         }
     }
 
-    private Object getOrCreateInstance(final Class<?> clazz, final Mapper mapper) {
-        if (mapper.getInstanceCache().containsKey(clazz)) {
-            return mapper.getInstanceCache().get(clazz);
-        }
-
-        final Object o = mapper.getOptions().getObjectFactory().createInstance(clazz);
-        final Object nullO = mapper.getInstanceCache().put(clazz, o);
-        if (nullO != null) {
-            if (LOG.isErrorEnabled()) {
-                LOG.error("Race-condition, created duplicate class: " + clazz);
-            }
-        }
-
-        return o;
-
-    }
-
     private boolean isIgnorable(final java.lang.reflect.Field field, final int fieldMods, final Mapper mapper) {
         return field.isAnnotationPresent(Transient.class)
                || Modifier.isTransient(fieldMods)
@@ -650,13 +646,58 @@ public class MappedClass {
                || mapper.getOptions().isIgnoreFinals() && Modifier.isFinal(fieldMods);
     }
 
-    private static class ClassMethodPair {
-        private final Class<?> clazz;
-        private final Method method;
+    /**
+     * The list of persistence fields.  Code extending Morphia may add or remove fields after mapping so the count of changes is exposed for
+     * the indexes and plans built from the list to check against.
+     */
+    private static final class PersistenceFields extends ArrayList<MappedField> {
+        int getModCount() {
+            return modCount;
+        }
+    }
+
+    private static final class FieldIndex {
+        private final int modCount;
+        private final Map<String, MappedField> byStoredName = new HashMap<String, MappedField>();
+        private final Map<String, MappedField> byJavaName = new HashMap<String, MappedField>();
 
-        ClassMethodPair(final Class<?> c, final Method m) {
-            clazz = c;
-            method = m;
+        FieldIndex(final PersistenceFields fields) {
+            modCount = fields.getModCount();
+            for (final MappedField mf : fields) {
+                for (final String name : mf.getLoadNames()) {
+                    if (!byStoredName.containsKey(name)) {
+                        byStoredName.put(name, mf);
+                    }
+                }
+                if (!byJavaName.containsKey(mf.getJavaFieldName())) {
+                    byJavaName.put(mf.getJavaFieldName(), mf);
+                }
+            }
+        }
+    }
+
+    private static final class FieldPlans {
+        private final int revision;
+        private final int modCount;
+        private final List<FieldPlan> list;
+        private final Map<MappedField, FieldPlan> byField = new IdentityHashMap<MappedField, FieldPlan>();
+        private final Map<String, FieldPlan> byStoredName = new HashMap<String, FieldPlan>();
+
+        FieldPlans(final int revision, final PersistenceFields fields, final Mapper mapper) {
+            this.revision = revision;
+            modCount = fields.getModCount();
+            final List<FieldPlan> plans = new ArrayList<FieldPlan>(fields.size());
+            for (final MappedField mf : fields) {
+                final FieldPlan plan = new FieldPlan(mf, mapper.getConverters());
+                plans.add(plan);
+                byField.put(mf, plan);
+                for (final String name : mf.getLoadNames()) {
+                    if (!byStoredName.containsKey(name)) {
+                        byStoredName.put(name, plan);
+                    }
+                }
+            }
+            list = Collections.unmodifiableList(plans);
         }
     }
 
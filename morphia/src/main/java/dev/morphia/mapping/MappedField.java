@@ -34,6 +34,7 @@ import dev.morphia.annotations.Serialized;
 import dev.morphia.annotations.Text;
 import dev.morphia.annotations.Transient;
 import dev.morphia.annotations.Version;
+import dev.morphia.mapping.access.FieldAccessor;
 import dev.morphia.mapping.experimental.MorphiaReference;
 import dev.morphia.utils.ReflectionUtils;
 
@@ -89,6 +90,7 @@ public class MappedField {
     private final List<MappedField> typeParameters = new ArrayList<MappedField>();
     private Class persistedClass;
     private Field field; // the field :)
+    private FieldAccessor accessor; // reads and writes the field
     private Class realType; // the real type
     private Constructor constructor; // the constructor for the type
     private Type subType; // the type (T) for the Collection<T>/T[]/Map<?,T>
@@ -241,11 +243,16 @@ public class MappedField {
      * @return the value stored in the java field
      */
     public Object getFieldValue(final Object instance) {
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        return getAccessor().get(instance);
+    }
+
+    /**
+     * @return the accessor used to read and write the java field
+     * @morphia.internal
+     * @since 1.5
+     */
+    public FieldAccessor getAccessor() {
+        return accessor;
     }
 
     /**
@@ -450,11 +457,7 @@ public class MappedField {
      * @param value    the value to set
      */
     public void setFieldValue(final Object instance, final Object value) {
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        getAccessor().set(instance, value);
     }
 
     @Override
@@ -505,6 +508,8 @@ public class MappedField {
             addAnnotation(clazz);
         }
 
+        accessor = mapper.getOptions().getFieldAccessStrategy().createAccessor(field);
+
         //type must be discovered before the constructor.
         discoverType(mapper);
         constructor = discoverConstructor();
@@ -16,27 +16,31 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
 import dev.morphia.Datastore;
+import dev.morphia.DatastoreImpl;
 import dev.morphia.EntityInterceptor;
 import dev.morphia.Key;
 import dev.morphia.annotations.Converters;
-import dev.morphia.annotations.Embedded;
-import dev.morphia.annotations.NotSaved;
 import dev.morphia.annotations.PostLoad;
 import dev.morphia.annotations.PreLoad;
 import dev.morphia.annotations.PrePersist;
 import dev.morphia.annotations.PreSave;
-import dev.morphia.annotations.Property;
 import dev.morphia.annotations.Reference;
 import dev.morphia.annotations.Serialized;
 import dev.morphia.converters.CustomConverters;
 import dev.morphia.converters.TypeConverter;
+import dev.morphia.internal.PathCache;
 import dev.morphia.mapping.cache.DefaultEntityCache;
 import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.mapping.cache.EntityCacheFactory;
+import dev.morphia.mapping.cache.SharedEntityCache;
+import dev.morphia.mapping.cache.SharedEntityCacheFactory;
+import dev.morphia.mapping.codec.DecodedEntity;
 import dev.morphia.mapping.experimental.MorphiaReference;
 import dev.morphia.mapping.lazy.LazyFeatureDependencies;
 import dev.morphia.mapping.lazy.LazyProxyFactory;
 import dev.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import dev.morphia.mapping.lazy.proxy.ProxyHelper;
+import dev.morphia.query.FilterTemplateCache;
 import dev.morphia.query.Query;
 import dev.morphia.query.QueryImpl;
 import dev.morphia.query.ValidationException;
@@ -53,12 +57,14 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import static dev.morphia.utils.ReflectionUtils.getParameterizedClass;
@@ -104,6 +110,10 @@ public class Mapper {
      */
     private final Map<String, MappedClass> mappedClasses = new ConcurrentHashMap<String, MappedClass>();
     private final ConcurrentHashMap<String, Set<MappedClass>> mappedClassesByCollection = new ConcurrentHashMap<String, Set<MappedClass>>();
+    /**
+     * The direct subtypes of each mapped type, updated as classes are mapped
+     */
+    private final ConcurrentHashMap<Class<?>, List<MappedClass>> subTypes = new ConcurrentHashMap<Class<?>, List<MappedClass>>();
 
     //EntityInterceptors; these are called after EntityListeners and lifecycle methods on an Entity, for all Entities
     private final List<EntityInterceptor> interceptors = new LinkedList<EntityInterceptor>();
@@ -113,6 +123,8 @@ public class Mapper {
     // TODO: make these configurable
     private final LazyProxyFactory proxyFactory = LazyFeatureDependencies.createDefaultProxyFactory();
     private final dev.morphia.converters.Converters converters;
+    private final FilterTemplateCache filterTemplates = new FilterTemplateCache();
+    private final PathCache pathCache = new PathCache();
     private MapperOptions opts = MapperOptions.builder().build();
 
     /**
@@ -173,6 +185,41 @@ public class Mapper {
         return mappedClass;
     }
 
+    /**
+     * Gets the cache shared by every query.  It is only available with caching enabled and a {@link SharedEntityCacheFactory}.
+     *
+     * @return the shared cache or null
+     * @since 1.5
+     */
+    public SharedEntityCache getSharedEntityCache() {
+        final EntityCacheFactory factory = getOptions().getCacheFactory();
+        return getOptions().isCachingEnabled() && factory instanceof SharedEntityCacheFactory
+               ? ((SharedEntityCacheFactory) factory).getSharedCache()
+               : null;
+    }
+
+    /**
+     * Gets the cache of the compiled query filters of the mapped classes
+     *
+     * @return the cache
+     * @morphia.internal
+     * @since 1.5
+     */
+    public FilterTemplateCache getFilterTemplates() {
+        return filterTemplates;
+    }
+
+    /**
+     * Gets the cache of the paths resolved against the mapped classes
+     *
+     * @return the cache
+     * @morphia.internal
+     * @since 1.5
+     */
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
     /**
      * Creates a cache for tracking entities seen during processing
      *
@@ -211,6 +258,9 @@ public class Mapper {
         if (dbObject == null) {
             return null;
         }
+        if (dbObject instanceof DecodedEntity) {
+            return (T) ((DecodedEntity) dbObject).complete(datastore, cache);
+        }
 
         return fromDb(datastore, dbObject, opts.getObjectFactory().createInstance(entityClass, dbObject), cache);
     }
@@ -219,18 +269,12 @@ public class Mapper {
      * Finds any subtypes for the given MappedClass.
      *
      * @param mc the parent type
-     * @return the list of subtypes
+     * @return an unmodifiable view of the direct subtypes mapped so far
      * @since 1.3
      */
     public List<MappedClass> getSubTypes(final MappedClass mc) {
-        List<MappedClass> subtypes = new ArrayList<MappedClass>();
-        for (MappedClass mappedClass : getMappedClasses()) {
-            if (mappedClass.isSubType(mc)) {
-                subtypes.add(mappedClass);
-            }
-        }
-
-        return subtypes;
+        final List<MappedClass> subtypes = subTypes.get(mc.getClazz());
+        return subtypes != null ? Collections.unmodifiableList(subtypes) : Collections.<MappedClass>emptyList();
     }
 
     /**
@@ -302,10 +346,19 @@ public class Mapper {
             }
         } else {
             final MappedClass mc = getMappedClass(entity);
+            if (opts.isChangeTracking() && mc.getEntityAnnotation() != null && mc.getIdField() != null
+                && dbObject.containsField("_id") && datastore instanceof DatastoreImpl) {
+                // the snapshot is of the stored document, before any @PreLoad changes to it
+                ((DatastoreImpl) datastore).getSnapshots().take(entity, getCollectionName(entity.getClass()), dbObject);
+            }
             final DBObject updated = mc.callLifecycleMethods(PreLoad.class, entity, dbObject, this);
             try {
-                for (final MappedField mf : mc.getPersistenceFields()) {
-                    readMappedField(datastore, mf, entity, cache, updated);
+                if (opts.isDocumentOrderDecoding()) {
+                    readFieldsInDocumentOrder(datastore, mc, entity, cache, updated);
+                } else {
+                    for (final FieldPlan plan : mc.getFieldPlans(this)) {
+                        plan.read(datastore, entity, cache, updated, this);
+                    }
                 }
             } catch (final MappingException e) {
                 Object id = dbObject.get("_id");
@@ -323,6 +376,34 @@ public class Mapper {
         return entity;
     }
 
+    /**
+     * Reads the fields found in the document then any absent fields whose mappers still need to run.
+     *
+     * @see MapperOptions.Builder#documentOrderDecoding(boolean)
+     */
+    private void readFieldsInDocumentOrder(final Datastore datastore, final MappedClass mc, final Object entity, final EntityCache cache,
+                                           final DBObject dbObject) {
+        final Set<FieldPlan> read = new HashSet<FieldPlan>();
+        for (final String name : dbObject.keySet()) {
+            final FieldPlan plan = mc.getFieldPlan(this, name);
+            if (plan != null) {
+                if (!read.add(plan)) {
+                    throw new MappingException(format("Found more than one field from @AlsoLoad %s",
+                        plan.getMappedField().getLoadNames()));
+                }
+                plan.read(datastore, entity, cache, dbObject, this);
+            }
+        }
+        final List<FieldPlan> plans = mc.getFieldPlans(this);
+        if (read.size() < plans.size()) {
+            for (final FieldPlan plan : plans) {
+                if (!read.contains(plan) && plan.isReadWhenAbsent(opts)) {
+                    plan.read(datastore, entity, cache, dbObject, this);
+                }
+            }
+        }
+    }
+
     /**
      * Looks up the class mapped to a named collection.
      *
@@ -800,7 +881,8 @@ public class Mapper {
     }
 
     protected LazyProxyFactory getProxyFactory() {
-        return proxyFactory;
+        final LazyProxyFactory configured = opts.getProxyFactory();
+        return configured != null ? configured : proxyFactory;
     }
 
     private void addConverters(final MappedClass mc) {
@@ -831,6 +913,8 @@ public class Mapper {
         }
 
         mappedClasses.put(mc.getClazz().getName(), mc);
+        filterTemplates.clear();
+        pathCache.clear();
 
         Set<MappedClass> mcs = mappedClassesByCollection.get(mc.getCollectionName());
         if (mcs == null) {
@@ -843,9 +927,34 @@ public class Mapper {
 
         mcs.add(mc);
 
+        if (mc.getSuperClass() != null) {
+            addSubType(mc.getSuperClass(), mc);
+        }
+        for (final MappedClass parent : mc.getInterfaces()) {
+            addSubType(parent, mc);
+        }
+
         return mc;
     }
 
+    private void addSubType(final MappedClass parent, final MappedClass mc) {
+        List<MappedClass> subtypes = subTypes.get(parent.getClazz());
+        if (subtypes == null) {
+            subtypes = new CopyOnWriteArrayList<MappedClass>();
+            final List<MappedClass> temp = subTypes.putIfAbsent(parent.getClazz(), subtypes);
+            if (temp != null) {
+                subtypes = temp;
+            }
+        }
+        // a class mapped again replaces the instance from its earlier mapping
+        final int index = subtypes.indexOf(mc);
+        if (index >= 0) {
+            subtypes.set(index, mc);
+        } else {
+            subtypes.add(mc);
+        }
+    }
+
     private Object extractFirstElement(final Object value) {
         return value.getClass().isArray() ? Array.get(value, 0) : ((Iterable) value).iterator().next();
     }
@@ -861,17 +970,6 @@ public class Mapper {
         return refs;
     }
 
-    private Class<? extends Annotation> getFieldAnnotation(final MappedField mf) {
-        Class<? extends Annotation> annType = null;
-        for (final Class<? extends Annotation> testType : new Class[]{Property.class, Embedded.class, Serialized.class, Reference.class}) {
-            if (mf.hasAnnotation(testType)) {
-                annType = testType;
-                break;
-            }
-        }
-        return annType;
-    }
-
     private boolean isAssignable(final MappedField mf, final Object value) {
         return mf != null
                && (mf.hasAnnotation(Reference.class) || Key.class.isAssignableFrom(mf.getType())
@@ -890,47 +988,58 @@ public class Mapper {
                && (Key.class.isAssignableFrom(subClass) || DBRef.class.isAssignableFrom(subClass));
     }
 
-    private void readMappedField(final Datastore datastore, final MappedField mf, final Object entity, final EntityCache cache,
-                                 final DBObject dbObject) {
-        CustomMapper mapper;
-        if (mf.hasAnnotation(Property.class) || mf.hasAnnotation(Serialized.class)
-            || mf.isTypeMongoCompatible() || getConverters().hasSimpleValueConverter(mf)) {
-            mapper = opts.getValueMapper();
-        } else if (mf.hasAnnotation(Embedded.class)) {
-            mapper = opts.getEmbeddedMapper();
-        } else if (mf.hasAnnotation(Reference.class) || MorphiaReference.class == mf.getConcreteType()) {
-            mapper = opts.getReferenceMapper();
-        } else {
-            mapper = opts.getDefaultMapper();
-        }
-        mapper.fromDBObject(datastore, dbObject, mf, entity, cache, this);
+    /**
+     * Reads the value of a single field from the DBObject given in to the entity
+     *
+     * @param datastore the Datastore to use when fetching references
+     * @param mf        the field to read
+     * @param entity    the entity to update
+     * @param cache     the EntityCache to use
+     * @param dbObject  the document holding the value
+     * @morphia.internal
+     * @since 1.5
+     */
+    public void readMappedField(final Datastore datastore, final MappedField mf, final Object entity, final EntityCache cache,
+                                final DBObject dbObject) {
+        getFieldPlan(mf, entity).read(datastore, entity, cache, dbObject, this);
     }
 
-    private void writeMappedField(final DBObject dbObject, final MappedField mf, final Object entity,
-                                  final Map<Object, DBObject> involvedObjects) {
-
-        //skip not saved fields.
-        if (mf.hasAnnotation(NotSaved.class)) {
-            return;
-        }
-
-        // get the annotation from the field.
-        Class<? extends Annotation> annType = getFieldAnnotation(mf);
+    /**
+     * Checks if a field of an entity is read by the {@link ValueMapper}, which only converts the stored value and so never reads from the
+     * database or maps other entities.
+     *
+     * @param mf     the field to check
+     * @param entity the entity being read
+     * @return true if the field is read as a value
+     * @morphia.internal
+     * @since 1.5
+     */
+    public boolean isReadAsValue(final MappedField mf, final Object entity) {
+        return getFieldPlan(mf, entity).isReadAsValue(opts);
+    }
 
-        if (Property.class.equals(annType) || Serialized.class.equals(annType) || mf.isTypeMongoCompatible()
-            || (getConverters().hasSimpleValueConverter(mf) || (getConverters().hasSimpleValueConverter(mf.getFieldValue(entity))))) {
-            opts.getValueMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Reference.class.equals(annType) || MorphiaReference.class == mf.getConcreteType()) {
-            opts.getReferenceMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else if (Embedded.class.equals(annType)) {
-            opts.getEmbeddedMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("No annotation was found, using default mapper " + opts.getDefaultMapper() + " for " + mf);
-            }
-            opts.getDefaultMapper().toDBObject(entity, mf, dbObject, involvedObjects, this);
-        }
+    /**
+     * Writes the value of a single field of the entity in to the DBObject given
+     *
+     * @param dbObject        the document to update
+     * @param mf              the field to write
+     * @param entity          the entity to read from
+     * @param involvedObjects the entities written so far and their documents
+     * @morphia.internal
+     * @since 1.5
+     */
+    public void writeMappedField(final DBObject dbObject, final MappedField mf, final Object entity,
+                                 final Map<Object, DBObject> involvedObjects) {
+        getFieldPlan(mf, entity).write(entity, dbObject, involvedObjects, this);
+    }
 
+    /**
+     * Finds the plan for a field.  Fields which are not one of the persistence fields of the entity's mapped class get a new plan.
+     */
+    private FieldPlan getFieldPlan(final MappedField mf, final Object entity) {
+        final MappedClass mc = mappedClasses.get(entity.getClass().getName());
+        final FieldPlan plan = mc != null ? mc.getFieldPlan(this, mf) : null;
+        return plan != null ? plan : new FieldPlan(mf, getConverters());
     }
 
     <T> Key<T> manualRefToKey(final String collection, final Object id) {
@@ -1032,11 +1141,11 @@ public class Mapper {
             dbObject = mc.callLifecycleMethods(PrePersist.class, entity, dbObject, this);
         }
 
-        for (final MappedField mf : mc.getPersistenceFields()) {
+        for (final FieldPlan plan : mc.getFieldPlans(this)) {
             try {
-                writeMappedField(dbObject, mf, entity, involvedObjects);
+                plan.write(entity, dbObject, involvedObjects, this);
             } catch (Exception e) {
-                throw new MappingException("Error mapping field:" + mf.getFullName(), e);
+                throw new MappingException("Error mapping field:" + plan.getMappedField().getFullName(), e);
             }
         }
         if (involvedObjects != null) {
@@ -3,9 +3,13 @@ package dev.morphia.mapping;
 
 import dev.morphia.ObjectFactory;
 import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.access.FieldAccessStrategy;
+import dev.morphia.mapping.instantiation.InstantiationStrategy;
 import dev.morphia.mapping.cache.DefaultEntityCacheFactory;
 import dev.morphia.mapping.cache.EntityCacheFactory;
 import dev.morphia.mapping.lazy.DatastoreProvider;
+import dev.morphia.mapping.lazy.LazyProxyFactory;
+import dev.morphia.query.QueryResultCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,7 +27,17 @@ public class MapperOptions {
     private boolean mapSubPackages;
     private boolean disableEmbeddedIndexes;
     private boolean cachingEnabled;
+    private boolean directDecoding;
+    private boolean directEncoding;
+    private boolean documentOrderDecoding;
+    private int referenceBatchSize;
+    private int fetchGroupSize;
+    private LazyProxyFactory proxyFactory;
+    private QueryResultCache queryResultCache;
+    private boolean changeTracking;
     private DateStorage dateStorage = DateStorage.SYSTEM_DEFAULT;
+    private FieldAccessStrategy fieldAccessStrategy = FieldAccessStrategy.REFLECTION;
+    private InstantiationStrategy instantiationStrategy = InstantiationStrategy.REFLECTION;
     private ObjectFactory objectFactory;
     private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
     private CustomMapper embeddedMapper = new EmbeddedMapper();
@@ -69,6 +83,16 @@ public class MapperOptions {
         disableEmbeddedIndexes = options.disableEmbeddedIndexes;
         classLoader = options.getClassLoader();
         cachingEnabled = options.cachingEnabled;
+        fieldAccessStrategy = options.fieldAccessStrategy;
+        instantiationStrategy = options.instantiationStrategy;
+        directDecoding = options.directDecoding;
+        directEncoding = options.directEncoding;
+        documentOrderDecoding = options.documentOrderDecoding;
+        referenceBatchSize = options.referenceBatchSize;
+        fetchGroupSize = options.fetchGroupSize;
+        proxyFactory = options.proxyFactory;
+        queryResultCache = options.queryResultCache;
+        changeTracking = options.changeTracking;
     }
 
     private MapperOptions(final Builder builder) {
@@ -88,6 +112,16 @@ public class MapperOptions {
         dateStorage = builder.dateStorage;
         classLoader = builder.classLoader;
         cachingEnabled = builder.cachingEnabled;
+        fieldAccessStrategy = builder.fieldAccessStrategy;
+        instantiationStrategy = builder.instantiationStrategy;
+        directDecoding = builder.directDecoding;
+        directEncoding = builder.directEncoding;
+        documentOrderDecoding = builder.documentOrderDecoding;
+        referenceBatchSize = builder.referenceBatchSize;
+        fetchGroupSize = builder.fetchGroupSize;
+        proxyFactory = builder.proxyFactory;
+        queryResultCache = builder.queryResultCache;
+        changeTracking = builder.changeTracking;
     }
 
     /**
@@ -267,7 +301,9 @@ public class MapperOptions {
 
     /**
      * @return true if Morphia should cache name to Class lookups
+     * @deprecated the default object factory always caches class lookups
      */
+    @Deprecated
     public boolean isCacheClassLookups() {
         return cacheClassLookups;
     }
@@ -423,6 +459,95 @@ public class MapperOptions {
         this.dateStorage = dateStorage;
     }
 
+    /**
+     * @return the strategy used to read and write the fields of mapped entities
+     * @since 1.5
+     */
+    public FieldAccessStrategy getFieldAccessStrategy() {
+        return fieldAccessStrategy;
+    }
+
+    /**
+     * @return the strategy used by the default object factory to call no-arg constructors
+     * @see Builder#instantiationStrategy(InstantiationStrategy)
+     * @since 1.5
+     */
+    public InstantiationStrategy getInstantiationStrategy() {
+        return instantiationStrategy;
+    }
+
+    /**
+     * @return true if query results are read directly from BSON in to entities
+     * @see Builder#directDecoding(boolean)
+     * @since 1.5
+     */
+    public boolean isDirectDecoding() {
+        return directDecoding;
+    }
+
+    /**
+     * @return true if saved and inserted entities are written directly to BSON
+     * @see Builder#directEncoding(boolean)
+     * @since 1.5
+     */
+    public boolean isDirectEncoding() {
+        return directEncoding;
+    }
+
+    /**
+     * @return true if documents are read by walking their fields rather than the fields of the mapped class
+     * @see Builder#documentOrderDecoding(boolean)
+     * @since 1.5
+     */
+    public boolean isDocumentOrderDecoding() {
+        return documentOrderDecoding;
+    }
+
+    /**
+     * @return the number of query results whose references are fetched together, or 0 if references are fetched one at a time
+     * @see Builder#referenceBatchSize(int)
+     * @since 1.5
+     */
+    public int getReferenceBatchSize() {
+        return referenceBatchSize;
+    }
+
+    /**
+     * @return the most lazy entity references fetched together, or 0 if each lazy reference is fetched on its own
+     * @see Builder#fetchGroupSize(int)
+     * @since 1.5
+     */
+    public int getFetchGroupSize() {
+        return fetchGroupSize;
+    }
+
+    /**
+     * @return the factory creating lazy reference proxies, or null to use the default factory
+     * @see Builder#proxyFactory(LazyProxyFactory)
+     * @since 1.5
+     */
+    public LazyProxyFactory getProxyFactory() {
+        return proxyFactory;
+    }
+
+    /**
+     * @return the cache holding the results of the queries which opt in to caching, or null if results are not cached
+     * @see Builder#queryResultCache(QueryResultCache)
+     * @since 1.5
+     */
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * @return true if saves of loaded entities only write the fields which changed
+     * @see Builder#changeTracking(boolean)
+     * @since 1.5
+     */
+    public boolean isChangeTracking() {
+        return changeTracking;
+    }
+
     /**
      * @return a builder to set mapping options
      * @deprecated continued use of this method will result in different options being applied in 2.0.  To maintain the current settings
@@ -462,6 +587,16 @@ public class MapperOptions {
         builder.valueMapper = original.getValueMapper();
         builder.disableEmbeddedIndexes = original.isDisableEmbeddedIndexes();
         builder.classLoader = original.getClassLoader();
+        builder.fieldAccessStrategy = original.getFieldAccessStrategy();
+        builder.instantiationStrategy = original.getInstantiationStrategy();
+        builder.directDecoding = original.isDirectDecoding();
+        builder.directEncoding = original.isDirectEncoding();
+        builder.documentOrderDecoding = original.isDocumentOrderDecoding();
+        builder.referenceBatchSize = original.getReferenceBatchSize();
+        builder.fetchGroupSize = original.getFetchGroupSize();
+        builder.proxyFactory = original.getProxyFactory();
+        builder.queryResultCache = original.getQueryResultCache();
+        builder.changeTracking = original.isChangeTracking();
         return builder;
     }
 
@@ -493,7 +628,17 @@ public class MapperOptions {
         private boolean mapSubPackages;
         private boolean disableEmbeddedIndexes;
         private boolean cachingEnabled = true;
+        private boolean directDecoding;
+        private boolean directEncoding;
+        private boolean documentOrderDecoding;
+        private int referenceBatchSize;
+        private int fetchGroupSize;
+        private LazyProxyFactory proxyFactory;
+        private QueryResultCache queryResultCache;
+        private boolean changeTracking;
         private DateStorage dateStorage = DateStorage.SYSTEM_DEFAULT;
+        private FieldAccessStrategy fieldAccessStrategy = FieldAccessStrategy.REFLECTION;
+        private InstantiationStrategy instantiationStrategy = InstantiationStrategy.REFLECTION;
         private ObjectFactory objectFactory;
         private ClassLoader classLoader;
         private EntityCacheFactory cacheFactory = new DefaultEntityCacheFactory();
@@ -565,7 +710,9 @@ public class MapperOptions {
         /**
          * @param cacheClassLookups if true class lookups are cached
          * @return this
+         * @deprecated the default object factory always caches class lookups
          */
+        @Deprecated
         public Builder cacheClassLookups(final boolean cacheClassLookups) {
             this.cacheClassLookups = cacheClassLookups;
             return this;
@@ -656,6 +803,159 @@ public class MapperOptions {
             return this;
         }
 
+        /**
+         * @param fieldAccessStrategy the strategy to use when reading and writing the fields of mapped entities.  This only applies to
+         *                            classes mapped after the options are set.
+         * @return this
+         * @since 1.5
+         */
+        public Builder fieldAccessStrategy(final FieldAccessStrategy fieldAccessStrategy) {
+            this.fieldAccessStrategy = fieldAccessStrategy;
+            return this;
+        }
+
+        /**
+         * @param instantiationStrategy the strategy the default object factory uses to call the no-arg constructors of the classes it
+         *                              creates.  Custom {@link dev.morphia.ObjectFactory}s are free to ignore this.
+         * @return this
+         * @since 1.5
+         */
+        public Builder instantiationStrategy(final InstantiationStrategy instantiationStrategy) {
+            this.instantiationStrategy = instantiationStrategy;
+            return this;
+        }
+
+        /**
+         * Query results are normally read by the driver in to {@code DBObject}s which are then mapped in to entities.  With direct
+         * decoding enabled, each document is read from BSON straight in to its entity.  Queries using a custom
+         * {@link com.mongodb.DBDecoderFactory} are not affected.
+         *
+         * @param directDecoding true if query results should be read directly in to entities
+         * @return this
+         * @see dev.morphia.mapping.codec.EntityDecoder
+         * @since 1.5
+         */
+        public Builder directDecoding(final boolean directDecoding) {
+            this.directDecoding = directDecoding;
+            return this;
+        }
+
+        /**
+         * Saved and inserted entities are normally mapped in to a {@code DBObject} which the driver then serializes.  With direct encoding
+         * enabled, the fields of each entity are written straight to BSON as the driver sends it.
+         *
+         * @param directEncoding true if saved and inserted entities should be written directly to BSON
+         * @return this
+         * @see dev.morphia.mapping.codec.EntityEncoder
+         * @since 1.5
+         */
+        public Builder directEncoding(final boolean directEncoding) {
+            this.directEncoding = directEncoding;
+            return this;
+        }
+
+        /**
+         * Documents are normally read by looking up each field of the mapped class, and each of its {@code @AlsoLoad} names, in the
+         * document.  With document order decoding enabled, the fields present in the document are read instead so the cost of reading a
+         * sparse document follows the number of fields it holds.  Absent fields are only visited when their {@link CustomMapper} needs to
+         * set a value anyway, such as the empty collections set for missing references.
+         *
+         * @param documentOrderDecoding true if documents should be read in the order of their fields
+         * @return this
+         * @since 1.5
+         */
+        public Builder documentOrderDecoding(final boolean documentOrderDecoding) {
+            this.documentOrderDecoding = documentOrderDecoding;
+            return this;
+        }
+
+        /**
+         * Eager {@code @Reference}s are normally fetched with one query each as every query result is mapped.  With a reference batch
+         * size set, query cursors read that many results ahead, gather the references of the whole batch by collection and fetch them
+         * with one {@code _id in} query per collection before mapping the batch.
+         *
+         * @param referenceBatchSize the number of query results to gather references from, or 0 to fetch references one at a time
+         * @return this
+         * @see ReferenceBatchLoader
+         * @since 1.5
+         */
+        public Builder referenceBatchSize(final int referenceBatchSize) {
+            if (referenceBatchSize < 0) {
+                throw new IllegalArgumentException("The reference batch size can not be negative");
+            }
+            this.referenceBatchSize = referenceBatchSize;
+            return this;
+        }
+
+        /**
+         * Lazy {@code @Reference} proxies normally fetch their entity with one query each when first used.  With a fetch group size set,
+         * the lazy entity references decoded by the same query are gathered in to groups of up to that many.  Using any unfetched
+         * reference in a group then fetches all of the group's unfetched references with one {@code _id in} query per collection.  Groups
+         * are only used when the {@link dev.morphia.mapping.lazy.LazyProxyFactory} in use is a
+         * {@link dev.morphia.mapping.lazy.FetchGroupAwareProxyFactory}.
+         *
+         * @param fetchGroupSize the most references in a group, or 0 to fetch each reference on its own
+         * @return this
+         * @see dev.morphia.mapping.lazy.proxy.FetchGroup
+         * @since 1.5
+         */
+        public Builder fetchGroupSize(final int fetchGroupSize) {
+            if (fetchGroupSize < 0) {
+                throw new IllegalArgumentException("The fetch group size can not be negative");
+            }
+            this.fetchGroupSize = fetchGroupSize;
+            return this;
+        }
+
+        /**
+         * Sets the factory creating the proxies of lazy {@code @Reference}s.  By default the proxies are created by
+         * {@link dev.morphia.mapping.lazy.CGLibLazyProxyFactory}.  {@link dev.morphia.mapping.lazy.LightweightLazyProxyFactory} creates
+         * them more cheaply when many lazy references are decoded.
+         *
+         * @param proxyFactory the factory to use or null to use the default factory
+         * @return this
+         * @since 1.5
+         */
+        public Builder proxyFactory(final LazyProxyFactory proxyFactory) {
+            this.proxyFactory = proxyFactory;
+            return this;
+        }
+
+        /**
+         * Sets the cache holding the results of the queries which opt in with {@link dev.morphia.query.Query#cacheResults()}.  Without a
+         * cache, those queries are sent to the server like any other.
+         *
+         * @param queryResultCache the cache to use or null to not cache results
+         * @return this
+         * @since 1.5
+         */
+        public Builder queryResultCache(final QueryResultCache queryResultCache) {
+            this.queryResultCache = queryResultCache;
+            return this;
+        }
+
+        /**
+         * Saving an entity which already has an id normally replaces its whole document, and merging sets every mapped field.  With
+         * change tracking enabled, each datastore keeps a snapshot of the stored document of each entity it reads or saves, taken before
+         * any {@code @PreLoad} changes.  A later save of that entity only sets and unsets the fields which differ from the snapshot, and a
+         * merge only sets the top level fields which differ.
+         * {@code @Version} checks are kept, an unchanged entity is not written, and a save whose document no longer exists falls back to
+         * writing the whole document.
+         * <p>
+         * The snapshots are kept for as long as the entities are referenced.  Entities read with {@link #directDecoding(boolean) direct
+         * decoding} keep the encoded document they were read from.  Changes made to the stored document by other writes are kept unless
+         * the entity changes the same fields.
+         *
+         * @param changeTracking true if saves should only write the changed fields
+         * @return this
+         * @see EntitySnapshots
+         * @since 1.5
+         */
+        public Builder changeTracking(final boolean changeTracking) {
+            this.changeTracking = changeTracking;
+            return this;
+        }
+
         /**
          * @param datastoreProvider the provider to use
          * @return this
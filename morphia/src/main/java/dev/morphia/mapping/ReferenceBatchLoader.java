@@ -0,0 +1,279 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import dev.morphia.Datastore;
+import dev.morphia.Key;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.mapping.experimental.MorphiaReference;
+import dev.morphia.mapping.lazy.LazyFeatureDependencies;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static dev.morphia.mapping.Mapper.ID_KEY;
+
+/**
+ * Loads the eager {@link Reference}s of a batch of documents before the documents are mapped.  The references are gathered by
+ * collection and fetched with one {@code _id in} query per collection, and per {@link #MAX_IDS} ids, rather than one query per
+ * reference.  The referenced documents are mapped in to the {@link EntityCache} so that mapping the batch finds them there.  The
+ * references of the fetched documents are loaded the same way, a level at a time.
+ * <p>
+ * The same loader also maps the documents joined in by {@link dev.morphia.query.Query#include(String...)}, so that references already
+ * joined are not fetched again.
+ * <p>
+ * Only the reference fields declared on the mapped class of each document are loaded ahead of time.  References held by embedded
+ * entities, or declared on a subclass, are still fetched one at a time as the documents are mapped.
+ *
+ * @morphia.internal
+ * @see MapperOptions#getReferenceBatchSize()
+ * @since 1.5
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ReferenceBatchLoader {
+    /**
+     * The most ids sent in a single {@code _id in} query
+     */
+    static final int MAX_IDS = 1000;
+
+    private final Datastore datastore;
+    private final Mapper mapper;
+    private final EntityCache cache;
+    private final Set<Key> seen = new HashSet<Key>();
+
+    /**
+     * Creates a loader
+     *
+     * @param datastore the Datastore to fetch the references with
+     * @param mapper    the Mapper to use
+     * @param cache     the EntityCache of the query being read
+     */
+    public ReferenceBatchLoader(final Datastore datastore, final Mapper mapper, final EntityCache cache) {
+        this.datastore = datastore;
+        this.mapper = mapper;
+        this.cache = cache;
+    }
+
+    /**
+     * @param mc the mapped class to check
+     * @return true if the class declares any reference fields which are not loaded lazily
+     */
+    private static boolean hasEagerReferences(final MappedClass mc) {
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            if (isEagerReference(mf)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the references of the documents, and of the documents they reference, in to the cache.
+     *
+     * @param type      the type the documents are mapped to
+     * @param dbObjects the documents about to be mapped
+     */
+    public void load(final Class<?> type, final List<DBObject> dbObjects) {
+        final MappedClass mc = mapper.getMappedClass(type);
+        if (mc == null || !hasEagerReferences(mc)) {
+            return;
+        }
+
+        List<Document> level = new ArrayList<Document>();
+        for (final DBObject dbObject : dbObjects) {
+            // a directly decoded entity holds the stored values of its references until it is completed
+            level.add(new Document(mc, null, dbObject));
+        }
+
+        final List<List<Document>> levels = new ArrayList<List<Document>>();
+        while (!level.isEmpty()) {
+            level = fetch(collect(level));
+            levels.add(level);
+        }
+
+        // the deepest references first so that each level finds the next one in the cache
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            for (final Document document : levels.get(i)) {
+                Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, document.pending.mf, document.dbObject);
+                refObj = mapper.fromDb(datastore, document.dbObject, refObj, cache);
+                cache.putEntity(document.pending.key, refObj);
+            }
+        }
+    }
+
+    /**
+     * Maps the referenced documents a {@code $lookup} stage joined in to a document in to the cache.  The joined documents are removed
+     * from the document, and the references of the field which were not joined are recorded as missing.
+     *
+     * @param mf          the reference field
+     * @param dbObject    the document about to be mapped
+     * @param joinedField the name of the field holding the joined documents
+     * @see dev.morphia.query.Query#include(String...)
+     */
+    public void loadJoined(final MappedField mf, final DBObject dbObject, final String joinedField) {
+        final Object joined = dbObject.removeField(joinedField);
+        final Class<?> type = mf.isSingleValue() ? mf.getType() : mf.getSubClass();
+        final Map<Object, DBObject> found = new HashMap<Object, DBObject>();
+        if (joined instanceof List) {
+            for (final Object document : (List) joined) {
+                found.put(((DBObject) document).get(ID_KEY), (DBObject) document);
+            }
+        }
+
+        final boolean idOnly = mf.getAnnotation(Reference.class).idOnly();
+        for (final Object ref : getReferences(mf, dbObject)) {
+            if (ref == null || (!idOnly && !(ref instanceof DBRef))) {
+                continue;
+            }
+            final Object id = idOnly ? ref : ((DBRef) ref).getId();
+            final Key key = mapper.createKey(type, id);
+            if (!seen.add(key)) {
+                continue;
+            }
+            final DBObject document = found.get(id);
+            if (document == null) {
+                cache.notifyExists(key, false);
+            } else {
+                Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, document);
+                refObj = mapper.fromDb(datastore, document, refObj, cache);
+                cache.putEntity(key, refObj);
+            }
+        }
+    }
+
+    private Map<String, Map<Object, List<Pending>>> collect(final List<Document> documents) {
+        final Map<String, Map<Object, List<Pending>>> byCollection = new LinkedHashMap<String, Map<Object, List<Pending>>>();
+        for (final Document document : documents) {
+            for (final MappedField mf : document.mc.getPersistenceFields()) {
+                if (!isEagerReference(mf)) {
+                    continue;
+                }
+                final boolean idOnly = mf.getAnnotation(Reference.class).idOnly();
+                for (final Object ref : getReferences(mf, document.dbObject)) {
+                    add(byCollection, mf, idOnly, ref);
+                }
+            }
+        }
+        return byCollection;
+    }
+
+    private static List<Object> getReferences(final MappedField mf, final DBObject dbObject) {
+        final Object dbVal = mf.getDbObjectValue(dbObject);
+        final List<Object> references = new ArrayList<Object>();
+        if (dbVal == null) {
+            return references;
+        }
+        if (mf.isMap()) {
+            if (dbVal instanceof DBObject) {
+                for (final String key : ((DBObject) dbVal).keySet()) {
+                    references.add(((DBObject) dbVal).get(key));
+                }
+            }
+        } else if (mf.isMultipleValues() && dbVal instanceof List) {
+            references.addAll((List) dbVal);
+        } else {
+            references.add(dbVal);
+        }
+        return references;
+    }
+
+    private void add(final Map<String, Map<Object, List<Pending>>> byCollection, final MappedField mf, final boolean idOnly,
+                     final Object ref) {
+        if (ref == null || (!idOnly && !(ref instanceof DBRef))) {
+            return;
+        }
+        final DBRef dbRef = idOnly ? null : (DBRef) ref;
+        final Object id = idOnly ? ref : dbRef.getId();
+        final Key key = mapper.createKey(mf.isSingleValue() ? mf.getType() : mf.getSubClass(), id);
+        if (!seen.add(key)) {
+            return;
+        }
+        if (id instanceof DBObject) {
+            ((DBObject) id).removeField(mapper.getOptions().getDiscriminatorField());
+        }
+
+        final String collection = idOnly ? datastore.getCollection(key.getType()).getName() : dbRef.getCollectionName();
+        Map<Object, List<Pending>> byId = byCollection.get(collection);
+        if (byId == null) {
+            byId = new LinkedHashMap<Object, List<Pending>>();
+            byCollection.put(collection, byId);
+        }
+        List<Pending> pending = byId.get(id);
+        if (pending == null) {
+            pending = new ArrayList<Pending>();
+            byId.put(id, pending);
+        }
+        pending.add(new Pending(mf, key));
+    }
+
+    private List<Document> fetch(final Map<String, Map<Object, List<Pending>>> byCollection) {
+        final List<Document> fetched = new ArrayList<Document>();
+        for (final Map.Entry<String, Map<Object, List<Pending>>> entry : byCollection.entrySet()) {
+            final DBCollection collection = datastore.getDB().getCollection(entry.getKey());
+            final List<Object> ids = new ArrayList<Object>(entry.getValue().keySet());
+            final Map<Object, DBObject> found = new HashMap<Object, DBObject>();
+            for (int start = 0; start < ids.size(); start += MAX_IDS) {
+                final List<Object> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_IDS));
+                final DBCursor cursor = collection.find(new BasicDBObject(ID_KEY, new BasicDBObject("$in", chunk)));
+                try {
+                    while (cursor.hasNext()) {
+                        final DBObject dbObject = cursor.next();
+                        found.put(dbObject.get(ID_KEY), dbObject);
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+
+            for (final Map.Entry<Object, List<Pending>> pendingById : entry.getValue().entrySet()) {
+                final DBObject dbObject = found.get(pendingById.getKey());
+                for (final Pending pending : pendingById.getValue()) {
+                    if (dbObject == null) {
+                        cache.notifyExists(pending.key, false);
+                    } else {
+                        fetched.add(new Document(mapper.getMappedClass(pending.key.getType()), pending, dbObject));
+                    }
+                }
+            }
+        }
+        return fetched;
+    }
+
+    private static boolean isEagerReference(final MappedField mf) {
+        final Reference reference = mf.getAnnotation(Reference.class);
+        return reference != null
+               && !mf.getType().equals(MorphiaReference.class)
+               && !(reference.lazy() && LazyFeatureDependencies.testDependencyFullFilled());
+    }
+
+    private static final class Pending {
+        private final MappedField mf;
+        private final Key key;
+
+        private Pending(final MappedField mf, final Key key) {
+            this.mf = mf;
+            this.key = key;
+        }
+    }
+
+    private static final class Document {
+        private final MappedClass mc;
+        private final Pending pending;
+        private final DBObject dbObject;
+
+        private Document(final MappedClass mc, final Pending pending, final DBObject dbObject) {
+            this.mc = mc;
+            this.pending = pending;
+            this.dbObject = dbObject;
+        }
+    }
+}
@@ -8,11 +8,15 @@ import dev.morphia.Datastore;
 import dev.morphia.Key;
 import dev.morphia.annotations.Reference;
 import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.mapping.cache.SharedEntityCache;
 import dev.morphia.mapping.experimental.CollectionReference;
 import dev.morphia.mapping.experimental.MapReference;
 import dev.morphia.mapping.experimental.MorphiaReference;
 import dev.morphia.mapping.experimental.SingleReference;
+import dev.morphia.mapping.lazy.FetchGroupAwareProxyFactory;
 import dev.morphia.mapping.lazy.LazyFeatureDependencies;
+import dev.morphia.mapping.lazy.LazyProxyFactory;
+import dev.morphia.mapping.lazy.proxy.FetchGroup;
 import dev.morphia.mapping.lazy.proxy.ProxiedEntityReference;
 import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
 import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
@@ -28,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * @morphia.internal
@@ -38,6 +43,11 @@ import java.util.Map;
 class ReferenceMapper implements CustomMapper {
     public static final Logger LOG = LoggerFactory.getLogger(ReferenceMapper.class);
 
+    /**
+     * The fetch group currently being filled for each query, by the query's cache
+     */
+    private final Map<EntityCache, FetchGroup> fetchGroups = new WeakHashMap<EntityCache, FetchGroup>();
+
     @Override
     public void fromDBObject(final Datastore datastore, final DBObject dbObject, final MappedField mf, final Object entity,
                              final EntityCache cache, final Mapper mapper) {
@@ -105,11 +115,30 @@ class ReferenceMapper implements CustomMapper {
         if (proxyAlreadyCreated != null) {
             return proxyAlreadyCreated;
         }
-        final Object newProxy = mapper.getProxyFactory().createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
+        final LazyProxyFactory factory = mapper.getProxyFactory();
+        final Object newProxy = factory instanceof FetchGroupAwareProxyFactory
+                                ? ((FetchGroupAwareProxyFactory) factory).createProxy(datastore, referenceObjClass, key,
+                                    anntotation.ignoreMissing(), getFetchGroup(mapper, cache))
+                                : factory.createProxy(datastore, referenceObjClass, key, anntotation.ignoreMissing());
         cache.putProxy(key, newProxy);
         return newProxy;
     }
 
+    private FetchGroup getFetchGroup(final Mapper mapper, final EntityCache cache) {
+        final int size = mapper.getOptions().getFetchGroupSize();
+        if (size == 0) {
+            return null;
+        }
+        synchronized (fetchGroups) {
+            FetchGroup group = fetchGroups.get(cache);
+            if (group == null || group.size() >= size) {
+                group = new FetchGroup();
+                fetchGroups.put(cache, group);
+            }
+            return group;
+        }
+    }
+
     private Key<?> getKey(final Object entity, final Mapper mapper) {
         try {
             if (entity instanceof ProxiedEntityReference) {
@@ -325,6 +354,9 @@ class ReferenceMapper implements CustomMapper {
             return cached;
         }
 
+        // a batch or a $lookup already looked for this reference and didn't find it
+        final boolean missing = Boolean.FALSE.equals(cache.exists(key));
+
         final DBObject refDbObject;
         DBCollection collection;
         Object id;
@@ -339,7 +371,7 @@ class ReferenceMapper implements CustomMapper {
         if (id instanceof DBObject) {
             ((DBObject) id).removeField(mapper.getOptions().getDiscriminatorField());
         }
-        refDbObject = collection.findOne(id);
+        refDbObject = missing ? null : findOne(mapper, collection, id);
 
         if (refDbObject != null) {
             Object refObj = mapper.getOptions().getObjectFactory().createInstance(mapper, mf, refDbObject);
@@ -356,6 +388,26 @@ class ReferenceMapper implements CustomMapper {
         }
     }
 
+    /**
+     * Reads a referenced document, through the shared cache when there is one.  The cache is keyed by the stored id the reference holds,
+     * as are the reads and invalidations of the Datastore.
+     */
+    private static DBObject findOne(final Mapper mapper, final DBCollection collection, final Object id) {
+        final SharedEntityCache sharedCache = mapper.getSharedEntityCache();
+        if (sharedCache == null) {
+            return collection.findOne(id);
+        }
+        DBObject document = sharedCache.get(collection.getName(), id);
+        if (document == null) {
+            final long version = sharedCache.getVersion(collection.getName());
+            document = collection.findOne(id);
+            if (document != null) {
+                sharedCache.put(collection.getName(), id, document, version);
+            }
+        }
+        return document;
+    }
+
     void readMorphiaReferenceValues(final Mapper mapper, final Datastore datastore, final MappedField mappedField,
                                            final DBObject dbObject, final Object entity) {
         final Class paramType = mappedField.getTypeParameters().get(0).getType();
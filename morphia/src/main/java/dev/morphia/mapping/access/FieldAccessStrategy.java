@@ -0,0 +1,60 @@
+package dev.morphia.mapping.access;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * This enum is used to determine how Morphia reads and writes the fields of mapped entities.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#fieldAccessStrategy(FieldAccessStrategy)
+ * @since 1.5
+ */
+public enum FieldAccessStrategy {
+    /**
+     * Uses {@link Field#get(Object)} and {@link Field#set(Object, Object)}.  This is the default.
+     */
+    REFLECTION {
+        @Override
+        public FieldAccessor createAccessor(final Field field) {
+            return new ReflectiveFieldAccessor(field);
+        }
+    },
+    /**
+     * Reads and writes fields through an accessor class generated by cglib, avoiding the per-call checks of reflection.  Private fields
+     * need Java 7.  Static and final fields, or a classpath without cglib, fall back to {@link #REFLECTION}.
+     */
+    GENERATED {
+        @Override
+        public FieldAccessor createAccessor(final Field field) {
+            if (isGeneratorAvailable() && GeneratedFieldAccessor.isSupported(field)) {
+                return new GeneratedFieldAccessor(field);
+            }
+            return REFLECTION.createAccessor(field);
+        }
+    };
+
+    private static final Logger LOG = LoggerFactory.getLogger(FieldAccessStrategy.class);
+    private static Boolean generatorAvailable;
+
+    /**
+     * Creates the accessor for a field.  This is called once per field when a class is mapped.
+     *
+     * @param field the field to access
+     * @return the accessor
+     */
+    public abstract FieldAccessor createAccessor(Field field);
+
+    private static boolean isGeneratorAvailable() {
+        if (generatorAvailable == null) {
+            try {
+                generatorAvailable = Class.forName("net.sf.cglib.core.AbstractClassGenerator") != null;
+            } catch (ClassNotFoundException e) {
+                generatorAvailable = false;
+                LOG.warn("Generated field accessors need cglib on the classpath.  Reflection will be used instead.");
+            }
+        }
+        return generatorAvailable;
+    }
+}
@@ -0,0 +1,119 @@
+package dev.morphia.mapping.access;
+
+/**
+ * Reads and writes the value of a single mapped java field.  An accessor is built once per {@link dev.morphia.mapping.MappedField} and
+ * reused for every entity read or written through that field.  The primitive variants avoid boxing when the caller knows the field type.
+ *
+ * @morphia.internal
+ * @see FieldAccessStrategy
+ * @since 1.5
+ */
+public interface FieldAccessor {
+    /**
+     * @param instance the instance to read from
+     * @return the value of the field, boxed if the field is primitive
+     */
+    Object get(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value.  For primitive fields, the value is unboxed (and widened) as {@link java.lang.reflect.Field#set} would
+     */
+    void set(Object instance, Object value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code boolean} field
+     */
+    boolean getBoolean(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code boolean} field
+     */
+    void setBoolean(Object instance, boolean value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code byte} field
+     */
+    byte getByte(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code byte} field
+     */
+    void setByte(Object instance, byte value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code char} field
+     */
+    char getChar(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code char} field
+     */
+    void setChar(Object instance, char value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code short} field
+     */
+    short getShort(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code short} field
+     */
+    void setShort(Object instance, short value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of an {@code int} field
+     */
+    int getInt(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of an {@code int} field
+     */
+    void setInt(Object instance, int value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code long} field
+     */
+    long getLong(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code long} field
+     */
+    void setLong(Object instance, long value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code float} field
+     */
+    float getFloat(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code float} field
+     */
+    void setFloat(Object instance, float value);
+
+    /**
+     * @param instance the instance to read from
+     * @return the value of a {@code double} field
+     */
+    double getDouble(Object instance);
+
+    /**
+     * @param instance the instance to update
+     * @param value    the new value of a {@code double} field
+     */
+    void setDouble(Object instance, double value);
+}
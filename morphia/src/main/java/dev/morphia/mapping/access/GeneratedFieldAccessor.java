@@ -0,0 +1,652 @@
+package dev.morphia.mapping.access;
+
+import net.sf.cglib.asm.$ClassVisitor;
+import net.sf.cglib.asm.$Type;
+import net.sf.cglib.core.AbstractClassGenerator;
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.EmitUtils;
+import net.sf.cglib.core.Local;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.ProtectionDomain;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.String.format;
+
+/**
+ * A {@link FieldAccessor} which reads and writes the field through a class generated by cglib rather than through reflection.  The
+ * generated class is defined in the package and class loader of the field's class and accesses the field directly.  Private fields, and
+ * fields of a type the generated class can not see, are accessed through a {@code MethodHandle} held in a constant of the generated class
+ * instead, which needs Java 7.  Static and final fields are left to reflection.  cglib is an optional dependency and this class must only
+ * be used once {@link FieldAccessStrategy#GENERATED} has found it.
+ * <p>
+ * The generated code does not repeat the checks of reflection, so the target instance and value are checked here before writing.
+ * Values which need a widening conversion, and primitive reads and writes of another type than the field's, are left to reflection.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class GeneratedFieldAccessor implements FieldAccessor {
+    private static final boolean HANDLES_AVAILABLE = isHandlesAvailable();
+    private static final ConcurrentMap<String, Object[]> PENDING_HANDLES = new ConcurrentHashMap<String, Object[]>();
+
+    private final Field field;
+    private final Class<?> declaringClass;
+    private final Class<?> type;
+    private final Class<?> boxedType;
+    private final Access access;
+    private final ReflectiveFieldAccessor fallback;
+
+    /**
+     * Creates an accessor for the given field
+     *
+     * @param field the field to access
+     * @see #isSupported(Field)
+     */
+    public GeneratedFieldAccessor(final Field field) {
+        if (!isSupported(field)) {
+            throw new IllegalArgumentException(format("Field %s can not be accessed from a generated class", field));
+        }
+        this.field = field;
+        declaringClass = field.getDeclaringClass();
+        type = field.getType();
+        boxedType = box(type);
+        access = new Generator(field).create();
+        fallback = new ReflectiveFieldAccessor(field);
+    }
+
+    /**
+     * @param field the field to check
+     * @return true if a generated class can read and write the field
+     */
+    public static boolean isSupported(final Field field) {
+        final int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.getDeclaringClass().getClassLoader() == null) {
+            return false;
+        }
+        return !needsHandles(field) || HANDLES_AVAILABLE;
+    }
+
+    @Override
+    public Object get(final Object instance) {
+        checkInstance(instance);
+        return access.get(instance);
+    }
+
+    @Override
+    public void set(final Object instance, final Object value) {
+        checkInstance(instance);
+        if (value != null && boxedType.isInstance(value)) {
+            access.set(instance, value);
+        } else if (value == null && !type.isPrimitive()) {
+            access.set(instance, null);
+        } else if (type.isPrimitive()) {
+            // nulls and widening conversions are rare; let reflection apply its rules
+            fallback.set(instance, value);
+        } else {
+            throw new IllegalArgumentException(format("Can not set %s field %s to %s", type.getName(), field, value.getClass().getName()));
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final Object instance) {
+        if (type != boolean.class) {
+            return fallback.getBoolean(instance);
+        }
+        checkInstance(instance);
+        return access.getBoolean(instance);
+    }
+
+    @Override
+    public void setBoolean(final Object instance, final boolean value) {
+        if (type != boolean.class) {
+            fallback.setBoolean(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setBoolean(instance, value);
+    }
+
+    @Override
+    public byte getByte(final Object instance) {
+        if (type != byte.class) {
+            return fallback.getByte(instance);
+        }
+        checkInstance(instance);
+        return access.getByte(instance);
+    }
+
+    @Override
+    public void setByte(final Object instance, final byte value) {
+        if (type != byte.class) {
+            fallback.setByte(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setByte(instance, value);
+    }
+
+    @Override
+    public char getChar(final Object instance) {
+        if (type != char.class) {
+            return fallback.getChar(instance);
+        }
+        checkInstance(instance);
+        return access.getChar(instance);
+    }
+
+    @Override
+    public void setChar(final Object instance, final char value) {
+        if (type != char.class) {
+            fallback.setChar(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setChar(instance, value);
+    }
+
+    @Override
+    public short getShort(final Object instance) {
+        if (type != short.class) {
+            return fallback.getShort(instance);
+        }
+        checkInstance(instance);
+        return access.getShort(instance);
+    }
+
+    @Override
+    public void setShort(final Object instance, final short value) {
+        if (type != short.class) {
+            fallback.setShort(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setShort(instance, value);
+    }
+
+    @Override
+    public int getInt(final Object instance) {
+        if (type != int.class) {
+            return fallback.getInt(instance);
+        }
+        checkInstance(instance);
+        return access.getInt(instance);
+    }
+
+    @Override
+    public void setInt(final Object instance, final int value) {
+        if (type != int.class) {
+            fallback.setInt(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setInt(instance, value);
+    }
+
+    @Override
+    public long getLong(final Object instance) {
+        if (type != long.class) {
+            return fallback.getLong(instance);
+        }
+        checkInstance(instance);
+        return access.getLong(instance);
+    }
+
+    @Override
+    public void setLong(final Object instance, final long value) {
+        if (type != long.class) {
+            fallback.setLong(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setLong(instance, value);
+    }
+
+    @Override
+    public float getFloat(final Object instance) {
+        if (type != float.class) {
+            return fallback.getFloat(instance);
+        }
+        checkInstance(instance);
+        return access.getFloat(instance);
+    }
+
+    @Override
+    public void setFloat(final Object instance, final float value) {
+        if (type != float.class) {
+            fallback.setFloat(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setFloat(instance, value);
+    }
+
+    @Override
+    public double getDouble(final Object instance) {
+        if (type != double.class) {
+            return fallback.getDouble(instance);
+        }
+        checkInstance(instance);
+        return access.getDouble(instance);
+    }
+
+    @Override
+    public void setDouble(final Object instance, final double value) {
+        if (type != double.class) {
+            fallback.setDouble(instance, value);
+            return;
+        }
+        checkInstance(instance);
+        access.setDouble(instance, value);
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedFieldAccessor{" + field + "}";
+    }
+
+    private void checkInstance(final Object instance) {
+        if (instance == null) {
+            throw new NullPointerException();
+        }
+        if (!declaringClass.isInstance(instance)) {
+            throw new IllegalArgumentException(format("Can not access a field of %s on an instance of %s", declaringClass.getName(),
+                                                      instance.getClass().getName()));
+        }
+    }
+
+    private static boolean needsHandles(final Field field) {
+        return Modifier.isPrivate(field.getModifiers()) || !isVisible(field.getType(), field.getDeclaringClass());
+    }
+
+    private static boolean isHandlesAvailable() {
+        try {
+            return Class.forName("java.lang.invoke.MethodHandles") != null;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Called by the static initializer of a generated class to take the handles to its field
+     *
+     * @param className the name of the generated class
+     * @return the getter and setter handles
+     * @morphia.internal
+     */
+    public static Object[] takeHandles(final String className) {
+        return PENDING_HANDLES.remove(className);
+    }
+
+    private static Class<?> box(final Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else {
+            return Character.class;
+        }
+    }
+
+    private static boolean isVisible(final Class<?> type, final Class<?> from) {
+        Class<?> target = type;
+        while (target.isArray()) {
+            target = target.getComponentType();
+        }
+        if (target.isPrimitive() || getPackageName(target).equals(getPackageName(from))) {
+            return true;
+        }
+        while (target != null) {
+            if (!Modifier.isPublic(target.getModifiers())) {
+                return false;
+            }
+            target = target.getEnclosingClass();
+        }
+        return true;
+    }
+
+    private static String getPackageName(final Class<?> type) {
+        final String name = type.getName();
+        final int dot = name.lastIndexOf('.');
+        return dot == -1 ? "" : name.substring(0, dot);
+    }
+
+    /**
+     * The base class of the generated accessors.  Only the primitive methods of the field's type are generated.
+     *
+     * @morphia.internal
+     */
+    public abstract static class Access {
+        /**
+         * @param instance the instance to read from
+         * @return the value of the field
+         */
+        public abstract Object get(Object instance);
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value, of the field's type or its boxed type
+         */
+        public abstract void set(Object instance, Object value);
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code boolean} field
+         */
+        public boolean getBoolean(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code boolean} field
+         */
+        public void setBoolean(final Object instance, final boolean value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code byte} field
+         */
+        public byte getByte(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code byte} field
+         */
+        public void setByte(final Object instance, final byte value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code char} field
+         */
+        public char getChar(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code char} field
+         */
+        public void setChar(final Object instance, final char value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code short} field
+         */
+        public short getShort(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code short} field
+         */
+        public void setShort(final Object instance, final short value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code int} field
+         */
+        public int getInt(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code int} field
+         */
+        public void setInt(final Object instance, final int value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code long} field
+         */
+        public long getLong(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code long} field
+         */
+        public void setLong(final Object instance, final long value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code float} field
+         */
+        public float getFloat(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code float} field
+         */
+        public void setFloat(final Object instance, final float value) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to read from
+         * @return the value of a {@code double} field
+         */
+        public double getDouble(final Object instance) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * @param instance the instance to update
+         * @param value    the new value of a {@code double} field
+         */
+        public void setDouble(final Object instance, final double value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class Generator extends AbstractClassGenerator<Object> {
+        private static final Source SOURCE = new Source(GeneratedFieldAccessor.class.getName());
+        private static final $Type ACCESS = $Type.getType(Access.class);
+        private static final $Type ACCESSOR = $Type.getType(GeneratedFieldAccessor.class);
+        private static final $Type METHOD_HANDLE = $Type.getObjectType("java/lang/invoke/MethodHandle");
+        private static final $Type OBJECT_ARRAY = $Type.getType(Object[].class);
+        private static final Signature TAKE_HANDLES = new Signature("takeHandles", OBJECT_ARRAY, new $Type[]{Constants.TYPE_STRING});
+        private static final String GETTER = "GETTER";
+        private static final String SETTER = "SETTER";
+
+        private final Field field;
+        private final boolean handles;
+
+        private Generator(final Field field) {
+            super(SOURCE);
+            this.field = field;
+            handles = needsHandles(field);
+            setNamePrefix(field.getDeclaringClass().getName());
+        }
+
+        private Access create() {
+            return (Access) super.create(field.getDeclaringClass().getName() + "#" + field.getName());
+        }
+
+        @Override
+        protected ClassLoader getDefaultClassLoader() {
+            return field.getDeclaringClass().getClassLoader();
+        }
+
+        @Override
+        protected ProtectionDomain getProtectionDomain() {
+            return ReflectUtils.getProtectionDomain(field.getDeclaringClass());
+        }
+
+        @Override
+        public void generateClass(final $ClassVisitor visitor) {
+            final Class<?> type = field.getType();
+            // through a handle, reference values are passed as Objects so the field's type need not be visible
+            final $Type valueType = handles && !type.isPrimitive() ? Constants.TYPE_OBJECT : $Type.getType(type);
+
+            final ClassEmitter ce = new ClassEmitter(visitor);
+            ce.begin_class(Constants.V1_2, Constants.ACC_PUBLIC, getClassName(), ACCESS, null, Constants.SOURCE_FILE);
+            EmitUtils.null_constructor(ce);
+            if (handles) {
+                declareHandles(ce);
+            }
+
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, new Signature("get", Constants.TYPE_OBJECT,
+                                                                                 new $Type[]{Constants.TYPE_OBJECT}), null);
+            emitGet(e, valueType);
+            e.box(valueType);
+            e.return_value();
+            e.end_method();
+
+            e = ce.begin_method(Constants.ACC_PUBLIC, new Signature("set", $Type.VOID_TYPE,
+                                                                    new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT}), null);
+            e.load_arg(1);
+            e.unbox(valueType);
+            emitSet(e, valueType);
+            e.return_value();
+            e.end_method();
+
+            if (type.isPrimitive()) {
+                final String name = Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+                e = ce.begin_method(Constants.ACC_PUBLIC, new Signature("get" + name, valueType, new $Type[]{Constants.TYPE_OBJECT}), null);
+                emitGet(e, valueType);
+                e.return_value();
+                e.end_method();
+
+                e = ce.begin_method(Constants.ACC_PUBLIC, new Signature("set" + name, $Type.VOID_TYPE,
+                                                                        new $Type[]{Constants.TYPE_OBJECT, valueType}), null);
+                e.load_arg(1);
+                emitSet(e, valueType);
+                e.return_value();
+                e.end_method();
+            }
+
+            ce.end_class();
+        }
+
+        /**
+         * Holds the handles in constants of the generated class, which its static initializer takes from the pending handles
+         */
+        private void declareHandles(final ClassEmitter ce) {
+            PENDING_HANDLES.put(getClassName(), Handles.create(field));
+            ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL, GETTER, METHOD_HANDLE, null);
+            ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL, SETTER, METHOD_HANDLE, null);
+
+            final CodeEmitter e = ce.begin_static();
+            e.push(getClassName());
+            e.invoke_static(ACCESSOR, TAKE_HANDLES);
+            e.dup();
+            e.aaload(0);
+            e.checkcast(METHOD_HANDLE);
+            e.putstatic(ce.getClassType(), GETTER, METHOD_HANDLE);
+            e.aaload(1);
+            e.checkcast(METHOD_HANDLE);
+            e.putstatic(ce.getClassType(), SETTER, METHOD_HANDLE);
+            e.return_value();
+            e.end_method();
+        }
+
+        /**
+         * Reads the field of the instance in the first argument
+         */
+        private void emitGet(final CodeEmitter e, final $Type valueType) {
+            if (handles) {
+                e.getstatic(e.getClassEmitter().getClassType(), GETTER, METHOD_HANDLE);
+                e.load_arg(0);
+                e.invoke_virtual(METHOD_HANDLE, new Signature("invokeExact", valueType, new $Type[]{Constants.TYPE_OBJECT}));
+            } else {
+                final $Type owner = $Type.getType(field.getDeclaringClass());
+                e.load_arg(0);
+                e.checkcast(owner);
+                e.getfield(owner, field.getName(), valueType);
+            }
+        }
+
+        /**
+         * Writes the value on the stack to the field of the instance in the first argument
+         */
+        private void emitSet(final CodeEmitter e, final $Type valueType) {
+            if (handles) {
+                final Local value = e.make_local(valueType);
+                e.store_local(value);
+                e.getstatic(e.getClassEmitter().getClassType(), SETTER, METHOD_HANDLE);
+                e.load_arg(0);
+                e.load_local(value);
+                e.invoke_virtual(METHOD_HANDLE, new Signature("invokeExact", $Type.VOID_TYPE,
+                                                              new $Type[]{Constants.TYPE_OBJECT, valueType}));
+            } else {
+                final $Type owner = $Type.getType(field.getDeclaringClass());
+                final Local value = e.make_local(valueType);
+                e.store_local(value);
+                e.load_arg(0);
+                e.checkcast(owner);
+                e.load_local(value);
+                e.putfield(owner, field.getName(), valueType);
+            }
+        }
+
+        @Override
+        protected Object firstInstance(final Class type) {
+            return ReflectUtils.newInstance(type);
+        }
+
+        @Override
+        protected Object nextInstance(final Object instance) {
+            return instance;
+        }
+    }
+
+    /**
+     * Creates the handles to a field.  This is kept apart so that the {@code java.lang.invoke} classes are only loaded when needed.
+     */
+    private static final class Handles {
+        private Handles() {
+        }
+
+        static Object[] create(final Field field) {
+            field.setAccessible(true);
+            final Class<?> type = field.getType().isPrimitive() ? field.getType() : Object.class;
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                return new Object[]{lookup.unreflectGetter(field).asType(MethodType.methodType(type, Object.class)),
+                                    lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, type))};
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(format("Field %s can not be accessed through a handle", field), e);
+            }
+        }
+    }
+}
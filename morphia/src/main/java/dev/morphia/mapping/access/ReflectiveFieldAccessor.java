@@ -0,0 +1,191 @@
+package dev.morphia.mapping.access;
+
+import java.lang.reflect.Field;
+
+/**
+ * A {@link FieldAccessor} backed by {@link Field#get(Object)} and {@link Field#set(Object, Object)}.  This is the historical behavior and
+ * works with any field on any JVM.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class ReflectiveFieldAccessor implements FieldAccessor {
+    private final Field field;
+
+    /**
+     * Creates an accessor for the given field
+     *
+     * @param field the field to access
+     */
+    public ReflectiveFieldAccessor(final Field field) {
+        field.setAccessible(true);
+        this.field = field;
+    }
+
+    @Override
+    public Object get(final Object instance) {
+        try {
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void set(final Object instance, final Object value) {
+        try {
+            field.set(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final Object instance) {
+        try {
+            return field.getBoolean(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setBoolean(final Object instance, final boolean value) {
+        try {
+            field.setBoolean(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public byte getByte(final Object instance) {
+        try {
+            return field.getByte(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setByte(final Object instance, final byte value) {
+        try {
+            field.setByte(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public char getChar(final Object instance) {
+        try {
+            return field.getChar(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setChar(final Object instance, final char value) {
+        try {
+            field.setChar(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public short getShort(final Object instance) {
+        try {
+            return field.getShort(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setShort(final Object instance, final short value) {
+        try {
+            field.setShort(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int getInt(final Object instance) {
+        try {
+            return field.getInt(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setInt(final Object instance, final int value) {
+        try {
+            field.setInt(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long getLong(final Object instance) {
+        try {
+            return field.getLong(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setLong(final Object instance, final long value) {
+        try {
+            field.setLong(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public float getFloat(final Object instance) {
+        try {
+            return field.getFloat(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setFloat(final Object instance, final float value) {
+        try {
+            field.setFloat(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public double getDouble(final Object instance) {
+        try {
+            return field.getDouble(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setDouble(final Object instance, final double value) {
+        try {
+            field.setDouble(instance, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectiveFieldAccessor{" + field + "}";
+    }
+}
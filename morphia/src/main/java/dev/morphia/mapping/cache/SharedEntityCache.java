@@ -0,0 +1,302 @@
+package dev.morphia.mapping.cache;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.mapping.codec.DecodedEntity;
+import dev.morphia.utils.ReflectionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A second level cache of documents shared by every query of a {@link dev.morphia.Datastore}.  Unlike an {@link EntityCache}, which
+ * lives for one query and holds the mapped entities, this cache holds copies of the stored documents, keyed by collection and id, so that
+ * each read still maps its own entity instances but skips the round trip to the server.
+ * <p>
+ * The cache is safe to use from many threads.  The entries are spread over {@link #SEGMENTS} segments which are each locked on their
+ * own.  Each segment evicts its least recently used entries once it holds its share of the maximum size, and entries expire once they
+ * are older than the time to live.
+ * <p>
+ * The Datastore invalidates the entries of the documents it writes.  Writes which can not be traced to single documents, such as
+ * updates or deletes by query, invalidate every entry of the collection.  Writes made by other processes are only seen once the entries
+ * expire.
+ *
+ * @see SharedEntityCacheFactory
+ * @since 1.5
+ */
+public class SharedEntityCache {
+    /**
+     * The number of independently locked segments
+     */
+    public static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttl;
+    private final ConcurrentMap<String, Generation> generations = new ConcurrentHashMap<String, Generation>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache
+     *
+     * @param maxSize the most documents to hold
+     * @param ttl     how long a document is held, or 0 to hold documents until they are evicted or invalidated
+     * @param unit    the unit of the time to live
+     */
+    public SharedEntityCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1");
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("The time to live can not be negative");
+        }
+        this.ttl = unit.toNanos(ttl);
+        final int capacity = (maxSize + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity, evictions);
+        }
+    }
+
+    /**
+     * Gets the version of a collection's entries.  A read records the version before querying the server and passes it to
+     * {@link #put(String, Object, DBObject, long)}, so that a document read before a concurrent write is not cached after the write
+     * invalidated it.
+     *
+     * @param collection the collection name
+     * @return the current version
+     */
+    public long getVersion(final String collection) {
+        return getGeneration(collection).writes.get();
+    }
+
+    /**
+     * Looks up a document
+     *
+     * @param collection the collection name
+     * @param id         the document's id
+     * @return a copy of the cached document or null if it is not cached
+     */
+    public DBObject get(final String collection, final Object id) {
+        if (!isCacheable(id)) {
+            return null;
+        }
+        final CacheKey key = new CacheKey(collection, id);
+        final Segment segment = segmentFor(key);
+        final long epoch = getGeneration(collection).epoch.get();
+        DBObject document = null;
+        synchronized (segment) {
+            final Entry entry = segment.get(key);
+            if (entry != null) {
+                if (entry.epoch == epoch && (entry.expires == 0 || entry.expires - System.nanoTime() > 0)) {
+                    document = entry.document;
+                } else {
+                    segment.remove(key);
+                }
+            }
+        }
+        if (document == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (DBObject) ((BasicDBObject) document).copy();
+    }
+
+    /**
+     * Caches a document.  The document is not cached if the collection was written to since the version was read.
+     *
+     * @param collection the collection name
+     * @param id         the document's id
+     * @param document   the document
+     * @param version    the version of the collection read before the document was queried
+     * @see #getVersion(String)
+     */
+    public void put(final String collection, final Object id, final DBObject document, final long version) {
+        if (!isCacheable(id) || !(document instanceof BasicDBObject) || document instanceof DecodedEntity) {
+            return;
+        }
+        final Generation generation = getGeneration(collection);
+        final CacheKey key = new CacheKey(collection, id instanceof DBObject ? new BasicDBObject(((DBObject) id).toMap()) : id);
+        final Entry entry = new Entry((DBObject) ((BasicDBObject) document).copy(), generation.epoch.get(),
+                                      ttl == 0 ? 0 : Math.max(1, System.nanoTime() + ttl));
+        final Segment segment = segmentFor(key);
+        synchronized (segment) {
+            if (generation.writes.get() == version) {
+                segment.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Removes a document from the cache.  If the id can not be matched to the cached documents, every document of the collection is
+     * removed.
+     *
+     * @param collection the collection name
+     * @param id         the document's id
+     */
+    public void invalidate(final String collection, final Object id) {
+        if (!isCacheable(id)) {
+            invalidate(collection);
+            return;
+        }
+        final CacheKey key = new CacheKey(collection, id);
+        final Segment segment = segmentFor(key);
+        synchronized (segment) {
+            getGeneration(collection).writes.incrementAndGet();
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Removes every document of a collection from the cache
+     *
+     * @param collection the collection name
+     */
+    public void invalidate(final String collection) {
+        final Generation generation = getGeneration(collection);
+        generation.writes.incrementAndGet();
+        generation.epoch.incrementAndGet();
+    }
+
+    /**
+     * Removes every document from the cache
+     */
+    public void clear() {
+        for (final Generation generation : generations.values()) {
+            generation.writes.incrementAndGet();
+            generation.epoch.incrementAndGet();
+        }
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of documents held, including those expired or invalidated but not yet removed
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of lookups which found a document
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which did not find a document
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of documents evicted to keep the cache within its maximum size
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static boolean isCacheable(final Object id) {
+        return id != null && (id instanceof DBObject || ReflectionUtils.isPropertyType(id.getClass()));
+    }
+
+    private Generation getGeneration(final String collection) {
+        Generation generation = generations.get(collection);
+        if (generation == null) {
+            generation = new Generation();
+            final Generation existing = generations.putIfAbsent(collection, generation);
+            if (existing != null) {
+                generation = existing;
+            }
+        }
+        return generation;
+    }
+
+    private Segment segmentFor(final CacheKey key) {
+        final int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Generation {
+        private final AtomicLong epoch = new AtomicLong();
+        private final AtomicLong writes = new AtomicLong();
+    }
+
+    private static final class CacheKey {
+        private final String collection;
+        private final Object id;
+
+        private CacheKey(final String collection, final Object id) {
+            this.collection = collection;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) o;
+            return collection.equals(that.collection) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * collection.hashCode() + id.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final DBObject document;
+        private final long epoch;
+        private final long expires;
+
+        private Entry(final DBObject document, final long epoch, final long expires) {
+            this.document = document;
+            this.epoch = epoch;
+            this.expires = expires;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<CacheKey, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        private final transient AtomicLong evictions;
+
+        private Segment(final int capacity, final AtomicLong evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<CacheKey, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package dev.morphia.mapping.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache factory which, along with the per query caches, holds a {@link SharedEntityCache} used by every query.  References and
+ * {@link dev.morphia.Datastore#getByKey(Class, dev.morphia.Key)} look documents up in the shared cache before querying the server.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#cacheFactory(EntityCacheFactory)
+ * @since 1.5
+ */
+public class SharedEntityCacheFactory extends DefaultEntityCacheFactory {
+    private final SharedEntityCache sharedCache;
+
+    /**
+     * Creates a factory with a new shared cache
+     *
+     * @param maxSize the most documents to hold
+     * @param ttl     how long a document is held, or 0 to hold documents until they are evicted or invalidated
+     * @param unit    the unit of the time to live
+     */
+    public SharedEntityCacheFactory(final int maxSize, final long ttl, final TimeUnit unit) {
+        this(new SharedEntityCache(maxSize, ttl, unit));
+    }
+
+    /**
+     * Creates a factory using an existing shared cache
+     *
+     * @param sharedCache the shared cache
+     */
+    public SharedEntityCacheFactory(final SharedEntityCache sharedCache) {
+        this.sharedCache = sharedCache;
+    }
+
+    /**
+     * @return the cache shared by every query
+     */
+    public SharedEntityCache getSharedCache() {
+        return sharedCache;
+    }
+}
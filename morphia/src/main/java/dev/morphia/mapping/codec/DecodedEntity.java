@@ -0,0 +1,75 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.BasicDBObject;
+import dev.morphia.Datastore;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.cache.EntityCache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Carries an entity read by an {@link EntityDecoderFactory} decoder through a {@link com.mongodb.DBCursor}, which can only return
+ * {@code DBObject}s.  The decoder runs while the driver reads a batch of results, so it only reads the fields which are plain values.
+ * The stored values of the other fields, such as references and embedded entities, are held in this document until the cursor returns
+ * the entity and {@link #complete(Datastore, EntityCache)} maps them the same way as for any other query result.
+ *
+ * @morphia.internal
+ * @see dev.morphia.mapping.Mapper#fromDBObject(dev.morphia.Datastore, Class, com.mongodb.DBObject, dev.morphia.mapping.cache.EntityCache)
+ * @since 1.5
+ */
+public class DecodedEntity extends BasicDBObject {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object entity;
+    private transient List<MappedField> pending;
+
+    /**
+     * Creates a holder for an entity with nothing left to read
+     *
+     * @param entity the decoded entity
+     */
+    public DecodedEntity(final Object entity) {
+        this(entity, Collections.<MappedField>emptyList());
+    }
+
+    /**
+     * Creates a holder for an entity whose other fields are still to be read.  The stored values of those fields are put in to this
+     * document by the decoder.
+     *
+     * @param entity  the decoded entity
+     * @param pending the fields still to be read
+     */
+    public DecodedEntity(final Object entity, final List<MappedField> pending) {
+        this.entity = entity;
+        this.pending = pending;
+    }
+
+    /**
+     * @return the decoded entity, which may not have all its fields read yet
+     * @see #complete(Datastore, EntityCache)
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    /**
+     * Reads the fields the decoder left, fetching references as needed.  Later calls return the entity as it is.
+     *
+     * @param datastore the Datastore to use when fetching references
+     * @param cache     the EntityCache of the query
+     * @return the entity
+     */
+    public Object complete(final Datastore datastore, final EntityCache cache) {
+        if (!pending.isEmpty()) {
+            final List<MappedField> fields = pending;
+            pending = Collections.emptyList();
+            final Mapper mapper = datastore.getMapper();
+            for (final MappedField mf : fields) {
+                mapper.readMappedField(datastore, mf, entity, cache, this);
+            }
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.DBObject;
+import com.mongodb.DBObjectCodec;
+import dev.morphia.Datastore;
+import dev.morphia.mapping.Mapper;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.HashMap;
+
+/**
+ * A {@link Codec} for a mapped type so that {@link com.mongodb.client.MongoCollection}s can read and write entities.  Documents are read
+ * with an {@link EntityDecoder} and written with an {@link EntityEncoder}.
+ *
+ * @param <T> the mapped type
+ * @morphia.internal
+ * @see EntityCodecProvider
+ * @since 1.5
+ */
+public class EntityCodec<T> implements Codec<T> {
+    private final Datastore datastore;
+    private final Class<T> type;
+    private final EntityDecoder decoder;
+    private final EntityEncoder encoder;
+    private final DBObjectCodec dbObjectCodec;
+
+    /**
+     * Creates a codec
+     *
+     * @param datastore the Datastore to use
+     * @param type      the mapped type
+     * @param registry  the registry to use for the values of the fields
+     */
+    public EntityCodec(final Datastore datastore, final Class<T> type, final CodecRegistry registry) {
+        this.datastore = datastore;
+        this.type = type;
+        decoder = new EntityDecoder(datastore, registry);
+        encoder = new EntityEncoder(datastore, registry);
+        dbObjectCodec = new DBObjectCodec(registry);
+    }
+
+    @Override
+    public T decode(final BsonReader reader, final DecoderContext decoderContext) {
+        return decoder.decode(type, reader, decoderContext, datastore.getMapper().createEntityCache());
+    }
+
+    @Override
+    public void encode(final BsonWriter writer, final T value, final EncoderContext encoderContext) {
+        final Mapper mapper = datastore.getMapper();
+        if (encoder.isDirectlyEncodable(mapper.getMappedClass(value))) {
+            encoder.encode(writer, encoder.toDocument(value, new HashMap<Object, DBObject>()));
+        } else {
+            dbObjectCodec.encode(writer, mapper.toDBObject(value), encoderContext);
+        }
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+}
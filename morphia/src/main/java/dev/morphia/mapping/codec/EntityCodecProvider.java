@@ -0,0 +1,36 @@
+package dev.morphia.mapping.codec;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Provides {@link EntityCodec}s for types annotated with {@link Entity} or {@link Embedded}.  Other types are left to the rest of the
+ * registry.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class EntityCodecProvider implements CodecProvider {
+    private final Datastore datastore;
+
+    /**
+     * Creates a provider
+     *
+     * @param datastore the Datastore to use
+     */
+    public EntityCodecProvider(final Datastore datastore) {
+        this.datastore = datastore;
+    }
+
+    @Override
+    public <T> Codec<T> get(final Class<T> clazz, final CodecRegistry registry) {
+        if (clazz.isAnnotationPresent(Entity.class) || clazz.isAnnotationPresent(Embedded.class)) {
+            return new EntityCodec<T>(datastore, clazz, registry);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,323 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DBObjectCodec;
+import com.mongodb.DBRef;
+import dev.morphia.Datastore;
+import dev.morphia.DatastoreImpl;
+import dev.morphia.Key;
+import dev.morphia.annotations.PostLoad;
+import dev.morphia.annotations.PreLoad;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.mapping.cache.EntityCache;
+import org.bson.BSON;
+import org.bson.BSONObject;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDbPointer;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.codecs.BsonTypeClassMap;
+import org.bson.codecs.BsonTypeCodecMap;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.BSONTimestamp;
+import org.bson.types.Binary;
+import org.bson.types.CodeWScope;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Reads entities straight from a {@link BsonReader} without first building a {@link DBObject} for the whole document.  Each top level
+ * value is read as the driver would read it and handed to the field's {@link dev.morphia.mapping.CustomMapper} so conversion rules are
+ * unchanged.  Nested documents and arrays are still read into {@code DBObject}s for the embedded and reference mappers but only for the
+ * field being read.
+ * <p>
+ * Classes with {@code @PreLoad} or {@code @PostLoad} methods or a mapper with {@link dev.morphia.EntityInterceptor}s expect the whole
+ * document and so are read in to a {@code DBObject} and mapped through {@link Mapper#fromDb(Datastore, DBObject, Object, EntityCache)}
+ * instead.  The {@link dev.morphia.ObjectFactory} is only given the discriminator and the {@code _id} of the document when creating the
+ * instance.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class EntityDecoder {
+    private final Datastore datastore;
+    private final DBObjectCodec dbObjectCodec;
+    private final CodecRegistry registry;
+    private final BsonTypeCodecMap bsonTypeCodecMap;
+
+    /**
+     * Creates a decoder
+     *
+     * @param datastore the Datastore to use when fetching references
+     * @param registry  the registry to use when reading values
+     */
+    public EntityDecoder(final Datastore datastore, final CodecRegistry registry) {
+        this.datastore = datastore;
+        this.registry = registry;
+        dbObjectCodec = new DBObjectCodec(registry);
+        bsonTypeCodecMap = new BsonTypeCodecMap(createBsonTypeClassMap(), registry);
+    }
+
+    /**
+     * Reads the next document from the reader in to a new entity
+     *
+     * @param type    the type of the entity.  This can be overridden by the discriminator in the document.
+     * @param reader  the reader positioned at the start of the document
+     * @param context the decoder context
+     * @param cache   the EntityCache to use
+     * @param <T>     the type of the entity
+     * @return the entity
+     */
+    @SuppressWarnings({"unchecked", "deprecation"})
+    public <T> T decode(final Class<T> type, final BsonReader reader, final DecoderContext context, final EntityCache cache) {
+        return datastore.getMapper().fromDBObject(datastore, type, read(type, reader, context, cache), cache);
+    }
+
+    /**
+     * Reads the next document from the reader without reading anything from the database, so that it is safe to call while the driver
+     * is reading the results of a query.  The fields which are plain values are read in to a new entity and the rest are left in the
+     * returned {@link DecodedEntity} to be read by {@link DecodedEntity#complete(Datastore, EntityCache)}.  Documents which can not be
+     * read directly are returned as a {@code DBObject} to be mapped as usual.
+     *
+     * @param type    the type of the entity.  This can be overridden by the discriminator in the document.
+     * @param reader  the reader positioned at the start of the document
+     * @param context the decoder context
+     * @param cache   the EntityCache to use
+     * @return the DecodedEntity, or the document
+     * @see Mapper#fromDBObject(Datastore, Class, DBObject, EntityCache)
+     */
+    public DBObject read(final Class<?> type, final BsonReader reader, final DecoderContext context, final EntityCache cache) {
+        return read(type, reader, context, cache, null);
+    }
+
+    /**
+     * Reads an encoded document as {@link #read(Class, BsonReader, DecoderContext, EntityCache)} does.  With change tracking enabled, the
+     * encoded document is kept as the snapshot of the entity read.
+     *
+     * @param type  the type of the entity.  This can be overridden by the discriminator in the document.
+     * @param bytes the encoded document
+     * @param cache the EntityCache to use
+     * @return the DecodedEntity, or the document
+     * @see dev.morphia.mapping.MapperOptions.Builder#changeTracking(boolean)
+     */
+    public DBObject read(final Class<?> type, final byte[] bytes, final EntityCache cache) {
+        final BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes));
+        try {
+            return read(type, reader, DecoderContext.builder().build(), cache, bytes);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DBObject read(final Class<?> type, final BsonReader reader, final DecoderContext context, final EntityCache cache,
+                          final byte[] bytes) {
+        final Mapper mapper = datastore.getMapper();
+        if (Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
+            return dbObjectCodec.decode(reader, context);
+        }
+
+        reader.readStartDocument();
+        final BsonReaderMark mark = reader.getMark();
+        final DBObject header = readHeader(reader, context, mapper.getOptions().getDiscriminatorField());
+        mark.reset();
+
+        final Object entity = mapper.getOptions().getObjectFactory().createInstance(type, header);
+        final MappedClass mc = mapper.getMappedClass(entity);
+        if (entity instanceof Map || entity instanceof Collection || !isDirectlyDecodable(mapper, mc)) {
+            return readRemaining(reader, context);
+        }
+
+        final Object id = header.get("_id");
+        if (id != null && mc.getIdField() != null && mc.getEntityAnnotation() != null) {
+            final Key key = new Key(entity.getClass(), mapper.getCollectionName(entity.getClass()), id);
+            final Object cachedInstance = cache.getEntity(key);
+            if (cachedInstance != null) {
+                skipRemaining(reader);
+                return new DecodedEntity(cachedInstance);
+            } else {
+                cache.putEntity(key, entity);
+            }
+            if (bytes != null && mapper.getOptions().isChangeTracking() && datastore instanceof DatastoreImpl) {
+                ((DatastoreImpl) datastore).getSnapshots().take(entity, key.getCollection(), bytes);
+            }
+        }
+
+        final DecodedEntity decoded;
+        try {
+            decoded = readFields(mapper, mc, reader, context, entity, cache);
+        } catch (final MappingException e) {
+            throw new MappingException(format("Could not map %s with ID: %s in database '%s'", entity.getClass().getName(), id,
+                datastore.getDB().getName()), e);
+        }
+
+        if (id != null && mc.getIdField() != null) {
+            cache.putEntity(new Key(entity.getClass(), mapper.getCollectionName(entity.getClass()), id), entity);
+        }
+        return decoded;
+    }
+
+    /**
+     * Reads the value fields in to the entity and keeps the stored values of the others for later
+     */
+    private DecodedEntity readFields(final Mapper mapper, final MappedClass mc, final BsonReader reader, final DecoderContext context,
+                                     final Object entity, final EntityCache cache) {
+        final Set<MappedField> read = new HashSet<MappedField>();
+        final List<MappedField> pending = new ArrayList<MappedField>();
+        final DecodedEntity decoded = new DecodedEntity(entity, pending);
+        final DBObject value = new BasicDBObject();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            final MappedField mf = mc.getMappedField(name);
+            if (mf == null) {
+                reader.skipValue();
+                continue;
+            }
+            if (!read.add(mf)) {
+                throw new MappingException(format("Found more than one field from @AlsoLoad %s", mf.getLoadNames()));
+            }
+            if (mapper.isReadAsValue(mf, entity)) {
+                value.put(name, readValue(reader, context));
+                mapper.readMappedField(datastore, mf, entity, cache, value);
+                value.removeField(name);
+            } else {
+                decoded.put(name, readValue(reader, context));
+                pending.add(mf);
+            }
+        }
+        reader.readEndDocument();
+
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            if (!read.contains(mf)) {
+                if (mapper.isReadAsValue(mf, entity)) {
+                    mapper.readMappedField(datastore, mf, entity, cache, value);
+                } else {
+                    pending.add(mf);
+                }
+            }
+        }
+        return decoded;
+    }
+
+    private boolean isDirectlyDecodable(final Mapper mapper, final MappedClass mc) {
+        return !mc.hasLifecycle(PreLoad.class) && !mc.hasLifecycle(PostLoad.class) && mapper.getInterceptors().isEmpty();
+    }
+
+    private DBObject readHeader(final BsonReader reader, final DecoderContext context, final String discriminatorField) {
+        final DBObject header = new BasicDBObject();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String name = reader.readName();
+            if (name.equals("_id") || name.equals(discriminatorField)) {
+                header.put(name, readValue(reader, context));
+            } else {
+                reader.skipValue();
+            }
+        }
+        return header;
+    }
+
+    private DBObject readRemaining(final BsonReader reader, final DecoderContext context) {
+        final DBObject dbObject = new BasicDBObject();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            dbObject.put(reader.readName(), readValue(reader, context));
+        }
+        reader.readEndDocument();
+        return dbObject;
+    }
+
+    private void skipRemaining(final BsonReader reader) {
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            reader.skipName();
+            reader.skipValue();
+        }
+        reader.readEndDocument();
+    }
+
+    /**
+     * Reads a value the same way {@link DBObjectCodec} does so that converters see the same types either way.
+     */
+    @SuppressWarnings("deprecation")
+    private Object readValue(final BsonReader reader, final DecoderContext context) {
+        final Object value;
+        switch (reader.getCurrentBsonType()) {
+            case DOCUMENT:
+                value = verifyForDBRef(dbObjectCodec.decode(reader, context));
+                break;
+            case ARRAY:
+                value = readArray(reader, context);
+                break;
+            case JAVASCRIPT_WITH_SCOPE:
+                value = new CodeWScope(reader.readJavaScriptWithScope(), (BSONObject) dbObjectCodec.decode(reader, context));
+                break;
+            case DB_POINTER:
+                final BsonDbPointer pointer = reader.readDBPointer();
+                value = new DBRef(pointer.getNamespace(), pointer.getId());
+                break;
+            case BINARY:
+                value = readBinary(reader, context);
+                break;
+            case NULL:
+                reader.readNull();
+                value = null;
+                break;
+            default:
+                value = bsonTypeCodecMap.get(reader.getCurrentBsonType()).decode(reader, context);
+        }
+        return BSON.applyDecodingHooks(value);
+    }
+
+    private List readArray(final BsonReader reader, final DecoderContext context) {
+        final BasicDBList list = new BasicDBList();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            list.add(readValue(reader, context));
+        }
+        reader.readEndArray();
+        return list;
+    }
+
+    private Object readBinary(final BsonReader reader, final DecoderContext context) {
+        final byte subType = reader.peekBinarySubType();
+        if (BsonBinarySubType.isUuid(subType) && reader.peekBinarySize() == 16) {
+            return registry.get(UUID.class).decode(reader, context);
+        } else if (subType == BsonBinarySubType.BINARY.getValue() || subType == BsonBinarySubType.OLD_BINARY.getValue()) {
+            return registry.get(byte[].class).decode(reader, context);
+        } else {
+            return registry.get(Binary.class).decode(reader, context);
+        }
+    }
+
+    private Object verifyForDBRef(final DBObject document) {
+        if (document.containsField("$id") && document.containsField("$ref")) {
+            return new DBRef((String) document.get("$db"), (String) document.get("$ref"), document.get("$id"));
+        }
+        return document;
+    }
+
+    private static BsonTypeClassMap createBsonTypeClassMap() {
+        final Map<BsonType, Class<?>> replacements = new HashMap<BsonType, Class<?>>();
+        replacements.put(BsonType.REGULAR_EXPRESSION, Pattern.class);
+        replacements.put(BsonType.SYMBOL, String.class);
+        replacements.put(BsonType.TIMESTAMP, BSONTimestamp.class);
+        return new BsonTypeClassMap(replacements);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import dev.morphia.mapping.cache.EntityCache;
+import org.bson.io.Bits;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link DBDecoderFactory} whose decoders read each document of a query straight in to an entity using an {@link EntityDecoder}.  The
+ * cursor then returns {@link DecodedEntity} holders in place of {@code DBObject}s.  Only value fields are read while the driver decodes
+ * a batch, the other fields are read once the cursor returns the entity.
+ *
+ * @param <T> the type of the entities read
+ * @morphia.internal
+ * @see dev.morphia.mapping.MapperOptions.Builder#directDecoding(boolean)
+ * @since 1.5
+ */
+public class EntityDecoderFactory<T> implements DBDecoderFactory {
+    private final EntityDecoder decoder;
+    private final Class<T> type;
+    private final EntityCache cache;
+
+    /**
+     * Creates a factory for a single query
+     *
+     * @param decoder the decoder to use
+     * @param type    the type of the entities read
+     * @param cache   the EntityCache of the query
+     */
+    public EntityDecoderFactory(final EntityDecoder decoder, final Class<T> type, final EntityCache cache) {
+        this.decoder = decoder;
+        this.type = type;
+        this.cache = cache;
+    }
+
+    @Override
+    public DBDecoder create() {
+        return new EntityDBDecoder();
+    }
+
+    private class EntityDBDecoder extends DefaultDBDecoder {
+        @Override
+        public DBObject decode(final byte[] bytes, final DBCollection collection) {
+            return decoder.read(type, bytes, cache);
+        }
+
+        @Override
+        public DBObject decode(final InputStream in, final DBCollection collection) throws IOException {
+            // read exactly one document, which starts with its length, and leave the rest of the stream to the next call
+            final byte[] size = new byte[4];
+            final int length = Bits.readInt(in, size);
+            if (length < size.length + 1) {
+                throw new IOException(String.format("Invalid document length %d", length));
+            }
+            final byte[] bytes = new byte[length];
+            System.arraycopy(size, 0, bytes, 0, size.length);
+            Bits.readFully(in, bytes, size.length, length - size.length);
+            return decode(bytes, collection);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import java.util.Map;
+
+/**
+ * Stands in for the document of an entity written by an {@link EntityEncoder}.  Only the discriminator, {@code _id} and version values
+ * are held here so that the save logic can read and update them.  The remaining fields are read from the entity as the document is
+ * written.  The written document is kept until one of the held values changes, so that the driver encoding the same write again does
+ * not read the entity again.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class EntityDocument extends BasicDBObject {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object entity;
+    private final transient Map<Object, DBObject> involvedObjects;
+    private transient byte[] encoded;
+
+    /**
+     * Creates a document for the entity
+     *
+     * @param entity          the entity to write
+     * @param involvedObjects the entities written so far and their documents.  Embedded and referenced entities are added as the
+     *                        document is written.
+     */
+    public EntityDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        this.entity = entity;
+        this.involvedObjects = involvedObjects;
+    }
+
+    /**
+     * @return the entity to write
+     */
+    public Object getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the entities written so far and their documents
+     */
+    public Map<Object, DBObject> getInvolvedObjects() {
+        return involvedObjects;
+    }
+
+    @Override
+    public Object put(final String key, final Object val) {
+        encoded = null;
+        return super.put(key, val);
+    }
+
+    @Override
+    public Object removeField(final String key) {
+        encoded = null;
+        return super.removeField(key);
+    }
+
+    /**
+     * @return the document as last written by an {@link EntityEncoder}, or null if it has changed since
+     */
+    byte[] getEncoded() {
+        return encoded;
+    }
+
+    void setEncoded(final byte[] encoded) {
+        this.encoded = encoded;
+    }
+}
@@ -0,0 +1,269 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBEncoder;
+import com.mongodb.DBObject;
+import com.mongodb.DBObjectCodec;
+import com.mongodb.DBRef;
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PostPersist;
+import dev.morphia.annotations.PrePersist;
+import dev.morphia.annotations.PreSave;
+import dev.morphia.annotations.Version;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MappingException;
+import org.bson.BSON;
+import org.bson.BSONObject;
+import org.bson.BsonBinary;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonBinaryWriterSettings;
+import org.bson.BsonWriter;
+import org.bson.BsonWriterSettings;
+import org.bson.FieldNameValidator;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.OutputBuffer;
+import org.bson.types.CodeWScope;
+import org.bson.types.Symbol;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Writes entities straight to a {@link BsonWriter} without first building a {@link DBObject} for the whole document.  Each field is
+ * mapped by its {@link dev.morphia.mapping.CustomMapper} as usual and the result written out as {@link DBObjectCodec} would write it.
+ * Embedded and referenced values are still mapped to {@code DBObject}s, but only for the field being written.
+ * <p>
+ * The save logic works with an {@link EntityDocument} holding the discriminator, {@code _id} and version values.  This encoder, passed to
+ * the driver as the {@link DBEncoder} of the write, writes the rest of the fields straight in to the buffer it is given.  The encoded
+ * document is kept by the {@code EntityDocument} so that encoding the same write again only copies it.  Classes with {@code @PrePersist},
+ * {@code @PreSave} or {@code @PostPersist} methods or a mapper with {@link dev.morphia.EntityInterceptor}s expect the whole document and
+ * so can not be written this way.
+ *
+ * @morphia.internal
+ * @since 1.5
+ */
+public class EntityEncoder implements DBEncoder {
+    private static final EncoderContext COLLECTIBLE = EncoderContext.builder().isEncodingCollectibleDocument(true).build();
+    private static final EncoderContext NESTED = EncoderContext.builder().build();
+
+    private final Datastore datastore;
+    private final CodecRegistry registry;
+    private final DBObjectCodec dbObjectCodec;
+
+    /**
+     * Creates an encoder
+     *
+     * @param datastore the Datastore to use
+     * @param registry  the registry to use when writing values
+     */
+    public EntityEncoder(final Datastore datastore, final CodecRegistry registry) {
+        this.datastore = datastore;
+        this.registry = registry;
+        dbObjectCodec = new DBObjectCodec(registry);
+    }
+
+    /**
+     * @param mc the type to check
+     * @return true if entities of this type can be written by this encoder
+     */
+    public boolean isDirectlyEncodable(final MappedClass mc) {
+        return !mc.hasLifecycle(PrePersist.class) && !mc.hasLifecycle(PreSave.class) && !mc.hasLifecycle(PostPersist.class)
+               && datastore.getMapper().getInterceptors().isEmpty();
+    }
+
+    /**
+     * Creates the document to save for an entity
+     *
+     * @param entity          the entity to save
+     * @param involvedObjects the entities written so far and their documents
+     * @return the document
+     * @see #isDirectlyEncodable(MappedClass)
+     */
+    public EntityDocument toDocument(final Object entity, final Map<Object, DBObject> involvedObjects) {
+        final Mapper mapper = datastore.getMapper();
+        final MappedClass mc = mapper.getMappedClass(entity);
+        final EntityDocument document = new EntityDocument(entity, involvedObjects);
+        if (mc.getEntityAnnotation() == null || !mc.getEntityAnnotation().noClassnameStored()) {
+            document.put(mapper.getOptions().getDiscriminatorField(), entity.getClass().getName());
+        }
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            if (isHeaderField(mf)) {
+                writeMappedField(mapper, document, mf, entity, involvedObjects);
+            }
+        }
+        involvedObjects.put(entity, document);
+        return document;
+    }
+
+    /**
+     * Writes the full document of an entity
+     *
+     * @param writer   the writer to use
+     * @param document the document of the entity
+     */
+    public void encode(final BsonWriter writer, final EntityDocument document) {
+        final Mapper mapper = datastore.getMapper();
+        final Object entity = document.getEntity();
+
+        writer.writeStartDocument();
+        if (document.containsField("_id")) {
+            writer.writeName("_id");
+            writeValue(writer, document.get("_id"));
+        }
+        for (final String name : document.keySet()) {
+            if (!name.equals("_id")) {
+                writer.writeName(name);
+                writeValue(writer, document.get(name));
+            }
+        }
+
+        final BasicDBObject field = new BasicDBObject();
+        for (final MappedField mf : mapper.getMappedClass(entity).getPersistenceFields()) {
+            if (!isHeaderField(mf)) {
+                writeMappedField(mapper, field, mf, entity, document.getInvolvedObjects());
+                for (final Entry<String, Object> entry : field.entrySet()) {
+                    writer.writeName(entry.getKey());
+                    writeValue(writer, entry.getValue());
+                }
+                field.clear();
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public int writeObject(final OutputBuffer outputBuffer, final BSONObject document) {
+        final EntityDocument entityDocument = document instanceof EntityDocument ? (EntityDocument) document : null;
+        if (entityDocument != null && entityDocument.getEncoded() != null) {
+            // the driver encodes a document again when it retries or measures a write, the entity is only read the first time
+            final byte[] encoded = entityDocument.getEncoded();
+            outputBuffer.writeBytes(encoded);
+            return encoded.length;
+        }
+
+        final int start = outputBuffer.getPosition();
+        final BsonBinaryWriter writer = new BsonBinaryWriter(new BsonWriterSettings(), new BsonBinaryWriterSettings(), outputBuffer,
+            StoredFieldNameValidator.INSTANCE);
+        try {
+            if (entityDocument != null) {
+                encode(writer, entityDocument);
+            } else {
+                dbObjectCodec.encode(writer, (DBObject) document, COLLECTIBLE);
+            }
+        } finally {
+            writer.close();
+        }
+        if (entityDocument != null) {
+            final byte[] written = outputBuffer.toByteArray();
+            entityDocument.setEncoded(start == 0 ? written : Arrays.copyOfRange(written, start, written.length));
+        }
+        return outputBuffer.getPosition() - start;
+    }
+
+    private boolean isHeaderField(final MappedField mf) {
+        return mf.hasAnnotation(Id.class) || mf.hasAnnotation(Version.class);
+    }
+
+    private void writeMappedField(final Mapper mapper, final DBObject dbObject, final MappedField mf, final Object entity,
+                                  final Map<Object, DBObject> involvedObjects) {
+        try {
+            mapper.writeMappedField(dbObject, mf, entity, involvedObjects);
+        } catch (Exception e) {
+            throw new MappingException("Error mapping field:" + mf.getFullName(), e);
+        }
+    }
+
+    /**
+     * Writes a value the same way {@link DBObjectCodec} does so that the stored document is the same either way.
+     */
+    @SuppressWarnings({"deprecation", "unchecked"})
+    private void writeValue(final BsonWriter writer, final Object initialValue) {
+        final Object value = BSON.applyEncodingHooks(initialValue);
+        if (value == null) {
+            writer.writeNull();
+        } else if (value instanceof DBRef) {
+            writeDBRef(writer, (DBRef) value);
+        } else if (value instanceof Map) {
+            writer.writeStartDocument();
+            for (final Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                writer.writeName(entry.getKey());
+                writeValue(writer, entry.getValue());
+            }
+            writer.writeEndDocument();
+        } else if (value instanceof Iterable) {
+            writer.writeStartArray();
+            for (final Object item : (Iterable) value) {
+                writeValue(writer, item);
+            }
+            writer.writeEndArray();
+        } else if (value instanceof BSONObject) {
+            writeBSONObject(writer, (BSONObject) value);
+        } else if (value instanceof CodeWScope) {
+            writer.writeJavaScriptWithScope(((CodeWScope) value).getCode());
+            writeBSONObject(writer, ((CodeWScope) value).getScope());
+        } else if (value instanceof byte[]) {
+            writer.writeBinaryData(new BsonBinary((byte[]) value));
+        } else if (value.getClass().isArray()) {
+            writer.writeStartArray();
+            for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                writeValue(writer, Array.get(value, i));
+            }
+            writer.writeEndArray();
+        } else if (value instanceof Symbol) {
+            writer.writeSymbol(((Symbol) value).getSymbol());
+        } else {
+            final Codec codec = registry.get(value.getClass());
+            codec.encode(writer, value, NESTED);
+        }
+    }
+
+    private void writeBSONObject(final BsonWriter writer, final BSONObject value) {
+        writer.writeStartDocument();
+        for (final String name : value.keySet()) {
+            writer.writeName(name);
+            writeValue(writer, value.get(name));
+        }
+        writer.writeEndDocument();
+    }
+
+    private void writeDBRef(final BsonWriter writer, final DBRef ref) {
+        writer.writeStartDocument();
+        writer.writeString("$ref", ref.getCollectionName());
+        writer.writeName("$id");
+        writeValue(writer, ref.getId());
+        if (ref.getDatabaseName() != null) {
+            writer.writeString("$db", ref.getDatabaseName());
+        }
+        writer.writeEndDocument();
+    }
+
+    /**
+     * The driver does not check the field names of documents written by a {@link DBEncoder} so the same rules it applies to stored
+     * documents are applied here.
+     */
+    private static final class StoredFieldNameValidator implements FieldNameValidator {
+        private static final StoredFieldNameValidator INSTANCE = new StoredFieldNameValidator();
+        private static final List<String> REFERENCE_FIELDS = Arrays.asList("$db", "$ref", "$id");
+
+        @Override
+        public boolean validate(final String fieldName) {
+            if (fieldName == null) {
+                throw new IllegalArgumentException("Field name can not be null");
+            }
+            return !fieldName.contains(".") && (!fieldName.startsWith("$") || REFERENCE_FIELDS.contains(fieldName));
+        }
+
+        @Override
+        public FieldNameValidator getValidatorForField(final String fieldName) {
+            return this;
+        }
+    }
+}
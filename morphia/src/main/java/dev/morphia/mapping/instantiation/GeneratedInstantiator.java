@@ -0,0 +1,76 @@
+package dev.morphia.mapping.instantiation;
+
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastConstructor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+import static java.lang.String.format;
+
+/**
+ * An {@link Instantiator} which calls the constructor through a class generated by cglib rather than through reflection.  The generated
+ * class invokes the constructor directly so only public constructors of public classes can be used this way.  cglib is an optional
+ * dependency and this class must only be used once {@link InstantiationStrategy#GENERATED} has found it.
+ *
+ * @param <T> the type created
+ * @morphia.internal
+ * @since 1.5
+ */
+public class GeneratedInstantiator<T> implements Instantiator<T> {
+    private final FastConstructor constructor;
+
+    /**
+     * Creates an instantiator for the given constructor
+     *
+     * @param constructor the no-arg constructor to call
+     * @see #isSupported(Constructor)
+     */
+    public GeneratedInstantiator(final Constructor<T> constructor) {
+        if (!isSupported(constructor)) {
+            throw new IllegalArgumentException(format("Constructor %s can not be called from a generated class", constructor));
+        }
+        final Class<T> type = constructor.getDeclaringClass();
+        this.constructor = FastClass.create(type.getClassLoader(), type).getConstructor(constructor);
+    }
+
+    /**
+     * @param constructor the constructor to check
+     * @return true if a generated class can call the constructor
+     */
+    public static boolean isSupported(final Constructor<?> constructor) {
+        if (!Modifier.isPublic(constructor.getModifiers())) {
+            return false;
+        }
+        Class<?> type = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        while (type != null) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+            type = type.getEnclosingClass();
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws Exception {
+        try {
+            return (T) constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedInstantiator{" + constructor.getJavaConstructor() + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package dev.morphia.mapping.instantiation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * This enum is used to determine how {@link dev.morphia.mapping.DefaultCreator} calls the no-arg constructors of the classes it creates.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#instantiationStrategy(InstantiationStrategy)
+ * @since 1.5
+ */
+public enum InstantiationStrategy {
+    /**
+     * Uses {@link Constructor#newInstance(Object...)}.  This is the default.
+     */
+    REFLECTION {
+        @Override
+        public <T> Instantiator<T> createInstantiator(final Constructor<T> constructor) {
+            return new ReflectiveInstantiator<T>(constructor);
+        }
+    },
+    /**
+     * Calls constructors through a factory class generated by cglib, avoiding the per-call checks of reflection.  Constructors which can
+     * not be called this way, or a classpath without cglib, fall back to {@link #REFLECTION}.
+     */
+    GENERATED {
+        @Override
+        public <T> Instantiator<T> createInstantiator(final Constructor<T> constructor) {
+            if (isGeneratorAvailable() && GeneratedInstantiator.isSupported(constructor)) {
+                return new GeneratedInstantiator<T>(constructor);
+            }
+            return REFLECTION.createInstantiator(constructor);
+        }
+    };
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstantiationStrategy.class);
+    private static Boolean generatorAvailable;
+
+    /**
+     * Creates the instantiator for a constructor.  This is called once per class by {@link dev.morphia.mapping.DefaultCreator}.
+     *
+     * @param constructor the no-arg constructor to call
+     * @param <T>         the type created
+     * @return the instantiator
+     */
+    public abstract <T> Instantiator<T> createInstantiator(Constructor<T> constructor);
+
+    private static boolean isGeneratorAvailable() {
+        if (generatorAvailable == null) {
+            try {
+                generatorAvailable = Class.forName("net.sf.cglib.reflect.FastClass") != null;
+            } catch (ClassNotFoundException e) {
+                generatorAvailable = false;
+                LOG.warn("Generated instantiators need cglib on the classpath.  Reflection will be used instead.");
+            }
+        }
+        return generatorAvailable;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.morphia.mapping.instantiation;
+
+/**
+ * Creates new instances of a single class through its no-arg constructor.  An instantiator is built once per class and reused for every
+ * instance of that class Morphia creates.
+ *
+ * @param <T> the type created
+ * @morphia.internal
+ * @see InstantiationStrategy
+ * @since 1.5
+ */
+public interface Instantiator<T> {
+    /**
+     * @return the new instance
+     * @throws Exception if the constructor fails
+     */
+    T newInstance() throws Exception;
+}
@@ -0,0 +1,35 @@
+package dev.morphia.mapping.instantiation;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * An {@link Instantiator} backed by {@link Constructor#newInstance(Object...)}.  The constructor is made accessible once when the
+ * instantiator is created rather than on every call.  This works with any constructor on any JVM.
+ *
+ * @param <T> the type created
+ * @morphia.internal
+ * @since 1.5
+ */
+public class ReflectiveInstantiator<T> implements Instantiator<T> {
+    private final Constructor<T> constructor;
+
+    /**
+     * Creates an instantiator for the given constructor
+     *
+     * @param constructor the no-arg constructor to call
+     */
+    public ReflectiveInstantiator(final Constructor<T> constructor) {
+        constructor.setAccessible(true);
+        this.constructor = constructor;
+    }
+
+    @Override
+    public T newInstance() throws Exception {
+        return constructor.newInstance();
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectiveInstantiator{" + constructor + "}";
+    }
+}
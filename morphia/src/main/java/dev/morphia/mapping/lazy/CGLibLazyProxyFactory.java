@@ -11,6 +11,7 @@ import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
 import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
 import dev.morphia.mapping.lazy.proxy.CollectionObjectReference;
 import dev.morphia.mapping.lazy.proxy.EntityObjectReference;
+import dev.morphia.mapping.lazy.proxy.FetchGroup;
 import dev.morphia.mapping.lazy.proxy.MapObjectReference;
 
 import java.io.Serializable;
@@ -24,7 +25,7 @@ import java.util.Map;
  * @author uwe schaefer
  */
 @SuppressWarnings("unchecked")
-public class CGLibLazyProxyFactory implements LazyProxyFactory {
+public class CGLibLazyProxyFactory implements FetchGroupAwareProxyFactory {
     private final CglibProxyFactory factory = new CglibProxyFactory();
 
     @Override
@@ -60,8 +61,17 @@ public class CGLibLazyProxyFactory implements LazyProxyFactory {
 
     @Override
     public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing) {
+        return createProxy(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing,
+                             final FetchGroup fetchGroup) {
 
-        final EntityObjectReference objectReference = new EntityObjectReference(datastore, targetClass, key, ignoreMissing);
+        final EntityObjectReference objectReference = new EntityObjectReference(datastore, targetClass, key, ignoreMissing, fetchGroup);
+        if (fetchGroup != null) {
+            fetchGroup.add(objectReference);
+        }
 
         final T backend = (T) new NonFinalizingHotSwappingInvoker(new Class[]{targetClass, Serializable.class}, factory, objectReference,
                                                                   DelegationMode.SIGNATURE).proxy();
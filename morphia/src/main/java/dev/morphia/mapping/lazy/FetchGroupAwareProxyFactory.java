@@ -0,0 +1,29 @@
+package dev.morphia.mapping.lazy;
+
+
+import dev.morphia.Datastore;
+import dev.morphia.Key;
+import dev.morphia.mapping.lazy.proxy.FetchGroup;
+
+
+/**
+ * A {@link LazyProxyFactory} whose entity proxies can be fetched in groups.  References are only fetched in groups when the configured
+ * proxy factory implements this interface.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#fetchGroupSize(int)
+ * @since 1.5
+ */
+public interface FetchGroupAwareProxyFactory extends LazyProxyFactory {
+    /**
+     * Creates a proxy for a Class which is fetched along with the other unfetched proxies in its group.
+     *
+     * @param <T>               the type of the entity
+     * @param datastore         the Datastore to use when fetching this reference
+     * @param targetClass       the referenced object's Class
+     * @param key               the Key of the reference
+     * @param ignoreMissing     ignore references that don't exist in the database
+     * @param fetchGroup        the group the proxy joins or null to fetch the proxy on its own
+     * @return the proxy
+     */
+    <T> T createProxy(Datastore datastore, Class<T> targetClass, Key<T> key, boolean ignoreMissing, FetchGroup fetchGroup);
+}
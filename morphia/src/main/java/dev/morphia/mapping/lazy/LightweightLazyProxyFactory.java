@@ -0,0 +1,198 @@
+package dev.morphia.mapping.lazy;
+
+
+import dev.morphia.Datastore;
+import dev.morphia.Key;
+import dev.morphia.annotations.IdGetter;
+import dev.morphia.mapping.lazy.proxy.AbstractReference;
+import dev.morphia.mapping.lazy.proxy.CollectionObjectReference;
+import dev.morphia.mapping.lazy.proxy.EntityObjectReference;
+import dev.morphia.mapping.lazy.proxy.FetchGroup;
+import dev.morphia.mapping.lazy.proxy.LazyReferenceFetchingException;
+import dev.morphia.mapping.lazy.proxy.MapObjectReference;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReference;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
+import dev.morphia.mapping.lazy.proxy.ProxiedReference;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A LazyProxyFactory which generates one proxy class per proxied type and caches it.  Unlike {@link CGLibLazyProxyFactory}, which builds a
+ * hot swapping backend and a dispatching front proxy for every reference, each proxy is a single instance of the cached class whose only
+ * callback is the reference itself.  The reference holds the key until the proxy is first used and the fetched instance from then on, so
+ * every later call goes straight to the real instance.
+ * <p>
+ * Types which cglib can not subclass, such as those without a visible no-args constructor, are proxied by {@link CGLibLazyProxyFactory}
+ * instead.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#proxyFactory(LazyProxyFactory)
+ * @since 1.5
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class LightweightLazyProxyFactory implements FetchGroupAwareProxyFactory {
+    private static final MethodInterceptor UNBOUND = new MethodInterceptor() {
+        @Override
+        public Object intercept(final Object obj, final Method method, final Object[] args, final MethodProxy proxy) {
+            throw new IllegalStateException("The proxy prototype of " + obj.getClass().getSuperclass().getName() + " can not be used");
+        }
+    };
+
+    private final ConcurrentMap<Class, Prototype> entityPrototypes = new ConcurrentHashMap<Class, Prototype>();
+    private final ConcurrentMap<Class, Prototype> listPrototypes = new ConcurrentHashMap<Class, Prototype>();
+    private final ConcurrentMap<Class, Prototype> mapPrototypes = new ConcurrentHashMap<Class, Prototype>();
+    private final CGLibLazyProxyFactory fallback = new CGLibLazyProxyFactory();
+
+    @Override
+    public <T extends Collection> T createListProxy(final Datastore datastore, final T listToProxy, final Class referenceObjClass,
+                                                    final boolean ignoreMissing) {
+        final Factory prototype = getPrototype(listPrototypes, listToProxy.getClass(), ProxiedEntityReferenceList.class);
+        if (prototype == null) {
+            return fallback.createListProxy(datastore, listToProxy, referenceObjClass, ignoreMissing);
+        }
+        return (T) prototype.newInstance(new CollectionInterceptor(listToProxy, referenceObjClass, ignoreMissing, datastore));
+    }
+
+    @Override
+    public <T extends Map> T createMapProxy(final Datastore datastore, final T mapToProxy, final Class referenceObjClass,
+                                            final boolean ignoreMissing) {
+        final Factory prototype = getPrototype(mapPrototypes, mapToProxy.getClass(), ProxiedEntityReferenceMap.class);
+        if (prototype == null) {
+            return fallback.createMapProxy(datastore, mapToProxy, referenceObjClass, ignoreMissing);
+        }
+        return (T) prototype.newInstance(new MapInterceptor(datastore, mapToProxy, referenceObjClass, ignoreMissing));
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing) {
+        return createProxy(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    @Override
+    public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing,
+                             final FetchGroup fetchGroup) {
+        final Factory prototype = getPrototype(entityPrototypes, targetClass, ProxiedEntityReference.class);
+        if (prototype == null) {
+            return fallback.createProxy(datastore, targetClass, key, ignoreMissing, fetchGroup);
+        }
+        final EntityInterceptor reference = new EntityInterceptor(datastore, targetClass, key, ignoreMissing, fetchGroup);
+        if (fetchGroup != null) {
+            fetchGroup.add(reference);
+        }
+        return (T) prototype.newInstance(reference);
+    }
+
+    private static Factory getPrototype(final ConcurrentMap<Class, Prototype> prototypes, final Class type, final Class marker) {
+        Prototype prototype = prototypes.get(type);
+        if (prototype == null) {
+            prototype = new Prototype(createPrototype(type, marker));
+            final Prototype existing = prototypes.putIfAbsent(type, prototype);
+            if (existing != null) {
+                prototype = existing;
+            }
+        }
+        return prototype.factory;
+    }
+
+    private static Factory createPrototype(final Class type, final Class marker) {
+        final Enhancer enhancer = new Enhancer();
+        if (type.isInterface()) {
+            enhancer.setInterfaces(new Class[]{type, marker, Serializable.class});
+        } else {
+            enhancer.setSuperclass(type);
+            enhancer.setInterfaces(new Class[]{marker, Serializable.class});
+        }
+        enhancer.setCallback(UNBOUND);
+        try {
+            return (Factory) enhancer.create();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends a call on a proxy to the reference for the {@link ProxiedReference} methods and to the referenced instance for all others.
+     */
+    private static Object invoke(final AbstractReference reference, final Method method, final Object[] args, final MethodProxy proxy)
+        throws Throwable {
+        if (ProxiedReference.class.isAssignableFrom(method.getDeclaringClass())) {
+            try {
+                return method.invoke(reference, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        if (args.length == 0 && "finalize".equals(method.getName())) {
+            return null;
+        }
+        if (reference instanceof EntityObjectReference && method.getAnnotation(IdGetter.class) != null) {
+            return ((EntityObjectReference) reference).__getKey().getId();
+        }
+        final Object target = reference.get();
+        if (target == null) {
+            throw new LazyReferenceFetchingException("Cannot dispatch method " + method.getName());
+        }
+        return proxy.invoke(target, args);
+    }
+
+    private static final class Prototype {
+        private final Factory factory;
+
+        private Prototype(final Factory factory) {
+            this.factory = factory;
+        }
+    }
+
+    private static final class EntityInterceptor extends EntityObjectReference implements MethodInterceptor {
+        private static final long serialVersionUID = 1L;
+
+        private EntityInterceptor(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing,
+                                  final FetchGroup fetchGroup) {
+            super(datastore, targetClass, key, ignoreMissing, fetchGroup);
+        }
+
+        @Override
+        public Object intercept(final Object obj, final Method method, final Object[] args, final MethodProxy proxy) throws Throwable {
+            return invoke(this, method, args, proxy);
+        }
+    }
+
+    private static final class CollectionInterceptor extends CollectionObjectReference implements MethodInterceptor {
+        private static final long serialVersionUID = 1L;
+
+        private CollectionInterceptor(final Collection type, final Class referenceObjClass, final boolean ignoreMissing,
+                                      final Datastore datastore) {
+            super(type, referenceObjClass, ignoreMissing, datastore);
+        }
+
+        @Override
+        public Object intercept(final Object obj, final Method method, final Object[] args, final MethodProxy proxy) throws Throwable {
+            return invoke(this, method, args, proxy);
+        }
+    }
+
+    private static final class MapInterceptor extends MapObjectReference implements MethodInterceptor {
+        private static final long serialVersionUID = 1L;
+
+        private MapInterceptor(final Datastore datastore, final Map mapToProxy, final Class referenceObjClass,
+                               final boolean ignoreMissing) {
+            super(datastore, mapToProxy, referenceObjClass, ignoreMissing);
+        }
+
+        @Override
+        public Object intercept(final Object obj, final Method method, final Object[] args, final MethodProxy proxy) throws Throwable {
+            return invoke(this, method, args, proxy);
+        }
+    }
+}
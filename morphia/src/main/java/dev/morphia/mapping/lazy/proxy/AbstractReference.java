@@ -23,7 +23,7 @@ public abstract class AbstractReference implements Serializable, ObjectReference
     protected final Class referenceObjClass;
     protected Object object;
     //CHECKSTYLE:ON
-    private boolean isFetched;
+    private volatile boolean isFetched;
 
     protected AbstractReference(final Datastore datastore, final Class referenceObjClass, final boolean ignoreMissing) {
         this.datastore = datastore;
@@ -53,14 +53,19 @@ public abstract class AbstractReference implements Serializable, ObjectReference
     }
 
     @Override
-    public final synchronized Object get() {
-        if (isFetched) {
-            return object;
+    public final Object get() {
+        if (!isFetched) {
+            prefetch();
         }
+        synchronized (this) {
+            if (isFetched) {
+                return object;
+            }
 
-        object = fetch();
-        isFetched = true;
-        return object;
+            object = fetch();
+            isFetched = true;
+            return object;
+        }
     }
 
     @Override
@@ -71,6 +76,24 @@ public abstract class AbstractReference implements Serializable, ObjectReference
     protected void beforeWriteObject() {
     }
 
+    /**
+     * Called before this reference is fetched, without holding the lock on this reference, so that it may be fetched along with others.
+     */
+    protected void prefetch() {
+    }
+
+    /**
+     * Sets the object this reference was fetched as by someone else
+     *
+     * @param fetched the fetched object
+     */
+    final synchronized void setFetched(final Object fetched) {
+        if (!isFetched) {
+            object = fetched;
+            isFetched = true;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected final Object fetch(final Key<?> id) {
         return getDatastore().getByKey(referenceObjClass, id);
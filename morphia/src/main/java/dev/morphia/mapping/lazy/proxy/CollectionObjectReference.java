@@ -1,6 +1,7 @@
 package dev.morphia.mapping.lazy.proxy;
 
 import dev.morphia.Datastore;
+import dev.morphia.GetByKeysOptions;
 import dev.morphia.Key;
 
 import java.util.ArrayList;
@@ -68,24 +69,13 @@ public class CollectionObjectReference<T> extends AbstractReference implements P
     //CHECKSTYLE:ON
 
     @Override
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     protected synchronized Object fetch() {
         final Collection<T> c = (Collection<T>) object;
         c.clear();
 
         final int numberOfEntitiesExpected = listOfKeys.size();
-        // does not retain order:
-        // List<T> retrievedEntities = p.get().getByKeys(referenceObjClass,
-        // (List) __getKeysAsList());
-
-        // so we do it the lousy way: FIXME
-        final List<T> retrievedEntities = new ArrayList<T>(listOfKeys.size());
-        for (final Key<?> k : listOfKeys) {
-            T entity = (T) getDatastore().getByKey(referenceObjClass, k);
-            if (entity != null) {
-                retrievedEntities.add(entity);
-            }
-        }
+        final List<T> retrievedEntities = getDatastore().getByKeys(referenceObjClass, (List) listOfKeys, new GetByKeysOptions());
 
         if (!ignoreMissing && (numberOfEntitiesExpected != retrievedEntities.size())) {
             throw new LazyReferenceFetchingException(format("During the lifetime of a proxy of type '%s', some referenced Entities"
@@ -13,6 +13,7 @@ import static java.lang.String.format;
 public class EntityObjectReference extends AbstractReference implements ProxiedEntityReference {
     private static final long serialVersionUID = 1L;
     private final Key key;
+    private final transient FetchGroup fetchGroup;
 
     /**
      * Creates an object reference
@@ -23,8 +24,24 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
      * @param ignoreMissing ignore references that don't exist in the database
      */
     public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing) {
+        this(datastore, targetClass, key, ignoreMissing, null);
+    }
+
+    /**
+     * Creates an object reference fetched along with the rest of a group
+     *
+     * @param datastore     the Datastore to use when fetching this reference
+     * @param targetClass   the Class of the referenced item
+     * @param key           the Key value
+     * @param ignoreMissing ignore references that don't exist in the database
+     * @param fetchGroup    the group to join or null to fetch this reference on its own
+     * @since 1.5
+     */
+    public EntityObjectReference(final Datastore datastore, final Class targetClass, final Key key, final boolean ignoreMissing,
+                                 final FetchGroup fetchGroup) {
         super(datastore, targetClass, ignoreMissing);
         this.key = key;
+        this.fetchGroup = fetchGroup;
     }
 
     //CHECKSTYLE:OFF
@@ -39,6 +56,13 @@ public class EntityObjectReference extends AbstractReference implements ProxiedE
         object = null;
     }
 
+    @Override
+    protected void prefetch() {
+        if (fetchGroup != null) {
+            fetchGroup.fetch();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected Object fetch() {
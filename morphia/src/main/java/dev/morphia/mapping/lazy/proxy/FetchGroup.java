@@ -0,0 +1,77 @@
+package dev.morphia.mapping.lazy.proxy;
+
+
+import dev.morphia.Datastore;
+import dev.morphia.GetByKeysOptions;
+import dev.morphia.Key;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The lazy entity references created while decoding the same query results.  The first reference to be fetched fetches every unfetched
+ * reference in the group, with one {@code _id in} query per collection, instead of each reference fetching its own entity.
+ *
+ * @see dev.morphia.mapping.MapperOptions#getFetchGroupSize()
+ * @since 1.5
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class FetchGroup {
+    private final List<EntityObjectReference> members = new ArrayList<EntityObjectReference>();
+    private int added;
+
+    /**
+     * Adds a reference to this group
+     *
+     * @param reference the reference to add
+     */
+    public synchronized void add(final EntityObjectReference reference) {
+        members.add(reference);
+        added++;
+    }
+
+    /**
+     * @return the number of references added to this group so far, fetched or not
+     */
+    public synchronized int size() {
+        return added;
+    }
+
+    /**
+     * Fetches the entities of the unfetched references in this group.  References whose entity is missing, and which don't ignore
+     * missing entities, are left unfetched so they report the missing entity themselves when used.
+     */
+    synchronized void fetch() {
+        final Map<Class, List<EntityObjectReference>> byType = new LinkedHashMap<Class, List<EntityObjectReference>>();
+        for (final EntityObjectReference member : members) {
+            if (!member.__isFetched()) {
+                List<EntityObjectReference> references = byType.get(member.__getReferenceObjClass());
+                if (references == null) {
+                    references = new ArrayList<EntityObjectReference>();
+                    byType.put(member.__getReferenceObjClass(), references);
+                }
+                references.add(member);
+            }
+        }
+        members.clear();
+
+        for (final Map.Entry<Class, List<EntityObjectReference>> entry : byType.entrySet()) {
+            final List<EntityObjectReference> references = entry.getValue();
+            final List<Key> keys = new ArrayList<Key>(references.size());
+            for (final EntityObjectReference reference : references) {
+                keys.add(reference.__getKey());
+            }
+            final Datastore datastore = references.get(0).getDatastore();
+            final List<Object> entities = datastore.getByKeys(entry.getKey(), (List) keys, new GetByKeysOptions().includeMissing(true));
+            for (int i = 0; i < references.size(); i++) {
+                final EntityObjectReference reference = references.get(i);
+                if (entities.get(i) != null || reference.ignoreMissing) {
+                    reference.setFetched(entities.get(i));
+                }
+            }
+        }
+    }
+}
@@ -2,10 +2,13 @@ package dev.morphia.mapping.lazy.proxy;
 
 
 import dev.morphia.Datastore;
+import dev.morphia.GetByKeysOptions;
 import dev.morphia.Key;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -54,17 +57,15 @@ public class MapObjectReference extends AbstractReference implements ProxiedEnti
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     protected Object fetch() {
         final Map m = (Map) object;
         m.clear();
-        // TODO us: change to getting them all at once and yell according to
-        // ignoreMissing in order to a) increase performance and b) resolve
-        // equals keys to the same instance
-        // that should really be done in datastore.
-        for (final Map.Entry<?, Key<?>> e : keyMap.entrySet()) {
-            final Key<?> entityKey = e.getValue();
-            m.put(e.getKey(), fetch(entityKey));
+        final List<Object> entities = getDatastore().getByKeys(referenceObjClass, (List) new ArrayList<Key<?>>(keyMap.values()),
+            new GetByKeysOptions().includeMissing(true));
+        int i = 0;
+        for (final Object key : keyMap.keySet()) {
+            m.put(key, entities.get(i++));
         }
         return m;
     }
@@ -68,6 +68,10 @@ public class CriteriaContainerImpl extends AbstractCriteria implements CriteriaC
         children.remove(criteria);
     }
 
+    boolean isEmpty() {
+        return children.isEmpty();
+    }
+
     @Override
     public DBObject toDBObject() {
         if (joinMethod == AND) {
@@ -3,13 +3,9 @@ package dev.morphia.query;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import dev.morphia.internal.PathTarget;
 import dev.morphia.mapping.MappedClass;
 import dev.morphia.mapping.MappedField;
 import dev.morphia.mapping.Mapper;
-import dev.morphia.utils.ReflectionUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -19,8 +15,6 @@ import java.util.Map;
  * Defines a Criteria against a field
  */
 class FieldCriteria extends AbstractCriteria {
-    private static final Logger LOG = LoggerFactory.getLogger(FieldCriteria.class);
-
     private final String field;
     private final FilterOperator operator;
     private final Object value;
@@ -31,30 +25,31 @@ class FieldCriteria extends AbstractCriteria {
         this(query, field, op, value, false);
     }
 
-    @SuppressWarnings("deprecation")
     FieldCriteria(final QueryImpl<?> query, final String fieldName, final FilterOperator op, final Object value, final boolean not) {
-        //validate might modify prop string to translate java field name to db field name
+        // the path is resolved and translated to the stored names once per entity type
+        this(query, query.getDatastore().getMapper().getFilterTemplates().forField(query.getDatastore().getMapper(),
+            query.getEntityClass(), fieldName, query.isValidatingNames()), op, value, not);
+    }
+
+    FieldCriteria(final QueryImpl<?> query, final FilterTemplate template, final FilterOperator op, final Object value,
+                  final boolean not) {
         this.query = query;
-        final Mapper mapper = query.getDatastore().getMapper();
-        final PathTarget pathTarget = new PathTarget(mapper, mapper.getMappedClass(query.getEntityClass()), fieldName,
-            query.isValidatingNames());
-        final MappedField mf = pathTarget.getTarget();
-
-        MappedClass mc = null;
-        try {
-            if (value != null && !ReflectionUtils.isPropertyType(value.getClass())
-                && !ReflectionUtils.implementsInterface(value.getClass(), Iterable.class)) {
-                if (mf != null && !mf.isTypeMongoCompatible()) {
-                    mc = mapper.getMappedClass((mf.isSingleValue()) ? mf.getType() : mf.getSubClass());
-                } else {
-                    mc = mapper.getMappedClass(value);
-                }
-            }
-        } catch (Exception e) {
-            // Ignore these. It is likely they related to mapping validation that is unimportant for queries (the query will
-            // fail/return-empty anyway)
-            LOG.debug("Error during mapping of filter criteria: ", e);
-        }
+        this.field = template.getPath();
+        this.operator = op;
+        // parameters of prepared queries are encoded when they are bound
+        this.value = value instanceof PreparedQuery.Parameter
+                     ? new PreparedQuery.Placeholder(((PreparedQuery.Parameter) value).getName(), template, op)
+                     : mapValue(query.getDatastore().getMapper(), template, op, value);
+        this.not = not;
+    }
+
+    /**
+     * Encodes a value to compare against the field of a template
+     */
+    @SuppressWarnings("deprecation")
+    static Object mapValue(final Mapper mapper, final FilterTemplate template, final FilterOperator op, final Object value) {
+        final MappedField mf = template.getTarget();
+        final MappedClass mc = template.getValueClass(mapper, value);
 
         Object mappedValue = mapper.toMongoObject(mf, mc, value);
 
@@ -71,10 +66,7 @@ class FieldCriteria extends AbstractCriteria {
             mappedValue = Collections.emptyList();
         }
 
-        this.field = pathTarget.translatedPath();
-        this.operator = op;
-        this.value = mappedValue;
-        this.not = not;
+        return mappedValue;
     }
 
     protected QueryImpl<?> getQuery() {
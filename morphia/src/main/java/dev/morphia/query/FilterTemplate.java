@@ -0,0 +1,117 @@
+package dev.morphia.query;
+
+
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.lazy.proxy.ProxyHelper;
+import dev.morphia.utils.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled form of a filter condition or field against an entity type.  The path is resolved and translated once, and the mapped
+ * class used to encode values is looked up once per value class, so that binding a value only needs to encode it.
+ *
+ * @see FilterTemplateCache
+ */
+final class FilterTemplate {
+    private static final Logger LOG = LoggerFactory.getLogger(FilterTemplate.class);
+    private static final Object NONE = new Object();
+
+    private final String path;
+    private final FilterOperator operator;
+    private final MappedField target;
+    private final ConcurrentMap<Class<?>, Object> valueClasses = new ConcurrentHashMap<Class<?>, Object>();
+
+    private FilterTemplate(final String path, final FilterOperator operator, final MappedField target) {
+        this.path = path;
+        this.operator = operator;
+        this.target = target;
+    }
+
+    /**
+     * Compiles a filter condition such as {@code "age >="}
+     *
+     * @throws IllegalArgumentException if the condition is not a legal filter condition
+     */
+    static FilterTemplate compileCondition(final Mapper mapper, final MappedClass mc, final String condition,
+                                           final boolean validateNames) {
+        final String[] parts = condition.trim().split(" ");
+        if (parts.length < 1 || parts.length > 6) {
+            throw new IllegalArgumentException("'" + condition + "' is not a legal filter condition");
+        }
+
+        final FilterOperator op = (parts.length == 2) ? FilterOperator.fromString(parts[1]) : FilterOperator.EQUAL;
+        return compileField(mapper, mc, parts[0].trim(), op, validateNames);
+    }
+
+    /**
+     * Compiles a field path
+     */
+    static FilterTemplate compileField(final Mapper mapper, final MappedClass mc, final String field, final FilterOperator op,
+                                       final boolean validateNames) {
+        final PathTarget pathTarget = new PathTarget(mapper, mc, field, validateNames);
+        final MappedField target = pathTarget.getTarget();
+        return new FilterTemplate(pathTarget.translatedPath(), op, target);
+    }
+
+    /**
+     * @return the translated path to store
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the operator of the condition, or {@link FilterOperator#EQUAL} for a field
+     */
+    FilterOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return the field at the end of the path, which may be null if name validation is disabled
+     */
+    MappedField getTarget() {
+        return target;
+    }
+
+    /**
+     * Finds the mapped class used to encode a value, if any
+     */
+    MappedClass getValueClass(final Mapper mapper, final Object value) {
+        if (value == null || ProxyHelper.isProxy(value)) {
+            return findValueClass(mapper, value);
+        }
+        Object mc = valueClasses.get(value.getClass());
+        if (mc == null) {
+            mc = findValueClass(mapper, value);
+            valueClasses.putIfAbsent(value.getClass(), mc == null ? NONE : mc);
+        }
+        return mc == NONE ? null : (MappedClass) mc;
+    }
+
+    private MappedClass findValueClass(final Mapper mapper, final Object value) {
+        MappedClass mc = null;
+        try {
+            if (value != null && !ReflectionUtils.isPropertyType(value.getClass())
+                && !ReflectionUtils.implementsInterface(value.getClass(), Iterable.class)) {
+                if (target != null && !target.isTypeMongoCompatible()) {
+                    mc = mapper.getMappedClass((target.isSingleValue()) ? target.getType() : target.getSubClass());
+                } else {
+                    mc = mapper.getMappedClass(value);
+                }
+            }
+        } catch (Exception e) {
+            // Ignore these. It is likely they related to mapping validation that is unimportant for queries (the query will
+            // fail/return-empty anyway)
+            LOG.debug("Error during mapping of filter criteria: ", e);
+        }
+        return mc;
+    }
+}
@@ -0,0 +1,120 @@
+package dev.morphia.query;
+
+
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.Mapper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the compiled filter conditions and fields of each entity type so that the same query shapes do not parse and resolve their
+ * paths on every use.  The cache is cleared whenever a class is mapped since new subtypes can change how paths resolve.  Once it holds
+ * {@link #MAX_TEMPLATES} templates, further conditions are compiled on each use, as are those of queries without an entity type.
+ *
+ * @morphia.internal
+ * @see dev.morphia.mapping.Mapper#getFilterTemplates()
+ * @since 1.5
+ */
+public class FilterTemplateCache {
+    /**
+     * The most templates held
+     */
+    public static final int MAX_TEMPLATES = 10000;
+
+    private final ConcurrentMap<TemplateKey, FilterTemplate> templates = new ConcurrentHashMap<TemplateKey, FilterTemplate>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Drops every template
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        templates.clear();
+    }
+
+    /**
+     * @return the number of templates held
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    FilterTemplate forCondition(final Mapper mapper, final Class<?> type, final String condition, final boolean validateNames) {
+        if (type == null) {
+            return FilterTemplate.compileCondition(mapper, null, condition, validateNames);
+        }
+        final TemplateKey key = new TemplateKey(type, condition, true, validateNames);
+        FilterTemplate template = templates.get(key);
+        if (template == null) {
+            final long compiled = generation.get();
+            template = FilterTemplate.compileCondition(mapper, mapper.getMappedClass(type), condition, validateNames);
+            cache(key, template, compiled);
+        }
+        return template;
+    }
+
+    FilterTemplate forField(final Mapper mapper, final Class<?> type, final String field, final boolean validateNames) {
+        if (type == null) {
+            return FilterTemplate.compileField(mapper, null, field, FilterOperator.EQUAL, validateNames);
+        }
+        final TemplateKey key = new TemplateKey(type, field, false, validateNames);
+        FilterTemplate template = templates.get(key);
+        if (template == null) {
+            final long compiled = generation.get();
+            final MappedClass mc = mapper.getMappedClass(type);
+            template = FilterTemplate.compileField(mapper, mc, field, FilterOperator.EQUAL, validateNames);
+            cache(key, template, compiled);
+        }
+        return template;
+    }
+
+    private void cache(final TemplateKey key, final FilterTemplate template, final long compiled) {
+        if (templates.size() < MAX_TEMPLATES) {
+            templates.putIfAbsent(key, template);
+            // a class mapped while compiling may have changed how the path resolves
+            if (generation.get() != compiled) {
+                templates.remove(key, template);
+            }
+        }
+    }
+
+    private static final class TemplateKey {
+        private final Class<?> type;
+        private final String text;
+        private final boolean condition;
+        private final boolean validateNames;
+
+        private TemplateKey(final Class<?> type, final String text, final boolean condition, final boolean validateNames) {
+            this.type = type;
+            this.text = text;
+            this.condition = condition;
+            this.validateNames = validateNames;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TemplateKey)) {
+                return false;
+            }
+            final TemplateKey that = (TemplateKey) o;
+            return condition == that.condition
+                   && validateNames == that.validateNames
+                   && type.equals(that.type)
+                   && text.equals(that.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + text.hashCode();
+            result = 31 * result + (condition ? 1 : 0);
+            result = 31 * result + (validateNames ? 1 : 0);
+            return result;
+        }
+    }
+}
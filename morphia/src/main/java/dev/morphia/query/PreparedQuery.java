@@ -0,0 +1,243 @@
+package dev.morphia.query;
+
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.mapping.Mapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A query compiled once and run with different values for its named parameters.  The filters of the query are parsed, resolved and
+ * encoded when it is prepared, leaving {@link #param(String) parameters} in place of the values to supply on each run.  Binding the
+ * values then only encodes them and copies the parts of the query document that hold them, while the rest of the document is shared.
+ * <p>
+ * Prepared queries are immutable and can be shared between threads.
+ * <pre>
+ * PreparedQuery&lt;User&gt; byStatus = datastore.find(User.class)
+ *                                         .filter("status", param("status"))
+ *                                         .order("name")
+ *                                         .prepare();
+ * List&lt;User&gt; active = byStatus.asList(Collections.singletonMap("status", "active"));
+ * </pre>
+ *
+ * @param <T> the type of the entities queried
+ * @see Query#prepare()
+ * @since 1.5
+ */
+public final class PreparedQuery<T> {
+    private final QueryImpl<T> template;
+    private final Mapper mapper;
+    private final BasicDBObject skeleton;
+    private final Set<Object> containers = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    private final Set<String> names = new LinkedHashSet<String>();
+
+    PreparedQuery(final QueryImpl<T> query) {
+        template = query.cloneQuery();
+        mapper = query.getDatastore().getMapper();
+        skeleton = new BasicDBObject(query.getQueryObject().toMap());
+        for (final Object value : skeleton.values()) {
+            findPlaceholders(value);
+        }
+    }
+
+    /**
+     * Creates a parameter to use in place of a filter value when preparing a query
+     *
+     * @param name the name of the parameter
+     * @return the parameter
+     */
+    public static Parameter param(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("A parameter needs a name");
+        }
+        return new Parameter(name);
+    }
+
+    /**
+     * @return the names of the parameters of this query
+     */
+    public Set<String> getParameterNames() {
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Binds values to the parameters of this query.  The query returned can be run and refined like any other query without changing
+     * this one.
+     *
+     * @param values the values of the parameters by name
+     * @return the query to run
+     * @throws IllegalArgumentException if a parameter has no value or a value has no parameter
+     */
+    public Query<T> bind(final Map<String, ?> values) {
+        for (final String name : names) {
+            if (!values.containsKey(name)) {
+                throw new IllegalArgumentException(String.format("No value was given for the parameter '%s'", name));
+            }
+        }
+        if (values.size() != names.size()) {
+            for (final String name : values.keySet()) {
+                if (!names.contains(name)) {
+                    throw new IllegalArgumentException(String.format("The query has no parameter named '%s'", name));
+                }
+            }
+        }
+
+        // the root is always copied since running a query can add to it
+        final BasicDBObject bound = new BasicDBObject();
+        for (final Entry<String, Object> entry : skeleton.entrySet()) {
+            bound.put(entry.getKey(), bind(entry.getValue(), values));
+        }
+        return template.bind(bound);
+    }
+
+    /**
+     * Binds values to the parameters of this query and runs it
+     *
+     * @param values the values of the parameters by name
+     * @return the matching entities
+     * @see #bind(Map)
+     * @see Query#asList()
+     */
+    public List<T> asList(final Map<String, ?> values) {
+        return bind(values).asList();
+    }
+
+    /**
+     * Binds values to the parameters of this query and runs it
+     *
+     * @param values the values of the parameters by name
+     * @return the first matching entity or null
+     * @see #bind(Map)
+     * @see Query#get()
+     */
+    public T get(final Map<String, ?> values) {
+        return bind(values).get();
+    }
+
+    /**
+     * Binds values to the parameters of this query and counts the matches
+     *
+     * @param values the values of the parameters by name
+     * @return the number of matching entities
+     * @see #bind(Map)
+     * @see Query#count()
+     */
+    public long count(final Map<String, ?> values) {
+        return bind(values).count();
+    }
+
+    @Override
+    public String toString() {
+        return skeleton.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean findPlaceholders(final Object value) {
+        boolean found = false;
+        if (value instanceof Placeholder) {
+            names.add(((Placeholder) value).getName());
+            return true;
+        } else if (value instanceof Map) {
+            for (final Object child : ((Map<String, Object>) value).values()) {
+                found |= findPlaceholders(child);
+            }
+        } else if (value instanceof List) {
+            for (final Object child : (List<Object>) value) {
+                found |= findPlaceholders(child);
+            }
+        }
+        if (found) {
+            containers.add(value);
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object bind(final Object value, final Map<String, ?> values) {
+        if (value instanceof Placeholder) {
+            final Placeholder placeholder = (Placeholder) value;
+            return FieldCriteria.mapValue(mapper, placeholder.template, placeholder.operator, values.get(placeholder.getName()));
+        }
+        if (!containers.contains(value)) {
+            return value;
+        }
+        if (value instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) value;
+            final Map<String, Object> copy = value instanceof DBObject
+                                             ? new BasicDBObject()
+                                             : value instanceof LinkedHashMap
+                                               ? new LinkedHashMap<String, Object>()
+                                               : new HashMap<String, Object>();
+            for (final Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), bind(entry.getValue(), values));
+            }
+            return copy;
+        }
+        final List<Object> list = (List<Object>) value;
+        final List<Object> copy = value instanceof BasicDBList ? new BasicDBList() : new ArrayList<Object>(list.size());
+        for (final Object element : list) {
+            copy.add(bind(element, values));
+        }
+        return copy;
+    }
+
+    /**
+     * A named value to supply when running a prepared query
+     *
+     * @see #param(String)
+     */
+    public static final class Parameter {
+        private final String name;
+
+        private Parameter(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the name of this parameter
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return ":" + name;
+        }
+    }
+
+    /**
+     * Holds the place of a parameter in the query document along with what is needed to encode its value
+     */
+    static final class Placeholder {
+        private final String name;
+        private final FilterTemplate template;
+        private final FilterOperator operator;
+
+        Placeholder(final String name, final FilterTemplate template, final FilterOperator operator) {
+            this.name = name;
+            this.template = template;
+            this.operator = operator;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return ":" + name;
+        }
+    }
+}
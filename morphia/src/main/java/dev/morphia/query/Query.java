@@ -397,6 +397,43 @@ public interface Query<T> extends QueryResults<T>, MongoIterable<T> {
      */
     Query<T> project(Meta meta);
 
+    /**
+     * Fetches the entities referenced by the given fields along with the query results.  The query is run as an aggregation with a
+     * {@code $lookup} stage per field, so the results and the entities they reference arrive in one cursor rather than with a query per
+     * reference.  Only eager {@link dev.morphia.annotations.Reference} fields holding an entity or a list or set of entities can be
+     * included.  Referenced entities stored in other collections than that of the field's type are still fetched one at a time.  The
+     * deprecated {@link #fetch(FindOptions)} does not support included references.
+     *
+     * @param fields the names of the reference fields to include
+     * @return this
+     * @mongodb.server.release 3.4
+     * @mongodb.driver.manual reference/operator/aggregation/lookup/ $lookup
+     * @since 1.5
+     */
+    Query<T> include(String... fields);
+
+    /**
+     * Caches the results of this query when the mapper options hold a {@link QueryResultCache}.  The lists returned by
+     * {@link #asList(FindOptions)} and {@link #asKeyList(FindOptions)}, and the entity returned by {@link #get(FindOptions)}, are then
+     * reused by later runs of the same query until a write to the collection through the Datastore.  Queries which {@link #include}
+     * references are not cached, since their results hold documents of other collections.
+     *
+     * @return this
+     * @see dev.morphia.mapping.MapperOptions.Builder#queryResultCache(QueryResultCache)
+     * @since 1.5
+     */
+    Query<T> cacheResults();
+
+    /**
+     * Prepares this query to be run many times with different values.  The filters of the query are parsed and encoded once, with any
+     * {@link PreparedQuery#param(String) parameters} given as filter values left to be bound on each run.  Changes made to this query
+     * afterwards do not affect the prepared query.
+     *
+     * @return the prepared query
+     * @since 1.5
+     */
+    PreparedQuery<T> prepare();
+
     /**
      * Route query to non-primary node
      *
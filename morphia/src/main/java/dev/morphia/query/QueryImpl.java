@@ -1,19 +1,23 @@
 package dev.morphia.query;
 
 
+import com.mongodb.AggregationOptions;
 import com.mongodb.BasicDBObject;
 import com.mongodb.Block;
+import com.mongodb.Cursor;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
 import com.mongodb.Function;
 import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
 import com.mongodb.client.model.DBCollectionFindOptions;
 import dev.morphia.Datastore;
 import dev.morphia.Key;
 import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Reference;
 import dev.morphia.internal.PathTarget;
 import dev.morphia.mapping.MappedClass;
 import dev.morphia.mapping.MappedField;
@@ -28,7 +32,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +65,9 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
     private DBObject baseQuery;
     private FindOptions options;
     private CriteriaContainer compoundContainer = new CriteriaContainerImpl(this, AND);
+    private Map<MappedField, String> includes = new LinkedHashMap<MappedField, String>();
+    private boolean cacheResults;
+    private DBObject boundQuery;
 
     FindOptions getOptions() {
         if (options == null) {
@@ -140,17 +150,57 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
 
     @Override
     public List<Key<T>> asKeyList(final FindOptions options) {
-        return keys(options).toList();
+        final QueryResultCache resultCache = getResultCache();
+        if (resultCache == null) {
+            return keys(options).toList();
+        }
+        final QueryResultCache.ResultKey key = resultKey(options, true);
+        List<Key<T>> keys = resultCache.getKeys(key);
+        if (keys == null) {
+            final long version = resultCache.version(dbColl.getName());
+            keys = keys(options).toList();
+            resultCache.putKeys(key, keys, version);
+        }
+        return keys;
     }
 
     @Override
     public List<T> asList() {
-        return find(getOptions()).toList();
+        return asList(getOptions());
     }
 
     @Override
     public List<T> asList(final FindOptions options) {
-        return find(options).toList();
+        final QueryResultCache resultCache = getResultCache();
+        if (resultCache == null) {
+            return find(options).toList();
+        }
+        final QueryResultCache.ResultKey key = resultKey(options, false);
+        List<DBObject> documents = resultCache.getDocuments(key);
+        if (documents == null) {
+            final long version = resultCache.version(dbColl.getName());
+            documents = new ArrayList<DBObject>();
+            final Cursor cursor = prepareCursor(options);
+            try {
+                while (cursor.hasNext()) {
+                    documents.add(cursor.next());
+                }
+            } finally {
+                cursor.close();
+            }
+            resultCache.putDocuments(key, documents, version);
+        }
+        return new MorphiaCursor<T>(ds, new DocumentCursor(documents), ds.getMapper(), clazz, cache).toList();
+    }
+
+    private QueryResultCache getResultCache() {
+        // the results of included references hold documents of other collections, whose writes do not invalidate this one's results
+        return cacheResults && includes.isEmpty() ? ds.getMapper().getOptions().getQueryResultCache() : null;
+    }
+
+    private QueryResultCache.ResultKey resultKey(final FindOptions options, final boolean keys) {
+        return new QueryResultCache.ResultKey(dbColl.getName(), clazz, keys, getQueryObject(), getSortObject(),
+                                              keys ? null : getFieldsObject(), options);
     }
 
     @Override
@@ -180,12 +230,15 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
 
     @Override
     public MorphiaIterator<T, T> fetch(final FindOptions options) {
+        if (!includes.isEmpty()) {
+            throw new ValidationException("Included references can not be fetched with fetch(), use find() instead");
+        }
         final DBCursor cursor = prepareCursor(options);
         if (LOG.isTraceEnabled()) {
             LOG.trace("Getting cursor(" + dbColl.getName() + ")  for query:" + cursor.getQuery());
         }
 
-        return new MorphiaIterator<T, T>(ds, prepareCursor(options), ds.getMapper(), clazz, dbColl.getName(), cache);
+        return new MorphiaIterator<T, T>(ds, prepareEntityCursor(options), ds.getMapper(), clazz, dbColl.getName(), cache);
     }
 
     @Override
@@ -195,7 +248,53 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
 
     @Override
     public MorphiaCursor<T> find(final FindOptions options) {
-        return new MorphiaCursor<T>(ds, prepareCursor(options), ds.getMapper(), clazz, cache);
+        if (!includes.isEmpty()) {
+            return new MorphiaCursor<T>(ds, prepareIncludeCursor(options), ds.getMapper(), clazz, cache, includes);
+        }
+        return new MorphiaCursor<T>(ds, prepareEntityCursor(options), ds.getMapper(), clazz, cache);
+    }
+
+    @Override
+    public Query<T> include(final String... fields) {
+        final MappedClass mc = ds.getMapper().getMappedClass(clazz);
+        for (final String field : fields) {
+            MappedField mf = mc.getMappedFieldByJavaField(field);
+            if (mf == null) {
+                mf = mc.getMappedField(field);
+            }
+            if (mf == null) {
+                throw new ValidationException(String.format("The field '%s' could not be found in '%s'", field, clazz.getName()));
+            }
+            final Reference reference = mf.getAnnotation(Reference.class);
+            if (reference == null || mf.isMap() || reference.lazy()) {
+                throw new ValidationException(String.format("The field '%s' in '%s' is not an eager @Reference to an entity or a list of "
+                                                            + "entities", field, clazz.getName()));
+            }
+            includes.put(mf, "__included_" + mf.getNameToStore());
+        }
+        return this;
+    }
+
+    @Override
+    public Query<T> cacheResults() {
+        cacheResults = true;
+        return this;
+    }
+
+    @Override
+    public PreparedQuery<T> prepare() {
+        return new PreparedQuery<T>(this);
+    }
+
+    /**
+     * Creates a copy of this query that runs the document of a prepared query with its parameters bound
+     */
+    QueryImpl<T> bind(final DBObject query) {
+        final QueryImpl<T> n = cloneQuery();
+        n.compoundContainer = new CriteriaContainerImpl(n, AND);
+        n.baseQuery = query;
+        n.boundQuery = query;
+        return n;
     }
 
     @Override
@@ -238,6 +337,10 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
 
     @Override
     public T first(final FindOptions options) {
+        if (getResultCache() != null) {
+            final List<T> results = asList(options.copy().limit(1));
+            return results.isEmpty() ? null : results.get(0);
+        }
         final MongoCursor<T> it = find(options.copy().limit(1));
         try {
             return it.tryNext();
@@ -302,6 +405,8 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
         n.baseQuery = copy(baseQuery);
         n.options = options != null ? options.copy() : null;
         n.compoundContainer = compoundContainer;
+        n.includes = new LinkedHashMap<MappedField, String>(includes);
+        n.cacheResults = cacheResults;
         return n;
     }
 
@@ -385,15 +490,10 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
 
     @Override
     public Query<T> filter(final String condition, final Object value) {
-        final String[] parts = condition.trim().split(" ");
-        if (parts.length < 1 || parts.length > 6) {
-            throw new IllegalArgumentException("'" + condition + "' is not a legal filter condition");
-        }
+        final FilterTemplate template = ds.getMapper().getFilterTemplates().forCondition(ds.getMapper(), clazz, condition,
+            isValidatingNames());
 
-        final String prop = parts[0].trim();
-        final FilterOperator op = (parts.length == 2) ? translate(parts[1]) : FilterOperator.EQUAL;
-
-        add(new FieldCriteria(this, prop, op, value));
+        add(new FieldCriteria(this, template, template.getOperator(), value, false));
 
         return this;
     }
@@ -450,6 +550,9 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
     @Override
     @Deprecated
     public DBObject getQueryObject() {
+        if (boundQuery != null && ((CriteriaContainerImpl) compoundContainer).isEmpty()) {
+            return boundQuery;
+        }
         final DBObject obj = new BasicDBObject();
 
         if (baseQuery != null) {
@@ -468,6 +571,7 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
      */
     public void setQueryObject(final DBObject query) {
         baseQuery = new BasicDBObject(query.toMap());
+        boundQuery = null;
     }
 
     @Override
@@ -768,6 +872,103 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
                      .setDecoderFactory(ds.getDecoderFact());
     }
 
+    private DBCursor prepareEntityCursor(final FindOptions findOptions) {
+        return prepareCursor(findOptions).setDecoderFactory(ds.getDecoderFact(clazz, cache));
+    }
+
+    private Cursor prepareIncludeCursor(final FindOptions findOptions) {
+        final List<DBObject> pipeline = new ArrayList<DBObject>();
+        pipeline.add(new BasicDBObject("$match", getQueryObject()));
+        final DBObject sort = getSortObject();
+        if (sort != null) {
+            pipeline.add(new BasicDBObject("$sort", sort));
+        }
+        if (findOptions.getSkip() > 0) {
+            pipeline.add(new BasicDBObject("$skip", findOptions.getSkip()));
+        }
+        if (findOptions.getLimit() > 0) {
+            pipeline.add(new BasicDBObject("$limit", findOptions.getLimit()));
+        }
+        final Mapper mapper = ds.getMapper();
+        for (final Map.Entry<MappedField, String> include : includes.entrySet()) {
+            final MappedField mf = include.getKey();
+            String localField = mf.getNameToStore();
+            if (!mf.getAnnotation(Reference.class).idOnly()) {
+                // a field path can't name the $id of a DBRef so the ids are copied out first
+                localField = include.getValue();
+                pipeline.add(new BasicDBObject("$addFields", new BasicDBObject(localField, dbRefIds(mf))));
+            }
+            pipeline.add(new BasicDBObject("$lookup", new BasicDBObject("from", mapper.getCollectionName(mf.isSingleValue()
+                                                                                                        ? mf.getType()
+                                                                                                        : mf.getSubClass()))
+                                                          .append("localField", localField)
+                                                          .append("foreignField", "_id")
+                                                          .append("as", include.getValue())));
+        }
+        // the projection comes last so that the references are still there to look up and the joined documents are kept
+        final DBObject fields = getFieldsObject();
+        if (fields != null) {
+            final DBObject projection = new BasicDBObject(fields.toMap());
+            if (isInclusion(projection)) {
+                for (final String joined : includes.values()) {
+                    projection.put(joined, 1);
+                }
+            }
+            pipeline.add(new BasicDBObject("$project", projection));
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace(String.format("Running aggregation(%s) : %s, options: %s,", dbColl.getName(), pipeline, findOptions));
+        }
+
+        final AggregationOptions.Builder options = AggregationOptions.builder()
+                                                                     .maxTime(findOptions.getMaxTime(MILLISECONDS), MILLISECONDS)
+                                                                     .collation(findOptions.getCollation());
+        if (findOptions.getBatchSize() > 0) {
+            options.batchSize(findOptions.getBatchSize());
+        }
+        final ReadPreference readPreference = findOptions.getReadPreference();
+        return dbColl.aggregate(pipeline, options.build(), readPreference != null ? readPreference : dbColl.getReadPreference());
+    }
+
+    private static DBObject dbRefIds(final MappedField mf) {
+        final String path = "$" + mf.getNameToStore();
+        if (mf.isSingleValue()) {
+            return dbRefId(path);
+        }
+        // each DBRef is read by its index rather than bound to a variable, where it could be taken for an expression
+        final DBObject indexes = new BasicDBObject("$range", Arrays.asList(0, new BasicDBObject("$size", new BasicDBObject("$ifNull",
+            Arrays.asList(path, new ArrayList<Object>())))));
+        return new BasicDBObject("$map", new BasicDBObject("input", indexes)
+                                             .append("as", "index")
+                                             .append("in", dbRefId(new BasicDBObject("$arrayElemAt", Arrays.asList(path, "$$index")))));
+    }
+
+    private static DBObject dbRefId(final Object ref) {
+        // a DBRef is stored as {$ref, $id, $db}, in any order, so its id is the value paired with the key $id.  Each pair is matched by
+        // looking for a pair of the key $id and its value, which must be quoted as a literal to not be read as a field path.
+        final DBObject idPair = new BasicDBObject("k", new BasicDBObject("$literal", "$id")).append("v", "$$field.v");
+        final DBObject isId = new BasicDBObject("$gte", Arrays.asList(new BasicDBObject("$indexOfArray", Arrays.asList(
+            new BasicDBObject("$objectToArray", ref), idPair)), 0));
+        final DBObject idFields = new BasicDBObject("$filter", new BasicDBObject("input", new BasicDBObject("$objectToArray", ref))
+                                                                   .append("as", "field")
+                                                                   .append("cond", isId));
+        final DBObject values = new BasicDBObject("$map", new BasicDBObject("input", idFields)
+                                                              .append("as", "field")
+                                                              .append("in", "$$field.v"));
+        return new BasicDBObject("$arrayElemAt", Arrays.asList(values, 0));
+    }
+
+    private static boolean isInclusion(final DBObject projection) {
+        for (final String key : projection.keySet()) {
+            final Object value = projection.get(key);
+            if (!Mapper.ID_KEY.equals(key) && (Boolean.TRUE.equals(value) || value instanceof Number && ((Number) value).intValue() != 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public <U> MongoIterable<U> map(final Function<T, U> mapper) {
         return new MappingIterable<T, U>(this, mapper);
@@ -803,14 +1004,6 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
                                                             : ", projection: " + getFieldsObject());
     }
 
-    /**
-     * Converts the textual operator (">", "<=", etc) into a FilterOperator. Forgiving about the syntax; != and <> are NOT_EQUAL, = and ==
-     * are EQUAL.
-     */
-    private FilterOperator translate(final String operator) {
-        return FilterOperator.fromString(operator);
-    }
-
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -969,4 +1162,44 @@ public class QueryImpl<T> implements CriteriaContainer, Query<T> {
     public void attach(final CriteriaContainer container) {
         compoundContainer.attach(container);
     }
+
+    /**
+     * Replays the documents of a cached result
+     */
+    private static final class DocumentCursor implements Cursor {
+        private final Iterator<DBObject> documents;
+
+        private DocumentCursor(final List<DBObject> documents) {
+            this.documents = documents.iterator();
+        }
+
+        @Override
+        public long getCursorId() {
+            return 0;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return documents.hasNext();
+        }
+
+        @Override
+        public DBObject next() {
+            return documents.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -0,0 +1,267 @@
+package dev.morphia.query;
+
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.client.model.Collation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Caches the results of the queries which opt in with {@link Query#cacheResults()}.  The results are keyed by the collection, the query
+ * document, the sort, the projection, the skip, the limit and the collation of the query.  The documents of entity results are held
+ * rather than the entities, so that each use of a cached result maps its own entities without a round trip to the server.  Key results
+ * are held as the keys.
+ * <p>
+ * The cache holds at most a given number of results, evicting the least recently used, and does not hold results longer than a given
+ * number of documents.  Every write the {@link dev.morphia.Datastore} makes to a collection drops that collection's cached results.
+ * Writes made by other processes are not seen, so only the queries of collections written through this Datastore should be cached.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#queryResultCache(QueryResultCache)
+ * @since 1.5
+ */
+public class QueryResultCache {
+    private final int maxResultSize;
+    private final Map<ResultKey, Result> results;
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<String, AtomicLong>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache
+     *
+     * @param maxResults    the most results to hold
+     * @param maxResultSize the most documents in a result which is cached
+     */
+    public QueryResultCache(final int maxResults, final int maxResultSize) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("The maximum number of results must be at least 1");
+        }
+        if (maxResultSize < 0) {
+            throw new IllegalArgumentException("The maximum result size can not be negative");
+        }
+        this.maxResultSize = maxResultSize;
+        results = new LinkedHashMap<ResultKey, Result>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ResultKey, Result> eldest) {
+                return size() > maxResults;
+            }
+        };
+    }
+
+    /**
+     * Drops every cached result of a collection
+     *
+     * @param collection the collection name
+     */
+    public void invalidate(final String collection) {
+        getVersion(collection).incrementAndGet();
+    }
+
+    /**
+     * Drops every cached result
+     */
+    public void clear() {
+        for (final AtomicLong version : versions.values()) {
+            version.incrementAndGet();
+        }
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * @return the number of results held, including those invalidated but not yet removed
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of queries sent to the server
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    long version(final String collection) {
+        return getVersion(collection).get();
+    }
+
+    /**
+     * @return a copy of the cached documents or null
+     */
+    List<DBObject> getDocuments(final ResultKey key) {
+        final List<?> cached = get(key);
+        if (cached == null) {
+            return null;
+        }
+        final List<DBObject> documents = new ArrayList<DBObject>(cached.size());
+        for (final Object document : cached) {
+            documents.add((DBObject) ((BasicDBObject) document).copy());
+        }
+        return documents;
+    }
+
+    /**
+     * @return a copy of the cached keys or null
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> getKeys(final ResultKey key) {
+        final List<?> cached = get(key);
+        return cached == null ? null : new ArrayList<T>((List<T>) cached);
+    }
+
+    void putDocuments(final ResultKey key, final List<DBObject> documents, final long version) {
+        if (documents.size() > maxResultSize) {
+            return;
+        }
+        final List<DBObject> copies = new ArrayList<DBObject>(documents.size());
+        for (final DBObject document : documents) {
+            if (!(document instanceof BasicDBObject)) {
+                return;
+            }
+            copies.add((DBObject) ((BasicDBObject) document).copy());
+        }
+        put(key, copies, version);
+    }
+
+    void putKeys(final ResultKey key, final List<?> keys, final long version) {
+        if (keys.size() <= maxResultSize) {
+            put(key, new ArrayList<Object>(keys), version);
+        }
+    }
+
+    private List<?> get(final ResultKey key) {
+        final long version = version(key.collection);
+        List<?> found = null;
+        synchronized (results) {
+            final Result result = results.get(key);
+            if (result != null) {
+                if (result.version == version) {
+                    found = result.values;
+                } else {
+                    results.remove(key);
+                }
+            }
+        }
+        if (found == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return found;
+    }
+
+    private void put(final ResultKey key, final List<?> values, final long version) {
+        synchronized (results) {
+            // a result read before a write to the collection is not cached after the write
+            if (version(key.collection) == version) {
+                results.put(key, new Result(values, version));
+            }
+        }
+    }
+
+    private AtomicLong getVersion(final String collection) {
+        AtomicLong version = versions.get(collection);
+        if (version == null) {
+            version = new AtomicLong();
+            final AtomicLong existing = versions.putIfAbsent(collection, version);
+            if (existing != null) {
+                version = existing;
+            }
+        }
+        return version;
+    }
+
+    private static final class Result {
+        private final List<?> values;
+        private final long version;
+
+        private Result(final List<?> values, final long version) {
+            this.values = values;
+            this.version = version;
+        }
+    }
+
+    /**
+     * The shape and parameters of a query
+     */
+    static final class ResultKey {
+        private final String collection;
+        private final Class<?> type;
+        private final boolean keys;
+        private final DBObject query;
+        private final String sort;
+        private final DBObject projection;
+        private final int skip;
+        private final int limit;
+        private final Collation collation;
+
+        ResultKey(final String collection, final Class<?> type, final boolean keys, final DBObject query, final DBObject sort,
+                  final DBObject projection, final FindOptions options) {
+            this.collection = collection;
+            this.type = type;
+            this.keys = keys;
+            this.query = query;
+            // the order of the sort keys matters but is ignored when documents are compared
+            this.sort = sort == null ? null : sort.toString();
+            this.projection = projection;
+            this.skip = options.getSkip();
+            this.limit = options.getLimit();
+            this.collation = options.getCollation();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResultKey)) {
+                return false;
+            }
+            final ResultKey that = (ResultKey) o;
+            return keys == that.keys
+                   && skip == that.skip
+                   && limit == that.limit
+                   && collection.equals(that.collection)
+                   && type.equals(that.type)
+                   && query.equals(that.query)
+                   && (sort != null ? sort.equals(that.sort) : that.sort == null)
+                   && (projection != null ? projection.equals(that.projection) : that.projection == null)
+                   && (collation != null ? collation.equals(that.collation) : that.collation == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = collection.hashCode();
+            result = 31 * result + type.hashCode();
+            result = 31 * result + (keys ? 1 : 0);
+            result = 31 * result + query.hashCode();
+            result = 31 * result + (sort != null ? sort.hashCode() : 0);
+            result = 31 * result + (projection != null ? projection.hashCode() : 0);
+            result = 31 * result + skip;
+            result = 31 * result + limit;
+            result = 31 * result + (collation != null ? collation.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.morphia.query;
 
+import dev.morphia.Key;
 import dev.morphia.mapping.MappedClass;
 import dev.morphia.mapping.MappedField;
 import dev.morphia.query.validation.AllOperationValidator;
@@ -21,11 +22,37 @@ import dev.morphia.query.validation.SizeOperationValidator;
 import dev.morphia.query.validation.ValidationFailure;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 final class QueryValidator {
+    /**
+     * The most verdicts held
+     */
+    static final int MAX_VERDICTS = 10000;
+
+    // only compatible verdicts are held since failures describe the value and need the validators run again
+    private static final ConcurrentMap<VerdictKey, Boolean> COMPATIBLE = new ConcurrentHashMap<VerdictKey, Boolean>();
+    private static final AtomicLong VALIDATIONS = new AtomicLong();
+
     private QueryValidator() {
     }
 
+    /**
+     * @return the number of times the validators have been run rather than a cached verdict used
+     */
+    static long getValidations() {
+        return VALIDATIONS.get();
+    }
+
+    /**
+     * Drops every cached verdict
+     */
+    static void clear() {
+        COMPATIBLE.clear();
+    }
+
     /*package*/
     static boolean isCompatibleForOperator(final MappedClass mappedClass, final MappedField mappedField, final Class<?> type,
                                            final FilterOperator op,
@@ -36,6 +63,12 @@ final class QueryValidator {
             return true;
         }
 
+        final VerdictKey key = isValueClassEnough(op, value) ? new VerdictKey(mappedClass, mappedField, type, op, value.getClass()) : null;
+        if (key != null && validationFailures.isEmpty() && COMPATIBLE.containsKey(key)) {
+            return true;
+        }
+        VALIDATIONS.incrementAndGet();
+
         boolean validationApplied = ExistsOperationValidator.getInstance().apply(mappedField, op, value, validationFailures)
                                     || SizeOperationValidator.getInstance().apply(mappedField, op, value, validationFailures)
                                     || InOperationValidator.getInstance().apply(mappedField, op, value, validationFailures)
@@ -54,7 +87,62 @@ final class QueryValidator {
                                                                     .apply(mappedClass, mappedField, value, validationFailures)
                                     || DefaultTypeValidator.getInstance().apply(type, value, validationFailures);
 
-        return validationApplied && validationFailures.isEmpty();
+        final boolean compatible = validationApplied && validationFailures.isEmpty();
+        if (compatible && key != null && COMPATIBLE.size() < MAX_VERDICTS) {
+            COMPATIBLE.putIfAbsent(key, Boolean.TRUE);
+        }
+        return compatible;
+    }
+
+    /**
+     * Checks whether the validators only look at the class of a value.  The $geoWithin and $mod operations check the contents of the
+     * value, as does the check of a Key's type.
+     */
+    private static boolean isValueClassEnough(final FilterOperator op, final Object value) {
+        return op != FilterOperator.GEO_WITHIN && op != FilterOperator.MOD && !(value instanceof Key);
+    }
+
+    private static final class VerdictKey {
+        private final MappedClass mappedClass;
+        private final MappedField mappedField;
+        private final Class<?> type;
+        private final FilterOperator op;
+        private final Class<?> valueClass;
+
+        private VerdictKey(final MappedClass mappedClass, final MappedField mappedField, final Class<?> type, final FilterOperator op,
+                           final Class<?> valueClass) {
+            this.mappedClass = mappedClass;
+            this.mappedField = mappedField;
+            this.type = type;
+            this.op = op;
+            this.valueClass = valueClass;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VerdictKey)) {
+                return false;
+            }
+            final VerdictKey that = (VerdictKey) o;
+            return mappedClass == that.mappedClass
+                   && mappedField == that.mappedField
+                   && type == that.type
+                   && op == that.op
+                   && valueClass == that.valueClass;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(mappedClass);
+            result = 31 * result + System.identityHashCode(mappedField);
+            result = 31 * result + type.hashCode();
+            result = 31 * result + (op != null ? op.hashCode() : 0);
+            result = 31 * result + valueClass.hashCode();
+            return result;
+        }
     }
 
 }
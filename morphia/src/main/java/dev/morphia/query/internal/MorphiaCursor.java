@@ -7,11 +7,16 @@ import com.mongodb.ServerAddress;
 import com.mongodb.ServerCursor;
 import com.mongodb.client.MongoCursor;
 import dev.morphia.Datastore;
+import dev.morphia.mapping.MappedField;
 import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.ReferenceBatchLoader;
 import dev.morphia.mapping.cache.EntityCache;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 
@@ -24,6 +29,10 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
     private final Class<T> clazz;
     private final EntityCache cache;
     private final Datastore datastore;
+    private final int referenceBatchSize;
+    private final LinkedList<DBObject> batch = new LinkedList<DBObject>();
+    private final Map<MappedField, String> joined;
+    private ReferenceBatchLoader referenceLoader;
 
     /**
      * Creates a MorphiaCursor
@@ -36,6 +45,23 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
      */
     public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
                          final EntityCache cache) {
+        this(datastore, cursor, mapper, clazz, cache, Collections.<MappedField, String>emptyMap());
+    }
+
+    /**
+     * Creates a MorphiaCursor over documents with referenced documents joined in to them
+     *
+     * @param datastore the Datastore to use when fetching this reference
+     * @param cursor    the Iterator to use
+     * @param mapper    the Mapper to use
+     * @param clazz     the original type being iterated
+     * @param cache     the EntityCache
+     * @param joined    the reference fields and the names of the fields their referenced documents are joined in to
+     * @morphia.internal
+     * @since 1.5
+     */
+    public MorphiaCursor(final Datastore datastore, final Cursor cursor, final Mapper mapper, final Class<T> clazz,
+                         final EntityCache cache, final Map<MappedField, String> joined) {
         wrapped = cursor;
         if(wrapped == null) {
             throw new IllegalArgumentException("The wrapped cursor can not be null");
@@ -44,6 +70,8 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
         this.clazz = clazz;
         this.cache = cache;
         this.datastore = datastore;
+        this.referenceBatchSize = mapper.getOptions().getReferenceBatchSize();
+        this.joined = joined;
     }
 
     /**
@@ -53,7 +81,7 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
     public List<T> toList() {
         final List<T> results = new ArrayList<T>();
         try {
-            while (wrapped.hasNext()) {
+            while (hasNext()) {
                 results.add(next());
             }
         } finally {
@@ -76,7 +104,7 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
         if (wrapped == null) {
             return false;
         }
-        return wrapped.hasNext();
+        return !batch.isEmpty() || wrapped.hasNext();
     }
 
     @Override
@@ -84,7 +112,7 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-        return mapper.fromDBObject(datastore, clazz, wrapped.next(), cache);
+        return mapper.fromDBObject(datastore, clazz, getNext(), cache);
     }
 
     @Override
@@ -112,6 +140,29 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
     }
 
     protected DBObject getNext() {
-        return wrapped.next();
+        if (referenceBatchSize == 0) {
+            return loadJoined(wrapped.next());
+        }
+        if (batch.isEmpty()) {
+            while (batch.size() < referenceBatchSize && wrapped.hasNext()) {
+                batch.add(loadJoined(wrapped.next()));
+            }
+            getReferenceLoader().load(clazz, batch);
+        }
+        return batch.removeFirst();
+    }
+
+    private DBObject loadJoined(final DBObject dbObject) {
+        for (final Map.Entry<MappedField, String> entry : joined.entrySet()) {
+            getReferenceLoader().loadJoined(entry.getKey(), dbObject, entry.getValue());
+        }
+        return dbObject;
+    }
+
+    private ReferenceBatchLoader getReferenceLoader() {
+        if (referenceLoader == null) {
+            referenceLoader = new ReferenceBatchLoader(datastore, mapper, cache);
+        }
+        return referenceLoader;
     }
 }
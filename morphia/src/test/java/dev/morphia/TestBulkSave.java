@@ -0,0 +1,247 @@
+package dev.morphia;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PostPersist;
+import dev.morphia.annotations.PrePersist;
+import dev.morphia.annotations.Version;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+public class TestBulkSave extends TestBase {
+    private final WriteCounter counter;
+
+    public TestBulkSave() {
+        this(new WriteCounter());
+    }
+
+    private TestBulkSave(final WriteCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Test
+    public void batches() {
+        getMorphia().setUseBulkWriteOperations(true);
+        getMorphia().setBulkWriteBatchSize(3);
+
+        final Track existing = new Track("existing");
+        existing.id = new ObjectId();
+        getDs().save(existing);
+        existing.name = "updated";
+
+        final List<Object> entities = new ArrayList<Object>();
+        entities.add(existing);
+        for (int i = 0; i < 5; i++) {
+            entities.add(new Track("track " + i));
+        }
+        entities.add(new Album("album"));
+
+        counter.writes = 0;
+        final List<Key<Object>> keys = toList(getDs().save(entities));
+
+        // two batches of tracks, the first split in to its upsert and inserts, and one for the album
+        Assert.assertEquals(4, counter.writes);
+        Assert.assertEquals(entities.size(), keys.size());
+        for (int i = 0; i < entities.size(); i++) {
+            Assert.assertEquals(getDs().getKey(entities.get(i)), keys.get(i));
+        }
+        Assert.assertEquals(6, getDs().getCount(Track.class));
+        Assert.assertEquals(1, getDs().getCount(Album.class));
+        Assert.assertEquals("updated", getDs().get(Track.class, existing.id).name);
+
+        for (final Object entity : entities) {
+            if (entity instanceof Track) {
+                Assert.assertTrue(((Track) entity).prePersisted);
+                Assert.assertTrue(((Track) entity).postPersisted);
+            }
+        }
+    }
+
+    @Test
+    public void versioned() {
+        getMorphia().setUseBulkWriteOperations(true);
+
+        final List<Playlist> playlists = new ArrayList<Playlist>();
+        for (int i = 0; i < 3; i++) {
+            playlists.add(new Playlist());
+        }
+        getDs().save(playlists);
+        getDs().save(playlists);
+
+        for (final Playlist playlist : playlists) {
+            Assert.assertEquals(Long.valueOf(2), playlist.version);
+        }
+        Assert.assertEquals(3, getDs().getCount(Playlist.class));
+    }
+
+    @Test
+    public void versionConflicts() {
+        getMorphia().setUseBulkWriteOperations(true);
+
+        final List<Playlist> playlists = new ArrayList<Playlist>();
+        for (int i = 0; i < 3; i++) {
+            playlists.add(new Playlist());
+        }
+        getDs().save(playlists);
+
+        final Playlist stale = playlists.get(1);
+        final Playlist concurrent = getDs().get(Playlist.class, stale.id);
+        concurrent.name = "renamed";
+        getDs().save(concurrent);
+
+        final Playlist duplicate = new Playlist();
+        duplicate.id = playlists.get(0).id;
+        playlists.add(duplicate);
+        final Playlist fresh = new Playlist();
+        playlists.add(fresh);
+
+        counter.writes = 0;
+        try {
+            getDs().save(playlists);
+            Assert.fail("The stale and duplicate playlists should be reported");
+        } catch (VersionConflictException e) {
+            Assert.assertEquals(asList(stale, duplicate), e.getConflicts());
+            Assert.assertEquals(5, e.getKeys().size());
+            Assert.assertNull(e.getKeys().get(1));
+            Assert.assertNull(e.getKeys().get(3));
+            Assert.assertEquals(getDs().getKey(fresh), e.getKeys().get(4));
+        }
+
+        Assert.assertEquals(Long.valueOf(2), playlists.get(0).version);
+        Assert.assertEquals(Long.valueOf(1), stale.version);
+        Assert.assertEquals(Long.valueOf(2), playlists.get(2).version);
+        Assert.assertNull(duplicate.version);
+        Assert.assertEquals(Long.valueOf(1), fresh.version);
+        Assert.assertEquals(Long.valueOf(2), getDs().get(Playlist.class, stale.id).version);
+        Assert.assertEquals("renamed", getDs().get(Playlist.class, stale.id).name);
+        Assert.assertEquals(4, getDs().getCount(Playlist.class));
+    }
+
+    @Test
+    public void deletedConcurrently() {
+        getMorphia().setUseBulkWriteOperations(true);
+
+        final List<Playlist> playlists = new ArrayList<Playlist>();
+        for (int i = 0; i < 2; i++) {
+            playlists.add(new Playlist());
+        }
+        getDs().save(playlists);
+        getDs().delete(playlists.get(0));
+
+        counter.writes = 0;
+        try {
+            getDs().save(playlists);
+            Assert.fail("The deleted playlist should be reported");
+        } catch (VersionConflictException e) {
+            Assert.assertEquals(singletonList(playlists.get(0)), e.getConflicts());
+        }
+        // the deleted playlist is never written back
+        Assert.assertEquals(1, counter.writes);
+        Assert.assertNull(getDs().get(Playlist.class, playlists.get(0).id));
+        Assert.assertEquals(Long.valueOf(2), playlists.get(1).version);
+    }
+
+    @Test
+    public void disabled() {
+        final List<Track> tracks = new ArrayList<Track>();
+        for (int i = 0; i < 3; i++) {
+            tracks.add(new Track("track " + i));
+        }
+
+        counter.writes = 0;
+        getDs().save(tracks);
+        Assert.assertEquals(3, counter.writes);
+    }
+
+    private static <T> List<T> toList(final Iterable<T> iterable) {
+        final List<T> list = new ArrayList<T>();
+        for (final T t : iterable) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    @Entity("bulk_tracks")
+    private static class Track {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient boolean prePersisted;
+        private transient boolean postPersisted;
+
+        Track() {
+        }
+
+        Track(final String name) {
+            this.name = name;
+        }
+
+        @PrePersist
+        void prePersist() {
+            prePersisted = true;
+        }
+
+        @PostPersist
+        void postPersist() {
+            postPersisted = true;
+        }
+    }
+
+    @Entity("bulk_albums")
+    private static class Album {
+        @Id
+        private ObjectId id;
+        private String title;
+
+        Album() {
+        }
+
+        Album(final String title) {
+            this.title = title;
+        }
+    }
+
+    @Entity("bulk_playlists")
+    private static class Playlist {
+        @Id
+        private ObjectId id = new ObjectId();
+        @Version
+        private Long version;
+        private String name;
+    }
+
+    private static class WriteCounter implements CommandListener {
+        private volatile int writes;
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            final String name = event.getCommandName();
+            if ("insert".equals(name) || "update".equals(name)) {
+                writes++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
@@ -573,6 +573,29 @@ public class TestDatastore extends TestBase {
                                .getN());
     }
 
+    @Test
+    public void testDeleteEntities() {
+        getDs().getCollection(FacebookUser.class).drop();
+        getDs().getCollection(Rectangle.class).drop();
+
+        final List<FacebookUser> users = asList(new FacebookUser(1, "John Doe"), new FacebookUser(2, "Jane Doe"),
+            new FacebookUser(3, "Jim Doe"));
+        getDs().save(users);
+        final Rectangle rect = new Rectangle(10, 10);
+        getDs().save(rect);
+
+        final List<Object> entities = new ArrayList<Object>();
+        entities.add(users.get(0));
+        entities.add(rect);
+        entities.add(users.get(2));
+        assertEquals(3, getDs().delete(entities, new DeleteOptions()).getN());
+
+        assertEquals(1, getDs().getCount(FacebookUser.class));
+        assertEquals("Jane Doe", getDs().find(FacebookUser.class).get().getUsername());
+        assertEquals(0, getDs().getCount(Rectangle.class));
+        assertEquals(0, getDs().delete(new ArrayList<Object>(), new DeleteOptions()).getN());
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     public void testEnforceWriteConcern() {
@@ -1,12 +1,20 @@
 package dev.morphia;
 
 
+import com.mongodb.BasicDBObject;
+import org.bson.types.ObjectId;
 import org.junit.Assert;
 import org.junit.Test;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
 import dev.morphia.testutil.TestEntity;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.util.Arrays.asList;
 
@@ -30,8 +38,149 @@ public class TestGetByKeys extends TestBase {
         Assert.assertFalse(i.hasNext());
     }
 
+    @Test
+    public void testKeyOrder() {
+        final List<A> saved = new ArrayList<A>();
+        for (int i = 0; i < 10; i++) {
+            final A a = new A();
+            a.foo = "a" + i;
+            saved.add(a);
+        }
+        getDs().save(saved);
+
+        final List<Key<A>> keys = new ArrayList<Key<A>>();
+        for (int i = saved.size() - 1; i >= 0; i--) {
+            keys.add(getDs().getKey(saved.get(i)));
+        }
+        keys.add(3, new Key<A>(A.class, getMorphia().getMapper().getCollectionName(A.class), new ObjectId()));
+
+        final List<A> omitted = getDs().getByKeys(keys, new GetByKeysOptions().chunkSize(3));
+        Assert.assertEquals(saved.size(), omitted.size());
+        for (int i = 0; i < saved.size(); i++) {
+            Assert.assertEquals(saved.get(saved.size() - 1 - i).getId(), omitted.get(i).getId());
+        }
+
+        final List<A> included = getDs().getByKeys(A.class, keys, new GetByKeysOptions()
+                                                                      .includeMissing(true)
+                                                                      .chunkSize(4));
+        Assert.assertEquals(keys.size(), included.size());
+        Assert.assertNull(included.get(3));
+        Assert.assertEquals("a9", included.get(0).foo);
+        Assert.assertEquals("a6", included.get(4).foo);
+        Assert.assertEquals("a0", included.get(10).foo);
+    }
+
+    @Test
+    public void testExecutor() {
+        final List<Object> saved = new ArrayList<Object>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(new A());
+            saved.add(new B());
+        }
+        final List<Key<Object>> keys = new ArrayList<Key<Object>>();
+        for (final Key<Object> key : getDs().save(saved)) {
+            keys.add(key);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Object> reloaded = getDs().getByKeys(keys, new GetByKeysOptions()
+                                                                       .chunkSize(2)
+                                                                       .executor(executor));
+            Assert.assertEquals(saved.size(), reloaded.size());
+            for (int i = 0; i < saved.size(); i++) {
+                Assert.assertEquals(saved.get(i).getClass(), reloaded.get(i).getClass());
+                Assert.assertEquals(((TestEntity) saved.get(i)).getId(), ((TestEntity) reloaded.get(i)).getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdTypes() {
+        getDs().save(asList(new Blob(new byte[]{1, 2}, "first"), new Blob(new byte[]{3, 4}, "second")));
+        final List<Blob> blobs = getDs().getByKeys(asList(getDs().getKey(new Blob(new byte[]{3, 4}, null)),
+                                                          getDs().getKey(new Blob(new byte[]{1, 2}, null))));
+        Assert.assertEquals(2, blobs.size());
+        Assert.assertEquals("second", blobs.get(0).name);
+        Assert.assertEquals("first", blobs.get(1).name);
+
+        getDs().save(asList(new Shelf(new Position(1, 2), "top"), new Shelf(new Position(3, 4), "bottom")));
+        final String collection = getMorphia().getMapper().getCollectionName(Shelf.class);
+        final List<Shelf> shelves = getDs().getByKeys(asList(
+            getDs().getKey(new Shelf(new Position(3, 4), null)),
+            new Key<Shelf>(Shelf.class, collection, new BasicDBObject("row", 1).append("column", 2))));
+        Assert.assertEquals(2, shelves.size());
+        Assert.assertEquals("bottom", shelves.get(0).name);
+        Assert.assertEquals("top", shelves.get(1).name);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChunkSize() {
+        new GetByKeysOptions().chunkSize(0);
+    }
+
     public static class A extends TestEntity {
         private String foo = "bar";
     }
 
+    public static class B extends TestEntity {
+        private int count;
+    }
+
+    @Entity("blobs")
+    private static class Blob {
+        @Id
+        private byte[] hash;
+        private String name;
+
+        Blob() {
+        }
+
+        Blob(final byte[] hash, final String name) {
+            this.hash = hash;
+            this.name = name;
+        }
+    }
+
+    @Entity("shelves")
+    private static class Shelf {
+        @Id
+        private Position position;
+        private String name;
+
+        Shelf() {
+        }
+
+        Shelf(final Position position, final String name) {
+            this.position = position;
+            this.name = name;
+        }
+    }
+
+    @Embedded
+    private static class Position {
+        private int row;
+        private int column;
+
+        Position() {
+        }
+
+        Position(final int row, final int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Position && ((Position) o).row == row && ((Position) o).column == column;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * row + column;
+        }
+    }
+
 }
@@ -90,6 +90,43 @@ public class TestMapper extends TestBase {
         Assert.assertTrue(subTypes.contains(mapper.getMappedClass(AnotherNested.class)));
     }
 
+    @Test
+    public void subTypesFollowMapping() {
+        final Mapper mapper = new Mapper();
+        final MappedClass base = mapper.getMappedClass(Vehicle.class);
+        Assert.assertTrue(mapper.getSubTypes(base).isEmpty());
+
+        mapper.addMappedClass(Truck.class);
+        final List<MappedClass> subTypes = mapper.getSubTypes(base);
+        Assert.assertEquals(asList(mapper.getMappedClass(Truck.class)), subTypes);
+
+        mapper.addMappedClass(Van.class);
+        Assert.assertEquals(2, mapper.getSubTypes(base).size());
+        Assert.assertTrue(mapper.getSubTypes(mapper.getMappedClass(Truck.class)).isEmpty());
+
+        mapper.addMappedClass(Truck.class);
+        Assert.assertEquals(2, mapper.getSubTypes(base).size());
+        Assert.assertTrue(mapper.getSubTypes(base).contains(mapper.getMappedClass(Truck.class)));
+
+        try {
+            subTypes.add(base);
+            Assert.fail("The subtypes should not be modifiable");
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Entity
+    private static class Vehicle {
+        @Id
+        private ObjectId id;
+    }
+
+    private static class Truck extends Vehicle {
+    }
+
+    private static class Van extends Vehicle {
+    }
+
     public static class A {
         private static int loadCount;
         @Id
@@ -145,7 +145,7 @@ public class TestMapping extends TestBase {
     public void testBasicMapping() {
         performBasicMappingTest();
         final DefaultCreator objectFactory = (DefaultCreator) getMorphia().getMapper().getOptions().getObjectFactory();
-        assertTrue(objectFactory.getClassNameCache().isEmpty());
+        assertTrue(objectFactory.getClassNameCache().containsKey(Hotel.class.getName()));
     }
 
     @Test
@@ -0,0 +1,105 @@
+package dev.morphia.converters;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ConvertersTest {
+    @Test
+    public void resolutionsAreCached() {
+        final Mapper mapper = new Mapper();
+        final Converters converters = mapper.getConverters();
+        final MappedField names = mapper.getMappedClass(Roster.class).getMappedFieldByJavaField("names");
+
+        Assert.assertEquals("morphia", converters.encode(String.class, "morphia"));
+        final long afterFirst = converters.getResolutionCount();
+        for (int i = 0; i < 10; i++) {
+            converters.encode(String.class, "morphia");
+            converters.hasSimpleValueConverter(String.class);
+        }
+        Assert.assertEquals(afterFirst, converters.getResolutionCount());
+
+        final Roster roster = new Roster();
+        roster.names = new ArrayList<String>(Arrays.asList("Ada", "Grace"));
+        final DBObject dbObject = new BasicDBObject();
+        converters.toDBObject(roster, names, dbObject, mapper.getOptions());
+        final long afterField = converters.getResolutionCount();
+        Assert.assertTrue(afterField > afterFirst);
+        for (int i = 0; i < 10; i++) {
+            converters.toDBObject(roster, names, new BasicDBObject(), mapper.getOptions());
+        }
+        Assert.assertEquals(afterField, converters.getResolutionCount());
+        Assert.assertEquals(Arrays.asList("Ada", "Grace"), dbObject.get("names"));
+    }
+
+    @Test
+    public void resolutionsAreKeyedByJavaField() {
+        final Mapper mapper = new Mapper();
+        final Converters converters = mapper.getConverters();
+        final Roster roster = new Roster();
+        roster.names = new ArrayList<String>(Arrays.asList("Ada"));
+
+        converters.toDBObject(roster, mapper.getMappedClass(Roster.class).getMappedFieldByJavaField("names"), new BasicDBObject(),
+                              mapper.getOptions());
+        final long resolved = converters.getResolutionCount();
+        for (int i = 0; i < 10; i++) {
+            // a new description of the same field shares the cached converter
+            final MappedField names = new MappedClass(Roster.class, mapper).getMappedFieldByJavaField("names");
+            converters.toDBObject(roster, names, new BasicDBObject(), mapper.getOptions());
+        }
+        Assert.assertEquals(resolved, converters.getResolutionCount());
+    }
+
+    @Test
+    public void changesClearTheCache() {
+        final Mapper mapper = new Mapper();
+        final Converters converters = mapper.getConverters();
+
+        Assert.assertFalse(converters.hasSimpleValueConverter(Badge.class));
+        final long before = converters.getResolutionCount();
+
+        final TypeConverter converter = converters.addConverter(new BadgeConverter());
+        Assert.assertTrue(converters.hasSimpleValueConverter(Badge.class));
+        Assert.assertEquals("gold", converters.encode(new Badge("gold")));
+        Assert.assertTrue(converters.getResolutionCount() > before);
+
+        converters.removeConverter(converter);
+        Assert.assertFalse(converters.hasSimpleValueConverter(Badge.class));
+    }
+
+    private static class Roster {
+        private List<String> names;
+    }
+
+    private static class Badge {
+        private final String level;
+
+        Badge(final String level) {
+            this.level = level;
+        }
+    }
+
+    private static class BadgeConverter extends TypeConverter implements SimpleValueConverter {
+        BadgeConverter() {
+            super(Badge.class);
+        }
+
+        @Override
+        public Object decode(final Class targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return fromDBObject == null ? null : new Badge((String) fromDBObject);
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            return value == null ? null : ((Badge) value).level;
+        }
+    }
+}
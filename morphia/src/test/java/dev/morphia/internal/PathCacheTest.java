@@ -0,0 +1,102 @@
+package dev.morphia.internal;
+
+import dev.morphia.TestArrayUpdates.Grade;
+import dev.morphia.TestArrayUpdates.Student;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.entities.EmbeddedType;
+import dev.morphia.entities.EntityWithListsAndArrays;
+import dev.morphia.entities.ParentType;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.query.ValidationException;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathCacheTest extends TestBase {
+    private Mapper mapper;
+    private PathCache cache;
+
+    @Before
+    public void mapClasses() {
+        getMorphia().map(EntityWithListsAndArrays.class, EmbeddedType.class, Student.class, ParentType.class);
+        mapper = getMorphia().getMapper();
+        cache = mapper.getPathCache();
+        // resolving the paths once maps the field types, which clears the cache
+        new PathTarget(mapper, EntityWithListsAndArrays.class, "listEmbeddedType.1.number").translatedPath();
+        new PathTarget(mapper, Student.class, "grades.$.data.name").translatedPath();
+        new PathTarget(mapper, ParentType.class, "name").translatedPath();
+        cache.clear();
+    }
+
+    @Test
+    public void normalize() {
+        Assert.assertEquals("items.$.name", PathCache.normalize("items.3.name"));
+        Assert.assertEquals("items.$.name", PathCache.normalize("items.$.name"));
+        Assert.assertEquals("$.$", PathCache.normalize("12.0"));
+        Assert.assertEquals("items.3a.name", PathCache.normalize("items.3a.name"));
+        Assert.assertEquals("name", PathCache.normalize("name"));
+        Assert.assertEquals("", PathCache.normalize(""));
+    }
+
+    @Test
+    public void arrayIndexesShareEntries() {
+        final MappedClass mappedClass = mapper.getMappedClass(EntityWithListsAndArrays.class);
+        final PathTarget first = new PathTarget(mapper, mappedClass, "listEmbeddedType.3.number");
+        Assert.assertEquals("listEmbeddedType.3.number", first.translatedPath());
+        Assert.assertEquals(1, cache.size());
+
+        final PathTarget second = new PathTarget(mapper, mappedClass, "listEmbeddedType.7.number");
+        Assert.assertEquals("listEmbeddedType.7.number", second.translatedPath());
+        Assert.assertSame(first.getTarget(), second.getTarget());
+
+        Assert.assertEquals("listEmbeddedType.$.number", new PathTarget(mapper, mappedClass, "listEmbeddedType.$.number").translatedPath());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void translatedNames() {
+        final MappedClass mappedClass = mapper.getMappedClass(Student.class);
+        Assert.assertEquals("grades.$.d.name", new PathTarget(mapper, mappedClass, "grades.$.data.name").translatedPath());
+        Assert.assertEquals("grades.2.d.name", new PathTarget(mapper, mappedClass, "grades.2.data.name").translatedPath());
+        Assert.assertEquals(mapper.getMappedClass(Grade.class).getMappedFieldByJavaField("data"),
+                            new PathTarget(mapper, mappedClass, "grades.5.data.name").getTarget());
+        Assert.assertEquals(1, cache.size());
+
+        // validation is part of the key
+        Assert.assertEquals("n", new PathTarget(mapper, ParentType.class, "name", true).translatedPath());
+        Assert.assertEquals("n", new PathTarget(mapper, ParentType.class, "name", false).translatedPath());
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void failuresAreNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                new PathTarget(mapper, ParentType.class, "unknown").translatedPath();
+                Assert.fail("The unknown field should fail validation");
+            } catch (ValidationException expected) {
+                // expected
+            }
+        }
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals("unknown", new PathTarget(mapper, ParentType.class, "unknown", false).translatedPath());
+    }
+
+    @Test
+    public void mappingClears() {
+        new PathTarget(mapper, ParentType.class, "name").translatedPath();
+        Assert.assertEquals(1, cache.size());
+        getMorphia().map(Unmapped.class);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Entity("unmapped")
+    private static class Unmapped {
+        @Id
+        private ObjectId id;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import dev.morphia.mapping.instantiation.InstantiationStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DefaultCreatorTest {
+    @Test
+    public void createInstances() {
+        for (final InstantiationStrategy strategy : InstantiationStrategy.values()) {
+            final DefaultCreator creator = new DefaultCreator(MapperOptions.builder().instantiationStrategy(strategy).build());
+
+            Assert.assertNotNull(creator.createInstance(Gadget.class));
+            Assert.assertNotSame(creator.createInstance(Gadget.class), creator.createInstance(Gadget.class));
+            Assert.assertNotNull(creator.createInstance(PrivateGadget.class));
+
+            Assert.assertEquals(HashMap.class, creator.createInstance(Map.class).getClass());
+            Assert.assertEquals(HashSet.class, creator.createInstance(Set.class).getClass());
+            Assert.assertEquals(ArrayList.class, creator.createInstance(List.class).getClass());
+            Assert.assertEquals(ArrayList.class, creator.createInstance(Collection.class).getClass());
+            Assert.assertEquals(ArrayList.class, creator.createList(null).getClass());
+        }
+    }
+
+    @Test(expected = MappingException.class)
+    public void noUsableConstructor() {
+        new DefaultCreator().createInstance(Broken.class);
+    }
+
+    @Test
+    public void classLookupsAreCached() {
+        final DefaultCreator creator = new DefaultCreator();
+        final BasicDBObject dbObject = new BasicDBObject(Mapper.CLASS_NAME_FIELDNAME, Gadget.class.getName());
+
+        Assert.assertTrue(creator.getClassNameCache().isEmpty());
+        Assert.assertTrue(creator.createInstance(Object.class, dbObject) instanceof Gadget);
+        Assert.assertEquals(Gadget.class, creator.getClassNameCache().get(Gadget.class.getName()));
+
+        Assert.assertTrue(creator.createInstance(Object.class, new BasicDBObject(Mapper.CLASS_NAME_FIELDNAME, "not.a.Class")) != null);
+        Assert.assertFalse(creator.getClassNameCache().containsKey("not.a.Class"));
+    }
+
+    public static class Gadget {
+    }
+
+    private static class PrivateGadget {
+        private PrivateGadget() {
+        }
+    }
+
+    private static class Broken {
+        Broken(final String name) {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.Datastore;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.AlsoLoad;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.cache.DefaultEntityCache;
+import dev.morphia.mapping.cache.EntityCache;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DocumentOrderDecodingTest extends TestBase {
+    @Test
+    public void sparseDocuments() {
+        final Mapper mapper = new Mapper(MapperOptions.builder().documentOrderDecoding(true).build());
+        final ObjectId id = new ObjectId();
+
+        final Sensor sensor = mapper.fromDBObject(null, Sensor.class, new BasicDBObject("_id", id)
+                                                                          .append("label", "north")
+                                                                          .append("unknown", 1)
+                                                                          .append("location", new BasicDBObject("x", 3)),
+            new DefaultEntityCache());
+
+        Assert.assertEquals(id, sensor.id);
+        Assert.assertEquals("north", sensor.name);
+        Assert.assertEquals(3, sensor.location.x);
+        Assert.assertNull(sensor.reading);
+        Assert.assertEquals(new ArrayList<Sensor>(), sensor.neighbors);
+    }
+
+    @Test
+    public void sameResultAsFieldOrder() {
+        final Mapper fieldOrder = new Mapper();
+        final Mapper documentOrder = new Mapper(MapperOptions.builder().documentOrderDecoding(true).build());
+
+        final Sensor sensor = new Sensor();
+        sensor.id = new ObjectId();
+        sensor.name = "south";
+        sensor.reading = 12.5;
+        sensor.location = new Location();
+        sensor.location.x = 7;
+        final DBObject dbObject = fieldOrder.toDBObject(sensor);
+
+        final Sensor expected = fieldOrder.fromDBObject(null, Sensor.class, dbObject, new DefaultEntityCache());
+        final Sensor actual = documentOrder.fromDBObject(null, Sensor.class, dbObject, new DefaultEntityCache());
+        Assert.assertEquals(expected.id, actual.id);
+        Assert.assertEquals(expected.name, actual.name);
+        Assert.assertEquals(expected.reading, actual.reading);
+        Assert.assertEquals(expected.location.x, actual.location.x);
+        Assert.assertEquals(expected.neighbors, actual.neighbors);
+    }
+
+    @Test
+    public void absentFieldsAreSkipped() {
+        final Mapper mapper = new Mapper(MapperOptions.builder().documentOrderDecoding(true).build());
+        final MappedClass mc = mapper.getMappedClass(Sensor.class);
+
+        Assert.assertFalse(mc.getFieldPlan(mapper, "name").isReadWhenAbsent(mapper.getOptions()));
+        Assert.assertFalse(mc.getFieldPlan(mapper, "location").isReadWhenAbsent(mapper.getOptions()));
+        Assert.assertTrue(mc.getFieldPlan(mapper, "neighbors").isReadWhenAbsent(mapper.getOptions()));
+    }
+
+    @Test
+    public void customMappersSeeAbsentFields() {
+        final CountingMapper documentOrder = new CountingMapper();
+        new Mapper(MapperOptions.builder().documentOrderDecoding(true).valueMapper(documentOrder).build())
+            .fromDBObject(null, Sensor.class, new BasicDBObject("name", "east"), new DefaultEntityCache());
+
+        final CountingMapper fieldOrder = new CountingMapper();
+        new Mapper(MapperOptions.builder().valueMapper(fieldOrder).build())
+            .fromDBObject(null, Sensor.class, new BasicDBObject("name", "east"), new DefaultEntityCache());
+
+        Assert.assertEquals(3, documentOrder.count);
+        Assert.assertEquals(fieldOrder.count, documentOrder.count);
+    }
+
+    @Test(expected = MappingException.class)
+    public void duplicateAliases() {
+        final Mapper mapper = new Mapper(MapperOptions.builder().documentOrderDecoding(true).build());
+        mapper.fromDBObject(getDs(), Sensor.class, new BasicDBObject("name", "west").append("label", "west"), new DefaultEntityCache());
+    }
+
+    @Entity
+    private static class Sensor {
+        @Id
+        private ObjectId id;
+        @AlsoLoad("label")
+        private String name;
+        private Double reading;
+        @Embedded
+        private Location location;
+        @Reference
+        private List<Sensor> neighbors;
+    }
+
+    @Embedded
+    private static class Location {
+        private int x;
+    }
+
+    /**
+     * Counts the fields it is asked to read.  Since it is not the default value mapper, absent fields are still read.
+     */
+    private static class CountingMapper extends ValueMapper {
+        private int count;
+
+        @Override
+        public void fromDBObject(final Datastore datastore, final DBObject dbObject, final MappedField mf, final Object entity,
+                                 final EntityCache cache, final Mapper mapper) {
+            count++;
+            super.fromDBObject(datastore, dbObject, mf, entity, cache, mapper);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.DatastoreImpl;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PreLoad;
+import dev.morphia.annotations.Version;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+public class EntitySnapshotsTest extends TestBase {
+    private final UpdateRecorder recorder;
+
+    public EntitySnapshotsTest() {
+        this(new UpdateRecorder());
+    }
+
+    private EntitySnapshotsTest(final UpdateRecorder recorder) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(recorder))));
+        this.recorder = recorder;
+    }
+
+    @Before
+    public void trackChanges() {
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .changeTracking(true)
+                                                         .build());
+    }
+
+    @Test
+    public void diff() {
+        final DBObject snapshot = new BasicDBObject("_id", 1)
+                                      .append("name", "first")
+                                      .append("count", 1)
+                                      .append("address", new BasicDBObject("city", "Toronto").append("zip", "M5V"))
+                                      .append("removed", true);
+        final DBObject document = new BasicDBObject("_id", 1)
+                                      .append("name", "first")
+                                      .append("count", 2)
+                                      .append("address", new BasicDBObject("city", "Ottawa"))
+                                      .append("added", "value");
+
+        final DBObject set = new BasicDBObject("count", 2).append("address.city", "Ottawa").append("added", "value");
+        final DBObject unset = new BasicDBObject("address.zip", "").append("removed", "");
+        Assert.assertEquals(new BasicDBObject("$set", set).append("$unset", unset), EntitySnapshots.diff(snapshot, document));
+        Assert.assertTrue(EntitySnapshots.diff(document, document).keySet().isEmpty());
+    }
+
+    @Test
+    public void changedFields() {
+        getDs().save(new Profile("first", "Toronto"));
+
+        final Profile profile = getDs().find(Profile.class).get();
+        profile.count = 5;
+        profile.address.city = "Ottawa";
+        profile.nickname = null;
+        recorder.updates.clear();
+        getDs().save(profile);
+
+        Assert.assertEquals(1, recorder.updates.size());
+        Assert.assertEquals(BsonDocument.parse("{ $set: { count: 5, 'address.city': 'Ottawa' }, $unset: { nickname: '' } }"),
+                            recorder.updates.get(0));
+
+        final Profile loaded = getDs().find(Profile.class).get();
+        Assert.assertEquals(5, loaded.count);
+        Assert.assertEquals("Ottawa", loaded.address.city);
+        Assert.assertFalse(getDs().getCollection(Profile.class).findOne().containsField("nickname"));
+        Assert.assertEquals("first", loaded.name);
+
+        // the snapshot follows the saved document
+        profile.count = 6;
+        recorder.updates.clear();
+        getDs().save(profile);
+        Assert.assertEquals(BsonDocument.parse("{ $set: { count: 6 } }"), recorder.updates.get(0));
+
+        // an unchanged entity is not written
+        recorder.updates.clear();
+        getDs().save(profile);
+        Assert.assertTrue(recorder.updates.isEmpty());
+    }
+
+    @Test
+    public void directlyDecoded() {
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .directDecoding(true)
+                                                         .build());
+        getDs().save(new Profile("first", "Toronto"));
+
+        final Profile profile = getDs().find(Profile.class).get();
+        profile.count = 5;
+        recorder.updates.clear();
+        getDs().save(profile);
+
+        Assert.assertEquals(1, recorder.updates.size());
+        Assert.assertEquals(BsonDocument.parse("{ $set: { count: 5 } }"), recorder.updates.get(0));
+    }
+
+    @Test
+    public void untracked() {
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .changeTracking(false)
+                                                         .build());
+        getDs().save(new Profile("first", "Toronto"));
+
+        final Profile profile = getDs().find(Profile.class).get();
+        profile.count = 5;
+        recorder.updates.clear();
+        getDs().save(profile);
+
+        Assert.assertFalse(recorder.updates.get(0).containsKey("$set"));
+    }
+
+    @Test
+    public void removedDocument() {
+        getDs().save(new Profile("first", "Toronto"));
+        final Profile profile = getDs().find(Profile.class).get();
+        getDs().delete(profile);
+
+        profile.count = 5;
+        getDs().save(profile);
+
+        final Profile loaded = getDs().find(Profile.class).get();
+        Assert.assertEquals(5, loaded.count);
+        Assert.assertEquals("first", loaded.name);
+        Assert.assertEquals("Toronto", loaded.address.city);
+
+        // an unchanged entity is written whole once its document is removed
+        getDs().delete(loaded);
+        getDs().save(loaded);
+        Assert.assertEquals(5, getDs().find(Profile.class).get().count);
+    }
+
+    @Test
+    public void merge() {
+        getDs().save(new Profile("first", "Toronto"));
+
+        final Profile profile = getDs().find(Profile.class).get();
+        profile.count = 5;
+        recorder.updates.clear();
+        getDs().merge(profile);
+
+        Assert.assertEquals(BsonDocument.parse("{ $set: { count: 5 } }"), recorder.updates.get(0));
+        Assert.assertEquals(5, getDs().find(Profile.class).get().count);
+    }
+
+    @Test
+    public void mergeEmbedded() {
+        getDs().save(new Profile("first", "Toronto"));
+
+        final Profile profile = getDs().find(Profile.class).get();
+        profile.address.city = "Ottawa";
+        recorder.updates.clear();
+        getDs().merge(profile);
+        Assert.assertEquals(BsonDocument.parse("{ $set: { address: { city: 'Ottawa' } } }"), recorder.updates.get(0));
+
+        // the snapshot matches the merged document so saving again neither writes nor unsets anything
+        recorder.updates.clear();
+        getDs().save(profile);
+        Assert.assertTrue(recorder.updates.isEmpty());
+
+        profile.count = 3;
+        getDs().save(profile);
+        Assert.assertEquals(BsonDocument.parse("{ $set: { count: 3 } }"), recorder.updates.get(0));
+        final DBObject stored = getDs().getCollection(Profile.class).findOne();
+        Assert.assertEquals(new BasicDBObject("city", "Ottawa"), stored.get("address"));
+        Assert.assertEquals(3, stored.get("count"));
+    }
+
+    @Test
+    public void versioned() {
+        getDs().save(new Account("first"));
+
+        final Account account = getDs().find(Account.class).get();
+        final Account concurrent = getDs().find(Account.class).get();
+        account.balance = 10;
+        recorder.updates.clear();
+        getDs().save(account);
+
+        Assert.assertEquals(BsonDocument.parse("{ $set: { balance: 10, version: { $numberLong: '2' } } }"), recorder.updates.get(0));
+        Assert.assertEquals(Long.valueOf(2), account.version);
+        Assert.assertEquals(10, getDs().find(Account.class).get().balance);
+
+        concurrent.balance = 20;
+        try {
+            getDs().save(concurrent);
+            Assert.fail("The concurrent save should fail");
+        } catch (ConcurrentModificationException expected) {
+            // expected
+        }
+
+        account.balance = 30;
+        getDs().save(account);
+        Assert.assertEquals(Long.valueOf(3), account.version);
+        Assert.assertEquals(30, getDs().find(Account.class).get().balance);
+    }
+
+    @Test
+    public void preLoadChanges() {
+        getDs().getCollection(Contact.class).insert(new BasicDBObject("_id", 1)
+                                                        .append("className", Contact.class.getName())
+                                                        .append("phone", "555-1234"));
+
+        final Contact contact = getDs().find(Contact.class).get();
+        Assert.assertEquals("555-1234", contact.phoneNumber);
+        recorder.updates.clear();
+        getDs().save(contact);
+
+        // the renamed field is written and the old one removed, as the snapshot is of the document before @PreLoad
+        Assert.assertEquals(BsonDocument.parse("{ $set: { phoneNumber: '555-1234' }, $unset: { phone: '' } }"),
+                            recorder.updates.get(0));
+        Assert.assertEquals(new BasicDBObject("_id", 1).append("className", Contact.class.getName()).append("phoneNumber", "555-1234"),
+                            getDs().getCollection(Contact.class).findOne());
+    }
+
+    @Test
+    public void perDatastore() {
+        getDs().save(new Profile("first", "Toronto"));
+        final Profile profile = getDs().find(Profile.class).get();
+
+        // another datastore has no snapshot of the entity so it writes the whole document
+        recorder.updates.clear();
+        final DatastoreImpl other = (DatastoreImpl) getMorphia().createDatastore(getMongoClient(), TEST_DB_NAME);
+        other.save(profile);
+        Assert.assertFalse(recorder.updates.get(0).containsKey("$set"));
+        Assert.assertNotNull(other.getSnapshots().get(profile, "profiles"));
+        Assert.assertNotNull(((DatastoreImpl) getDs()).getSnapshots().get(profile, "profiles"));
+    }
+
+    @Entity("profiles")
+    private static class Profile {
+        @Id
+        private ObjectId id;
+        private String name;
+        private String nickname = "nick";
+        private int count;
+        private Address address;
+
+        Profile() {
+        }
+
+        Profile(final String name, final String city) {
+            this.name = name;
+            address = new Address();
+            address.city = city;
+        }
+    }
+
+    @Entity("contacts")
+    private static class Contact {
+        @Id
+        private int id;
+        private String phoneNumber;
+
+        @PreLoad
+        void rename(final DBObject dbObject) {
+            if (dbObject.containsField("phone")) {
+                dbObject.put("phoneNumber", dbObject.removeField("phone"));
+            }
+        }
+    }
+
+    @Embedded
+    private static class Address {
+        private String city;
+    }
+
+    @Entity("accounts")
+    private static class Account {
+        @Id
+        private ObjectId id;
+        @Version
+        private Long version;
+        private String name;
+        private int balance;
+
+        Account() {
+        }
+
+        Account(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static class UpdateRecorder implements CommandListener {
+        private final List<BsonDocument> updates = new ArrayList<BsonDocument>();
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("update".equals(event.getCommandName())) {
+                updates.add(event.getCommand().getArray("updates").get(0).asDocument().getDocument("u"));
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
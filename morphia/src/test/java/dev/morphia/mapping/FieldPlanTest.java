@@ -0,0 +1,94 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.NotSaved;
+import dev.morphia.converters.SimpleValueConverter;
+import dev.morphia.converters.TypeConverter;
+import dev.morphia.mapping.cache.DefaultEntityCache;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class FieldPlanTest {
+    @Test
+    public void plansAreReused() {
+        final Mapper mapper = new Mapper();
+        final MappedClass mc = mapper.getMappedClass(Station.class);
+
+        final List<FieldPlan> plans = mc.getFieldPlans(mapper);
+        Assert.assertEquals(mc.getPersistenceFields().size(), plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            Assert.assertSame(mc.getPersistenceFields().get(i), plans.get(i).getMappedField());
+            Assert.assertSame(plans.get(i), mc.getFieldPlan(mapper, plans.get(i).getMappedField()));
+        }
+        Assert.assertSame(plans, mc.getFieldPlans(mapper));
+    }
+
+    @Test
+    public void plansFollowConverters() {
+        final Mapper mapper = new Mapper();
+        final MappedClass mc = mapper.getMappedClass(Station.class);
+        final Station station = new Station();
+        station.id = new ObjectId();
+        station.temperature = new Temperature(21.5);
+        station.comment = "not saved";
+
+        final List<FieldPlan> plans = mc.getFieldPlans(mapper);
+        DBObject dbObject = mapper.toDBObject(station);
+        Assert.assertTrue(dbObject.get("temperature") instanceof DBObject);
+        Assert.assertFalse(dbObject.containsField("comment"));
+
+        final TypeConverter converter = mapper.getConverters().addConverter(new TemperatureConverter());
+        Assert.assertNotSame(plans, mc.getFieldPlans(mapper));
+        dbObject = mapper.toDBObject(station);
+        Assert.assertEquals(21.5, dbObject.get("temperature"));
+
+        final Station loaded = mapper.fromDBObject(null, Station.class, new BasicDBObject("temperature", 18.0),
+            new DefaultEntityCache());
+        Assert.assertEquals(18.0, loaded.temperature.degrees, 0);
+
+        mapper.getConverters().removeConverter(converter);
+        Assert.assertTrue(mapper.toDBObject(station).get("temperature") instanceof DBObject);
+    }
+
+    @Entity
+    private static class Station {
+        @Id
+        private ObjectId id;
+        private Temperature temperature;
+        @NotSaved
+        private String comment;
+    }
+
+    private static class Temperature {
+        private double degrees;
+
+        Temperature() {
+        }
+
+        Temperature(final double degrees) {
+            this.degrees = degrees;
+        }
+    }
+
+    private static class TemperatureConverter extends TypeConverter implements SimpleValueConverter {
+        TemperatureConverter() {
+            super(Temperature.class);
+        }
+
+        @Override
+        public Object decode(final Class targetClass, final Object fromDBObject, final MappedField optionalExtraInfo) {
+            return fromDBObject == null ? null : new Temperature((Double) fromDBObject);
+        }
+
+        @Override
+        public Object encode(final Object value, final MappedField optionalExtraInfo) {
+            return value == null ? null : ((Temperature) value).degrees;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package dev.morphia.mapping;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.AbstractEntityInterceptor;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.EntityListeners;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PostLoad;
+import dev.morphia.annotations.PrePersist;
+import dev.morphia.annotations.PreSave;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LifecycleChainTest {
+    @Test
+    public void callbacks() {
+        final Mapper mapper = new Mapper();
+        final MappedClass mc = mapper.getMappedClass(Audited.class);
+        final Audited audited = new Audited();
+
+        final DBObject original = new BasicDBObject();
+        final DBObject replaced = mc.callLifecycleMethods(PrePersist.class, audited, original, mapper);
+        Assert.assertNotSame(original, replaced);
+        Assert.assertEquals(true, replaced.get("replaced"));
+        Assert.assertEquals(1, audited.prePersisted);
+
+        mc.callLifecycleMethods(PreSave.class, audited, replaced, mapper);
+        mc.callLifecycleMethods(PreSave.class, audited, replaced, mapper);
+        Assert.assertEquals(2, audited.saves);
+        Assert.assertSame(replaced, audited.lastSaved);
+        Assert.assertSame(mapper.getInstanceCache().get(AuditListener.class), audited.listener);
+        Assert.assertEquals(1, AuditListener.created);
+    }
+
+    @Test
+    public void noCallbacks() {
+        final Mapper mapper = new Mapper();
+        final MappedClass mc = mapper.getMappedClass(Plain.class);
+        final DBObject dbObject = new BasicDBObject();
+
+        Assert.assertFalse(mc.hasLifecycle(PostLoad.class));
+        Assert.assertSame(dbObject, mc.callLifecycleMethods(PostLoad.class, new Plain(), dbObject, mapper));
+
+        final CountingInterceptor interceptor = new CountingInterceptor();
+        mapper.addInterceptor(interceptor);
+        Assert.assertSame(dbObject, mc.callLifecycleMethods(PostLoad.class, new Plain(), dbObject, mapper));
+        Assert.assertEquals(1, interceptor.count);
+    }
+
+    @Entity
+    @EntityListeners(AuditListener.class)
+    private static class Audited {
+        @Id
+        private ObjectId id;
+        private int prePersisted;
+        private int saves;
+        private DBObject lastSaved;
+        private AuditListener listener;
+
+        @PrePersist
+        DBObject prePersist(final DBObject dbObject) {
+            prePersisted++;
+            return new BasicDBObject("replaced", true);
+        }
+    }
+
+    private static class AuditListener {
+        private static int created;
+
+        AuditListener() {
+            created++;
+        }
+
+        @PreSave
+        void preSave(final Audited audited, final DBObject dbObject) {
+            audited.saves++;
+            audited.lastSaved = dbObject;
+            audited.listener = this;
+        }
+    }
+
+    @Entity
+    private static class Plain {
+        @Id
+        private ObjectId id;
+    }
+
+    private static class CountingInterceptor extends AbstractEntityInterceptor {
+        private int count;
+
+        @Override
+        public void postLoad(final Object ent, final DBObject dbObj, final Mapper mapper) {
+            count++;
+        }
+    }
+}
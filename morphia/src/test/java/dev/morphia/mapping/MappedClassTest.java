@@ -0,0 +1,55 @@
+package dev.morphia.mapping;
+
+import dev.morphia.annotations.AlsoLoad;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedClassTest {
+    @Test
+    public void fieldLookups() {
+        final MappedClass mc = new Mapper().getMappedClass(Ticket.class);
+
+        final MappedField id = mc.getMappedField("_id");
+        Assert.assertEquals("id", id.getJavaFieldName());
+        Assert.assertSame(id, mc.getMappedFieldByJavaField("id"));
+
+        final MappedField summary = mc.getMappedField("s");
+        Assert.assertEquals("summary", summary.getJavaFieldName());
+        Assert.assertSame(summary, mc.getMappedField("title"));
+        Assert.assertSame(summary, mc.getMappedField("headline"));
+        Assert.assertSame(summary, mc.getMappedFieldByJavaField("summary"));
+        Assert.assertTrue(mc.containsJavaFieldName("s"));
+
+        Assert.assertNull(mc.getMappedField("summary"));
+        Assert.assertNull(mc.getMappedFieldByJavaField("s"));
+        Assert.assertNull(mc.getMappedField("missing"));
+    }
+
+    @Test
+    public void fieldLookupsFollowChanges() {
+        final MappedClass mc = new Mapper().getMappedClass(Ticket.class);
+        final MappedField priority = mc.getMappedFieldByJavaField("priority");
+        Assert.assertNotNull(priority);
+
+        mc.getPersistenceFields().remove(priority);
+        Assert.assertNull(mc.getMappedFieldByJavaField("priority"));
+        Assert.assertNull(mc.getMappedField("priority"));
+
+        mc.getPersistenceFields().add(priority);
+        Assert.assertSame(priority, mc.getMappedField("priority"));
+    }
+
+    @Entity
+    private static class Ticket {
+        @Id
+        private ObjectId id;
+        @Property("s")
+        @AlsoLoad({"title", "headline"})
+        private String summary;
+        private int priority;
+    }
+}
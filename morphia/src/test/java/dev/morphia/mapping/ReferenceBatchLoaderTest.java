@@ -0,0 +1,195 @@
+package dev.morphia.mapping;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.DatastoreImpl;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.codec.EntityDecoderFactory;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReferenceBatchLoaderTest extends TestBase {
+    private final FindCounter counter;
+
+    public ReferenceBatchLoaderTest() {
+        this(new FindCounter());
+    }
+
+    private ReferenceBatchLoaderTest(final FindCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Test
+    public void batched() {
+        final List<Author> saved = createAuthors();
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .referenceBatchSize(4)
+                                                         .build());
+
+        counter.finds = 0;
+        final List<Author> authors = getDs().find(Author.class).order("name").asList();
+
+        // the first batch of authors fetches every book and publisher, the later batches find them all in the cache
+        Assert.assertEquals(3, counter.finds);
+        check(saved, authors);
+    }
+
+    @Test
+    public void unbatched() {
+        final List<Author> saved = createAuthors();
+
+        counter.finds = 0;
+        final List<Author> authors = getDs().find(Author.class).order("name").asList();
+
+        Assert.assertTrue(counter.finds > 3);
+        check(saved, authors);
+    }
+
+    @Test
+    public void directlyDecoded() {
+        final List<Author> saved = createAuthors();
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .directDecoding(true)
+                                                         .referenceBatchSize(100)
+                                                         .build());
+        Assert.assertTrue(((DatastoreImpl) getDs()).getDecoderFact(Author.class, null) instanceof EntityDecoderFactory);
+
+        counter.finds = 0;
+        final List<Author> authors = getDs().find(Author.class).order("name").asList();
+
+        Assert.assertEquals(3, counter.finds);
+        check(saved, authors);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBatchSize() {
+        MapperOptions.legacy().referenceBatchSize(-1);
+    }
+
+    private List<Author> createAuthors() {
+        final List<Publisher> publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 2; i++) {
+            publishers.add(new Publisher("publisher " + i));
+        }
+        getDs().save(publishers);
+
+        final List<Book> books = new ArrayList<Book>();
+        for (int i = 0; i < 5; i++) {
+            books.add(new Book("book " + i, publishers.get(i % 2)));
+        }
+        getDs().save(books);
+
+        final Book missing = new Book("missing", publishers.get(0));
+        missing.id = new ObjectId();
+
+        final List<Author> authors = new ArrayList<Author>();
+        for (int i = 0; i < 10; i++) {
+            final Author author = new Author("author " + i);
+            author.books.add(books.get(i % 5));
+            author.books.add(books.get((i + 1) % 5));
+            author.favorite = books.get((i + 2) % 5);
+            if (i == 3) {
+                author.books.add(missing);
+            }
+            authors.add(author);
+        }
+        getDs().save(authors);
+        return authors;
+    }
+
+    private void check(final List<Author> expected, final List<Author> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final Author author = actual.get(i);
+            Assert.assertEquals(expected.get(i).name, author.name);
+            Assert.assertEquals(2, author.books.size());
+            for (int j = 0; j < author.books.size(); j++) {
+                Assert.assertEquals(expected.get(i).books.get(j).name, author.books.get(j).name);
+                Assert.assertEquals(expected.get(i).books.get(j).publisher.name, author.books.get(j).publisher.name);
+            }
+            Assert.assertEquals(expected.get(i).favorite.name, author.favorite.name);
+        }
+        Assert.assertSame(actual.get(0).books.get(1), actual.get(1).books.get(0));
+    }
+
+    @Entity("batched_authors")
+    private static class Author {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference(ignoreMissing = true)
+        private List<Book> books = new ArrayList<Book>();
+        @Reference(idOnly = true)
+        private Book favorite;
+
+        Author() {
+        }
+
+        Author(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("batched_books")
+    private static class Book {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private Publisher publisher;
+
+        Book() {
+        }
+
+        Book(final String name, final Publisher publisher) {
+            this.name = name;
+            this.publisher = publisher;
+        }
+    }
+
+    @Entity("batched_publishers")
+    private static class Publisher {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Publisher() {
+        }
+
+        Publisher(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static class FindCounter implements CommandListener {
+        private volatile int finds;
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("find".equals(event.getCommandName())) {
+                finds++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package dev.morphia.mapping.access;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.MappedClass;
+import dev.morphia.mapping.MappedField;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MapperOptions;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+public class FieldAccessStrategyTest {
+    @Test
+    public void generated() throws NoSuchFieldException {
+        check(FieldAccessStrategy.GENERATED);
+        Assert.assertTrue(FieldAccessStrategy.GENERATED.createAccessor(field("name")) instanceof GeneratedFieldAccessor);
+        Assert.assertTrue(FieldAccessStrategy.GENERATED.createAccessor(field("count")) instanceof GeneratedFieldAccessor);
+        Assert.assertTrue(FieldAccessStrategy.GENERATED.createAccessor(field("hidden")) instanceof GeneratedFieldAccessor);
+        Assert.assertTrue(FieldAccessStrategy.GENERATED.createAccessor(field("secret")) instanceof GeneratedFieldAccessor);
+        Assert.assertTrue(FieldAccessStrategy.GENERATED.createAccessor(field("fixed")) instanceof ReflectiveFieldAccessor);
+    }
+
+    @Test
+    public void generatedForPrivateFields() {
+        final Mapper mapper = new Mapper(MapperOptions.builder().fieldAccessStrategy(FieldAccessStrategy.GENERATED).build());
+        final MappedClass mc = mapper.getMappedClass(Account.class);
+        for (final MappedField mf : mc.getPersistenceFields()) {
+            Assert.assertTrue(mf.getJavaFieldName(), mf.getAccessor() instanceof GeneratedFieldAccessor);
+        }
+
+        final Account account = new Account();
+        mc.getMappedField("owner").setFieldValue(account, "morphia");
+        mc.getMappedField("balance").setFieldValue(account, 12L);
+        mc.getMappedField("state").setFieldValue(account, State.OPEN);
+        Assert.assertEquals("morphia", account.owner);
+        Assert.assertEquals(12L, account.balance);
+        Assert.assertEquals(State.OPEN, account.state);
+        Assert.assertEquals(12L, mc.getMappedField("balance").getFieldValue(account));
+        Assert.assertEquals(State.OPEN, mc.getMappedField("state").getFieldValue(account));
+    }
+
+    @Test
+    public void generatedPrimitives() throws NoSuchFieldException {
+        checkPrimitives(FieldAccessStrategy.GENERATED);
+    }
+
+    @Test
+    public void reflectionPrimitives() throws NoSuchFieldException {
+        checkPrimitives(FieldAccessStrategy.REFLECTION);
+    }
+
+    @Test
+    public void reflection() throws NoSuchFieldException {
+        check(FieldAccessStrategy.REFLECTION);
+    }
+
+    private void check(final FieldAccessStrategy strategy) throws NoSuchFieldException {
+        final Holder holder = new Holder();
+
+        final FieldAccessor name = strategy.createAccessor(field("name"));
+        name.set(holder, "morphia");
+        Assert.assertEquals("morphia", holder.name);
+        Assert.assertEquals("morphia", name.get(holder));
+        name.set(holder, null);
+        Assert.assertNull(name.get(holder));
+
+        final FieldAccessor count = strategy.createAccessor(field("count"));
+        count.set(holder, 42);
+        Assert.assertEquals(42, holder.count);
+        Assert.assertEquals(42, count.get(holder));
+
+        final FieldAccessor total = strategy.createAccessor(field("total"));
+        total.set(holder, 12L);
+        Assert.assertEquals(12L, holder.total);
+        total.set(holder, 7);
+        Assert.assertEquals(7L, holder.total);
+        Assert.assertEquals(7L, total.get(holder));
+
+        final FieldAccessor ratio = strategy.createAccessor(field("ratio"));
+        ratio.set(holder, 0.5);
+        Assert.assertEquals(0.5, holder.ratio, 0);
+        Assert.assertEquals(0.5, (Double) ratio.get(holder), 0);
+
+        final FieldAccessor active = strategy.createAccessor(field("active"));
+        active.set(holder, true);
+        Assert.assertTrue(holder.active);
+        Assert.assertEquals(true, active.get(holder));
+
+        final FieldAccessor counter = strategy.createAccessor(field("counter"));
+        counter.set(holder, 3);
+        Assert.assertEquals(3, holder.counter);
+
+        final FieldAccessor hidden = strategy.createAccessor(field("hidden"));
+        hidden.set(holder, "secret");
+        Assert.assertEquals("secret", hidden.get(holder));
+
+        try {
+            name.set(holder, 12);
+            Assert.fail("Should not be able to store an Integer in a String field");
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        try {
+            count.set(holder, null);
+            Assert.fail("Should not be able to store null in a primitive field");
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        try {
+            name.get(new Object());
+            Assert.fail("Should not be able to read the field from an unrelated type");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private void checkPrimitives(final FieldAccessStrategy strategy) throws NoSuchFieldException {
+        final Holder holder = new Holder();
+
+        final FieldAccessor count = strategy.createAccessor(field("count"));
+        count.setInt(holder, 42);
+        Assert.assertEquals(42, holder.count);
+        Assert.assertEquals(42, count.getInt(holder));
+        Assert.assertEquals(42L, count.getLong(holder));
+
+        final FieldAccessor total = strategy.createAccessor(field("total"));
+        total.setLong(holder, 12L);
+        Assert.assertEquals(12L, total.getLong(holder));
+        total.setInt(holder, 7);
+        Assert.assertEquals(7L, holder.total);
+
+        final FieldAccessor ratio = strategy.createAccessor(field("ratio"));
+        ratio.setDouble(holder, 0.5);
+        Assert.assertEquals(0.5, ratio.getDouble(holder), 0);
+
+        final FieldAccessor active = strategy.createAccessor(field("active"));
+        active.setBoolean(holder, true);
+        Assert.assertTrue(active.getBoolean(holder));
+
+        final FieldAccessor secret = strategy.createAccessor(field("secret"));
+        secret.setInt(holder, 3);
+        Assert.assertEquals(3, holder.secret);
+        Assert.assertEquals(3, secret.getInt(holder));
+        secret.set(holder, 4);
+        Assert.assertEquals(4, secret.get(holder));
+
+        try {
+            count.setLong(holder, 1L);
+            Assert.fail("Should not be able to narrow a long in to an int field");
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        try {
+            count.getInt(new Object());
+            Assert.fail("Should not be able to read the field from an unrelated type");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static Field field(final String name) throws NoSuchFieldException {
+        return Holder.class.getDeclaredField(name);
+    }
+
+    private static class Holder {
+        private final int fixed = 1;
+        String name;
+        int count;
+        long total;
+        double ratio;
+        boolean active;
+        volatile int counter;
+        private String hidden;
+        private int secret;
+    }
+
+    private enum State {
+        OPEN
+    }
+
+    @Entity
+    private static class Account {
+        @Id
+        private ObjectId id;
+        private String owner;
+        private long balance;
+        private State state;
+    }
+}
@@ -0,0 +1,226 @@
+package dev.morphia.mapping.cache;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.Key;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.MapperOptions;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class SharedEntityCacheTest extends TestBase {
+    private final FindCounter counter;
+    private SharedEntityCache sharedCache;
+
+    public SharedEntityCacheTest() {
+        this(new FindCounter());
+    }
+
+    private SharedEntityCacheTest(final FindCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Before
+    public void useSharedCache() {
+        final SharedEntityCacheFactory factory = new SharedEntityCacheFactory(100, 0, TimeUnit.SECONDS);
+        sharedCache = factory.getSharedCache();
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .cacheFactory(factory)
+                                                         .build());
+    }
+
+    @Test
+    public void getByKey() {
+        final Key<Country> key = getDs().save(new Country("Canada"));
+
+        counter.finds = 0;
+        final Country first = getDs().getByKey(Country.class, key);
+        final Country second = getDs().getByKey(Country.class, key);
+
+        Assert.assertEquals(1, counter.finds);
+        Assert.assertEquals("Canada", second.name);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, sharedCache.getHits());
+    }
+
+    @Test
+    public void references() {
+        final Country country = new Country("Canada");
+        getDs().save(country);
+        getDs().save(new Tenant("first", country));
+        getDs().save(new Tenant("second", country));
+
+        counter.finds = 0;
+        Assert.assertEquals("Canada", getDs().find(Tenant.class).filter("name", "first").get().country.name);
+        Assert.assertEquals("Canada", getDs().find(Tenant.class).filter("name", "second").get().country.name);
+
+        // one find for each tenant but only one for the country they share
+        Assert.assertEquals(3, counter.finds);
+    }
+
+    @Test
+    public void invalidation() {
+        final Country country = new Country("Canada");
+        final Key<Country> key = getDs().save(country);
+        getDs().getByKey(Country.class, key);
+
+        country.name = "Mexico";
+        getDs().save(country);
+        Assert.assertEquals("Mexico", getDs().getByKey(Country.class, key).name);
+
+        getDs().update(getDs().find(Country.class).filter("name", "Mexico"),
+                       getDs().createUpdateOperations(Country.class).set("name", "Peru"));
+        Assert.assertEquals("Peru", getDs().getByKey(Country.class, key).name);
+
+        getDs().findAndModify(getDs().find(Country.class).filter("name", "Peru"),
+                              getDs().createUpdateOperations(Country.class).set("name", "Chile"));
+        Assert.assertEquals("Chile", getDs().getByKey(Country.class, key).name);
+
+        getDs().delete(country);
+        Assert.assertNull(getDs().getByKey(Country.class, key));
+    }
+
+    @Test
+    public void encodedIds() {
+        final Region region = new Region(Zone.NORTH, "north");
+        final Key<Region> key = getDs().save(region);
+
+        counter.finds = 0;
+        Assert.assertEquals("north", getDs().getByKey(Region.class, key).name);
+        Assert.assertEquals("north", getDs().getByKey(Region.class, key).name);
+        Assert.assertEquals(1, counter.finds);
+
+        // saves invalidate the document cached by its stored id
+        region.name = "arctic";
+        getDs().save(region);
+        Assert.assertEquals("arctic", getDs().getByKey(Region.class, key).name);
+    }
+
+    @Test
+    public void insertsOnlyInvalidateTheirId() {
+        final Key<Country> key = getDs().save(new Country("Canada"));
+        getDs().getByKey(Country.class, key);
+
+        // the generated id of a new entity is known once it is written, so other cached documents are kept
+        getDs().save(new Country("Mexico"));
+        counter.finds = 0;
+        Assert.assertEquals("Canada", getDs().getByKey(Country.class, key).name);
+        Assert.assertEquals(0, counter.finds);
+    }
+
+    @Test
+    public void stalePutIsIgnored() {
+        final long version = sharedCache.getVersion("countries");
+        sharedCache.invalidate("countries", "id");
+        sharedCache.put("countries", "id", new BasicDBObject("_id", "id"), version);
+        Assert.assertNull(sharedCache.get("countries", "id"));
+
+        sharedCache.put("countries", "id", new BasicDBObject("_id", "id"), sharedCache.getVersion("countries"));
+        Assert.assertNotNull(sharedCache.get("countries", "id"));
+        sharedCache.invalidate("countries");
+        Assert.assertNull(sharedCache.get("countries", "id"));
+    }
+
+    @Test
+    public void bounded() throws InterruptedException {
+        final SharedEntityCache cache = new SharedEntityCache(SharedEntityCache.SEGMENTS, 0, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            cache.put("countries", i, new BasicDBObject("_id", i), cache.getVersion("countries"));
+        }
+        Assert.assertTrue(cache.size() <= SharedEntityCache.SEGMENTS);
+        Assert.assertTrue(cache.getEvictions() >= 100 - SharedEntityCache.SEGMENTS);
+
+        final SharedEntityCache expiring = new SharedEntityCache(10, 1, TimeUnit.MILLISECONDS);
+        expiring.put("countries", 1, new BasicDBObject("_id", 1), expiring.getVersion("countries"));
+        Thread.sleep(5);
+        Assert.assertNull(expiring.get("countries", 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSize() {
+        new SharedEntityCache(0, 0, TimeUnit.SECONDS);
+    }
+
+    @Entity("countries")
+    private static class Country {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Country() {
+        }
+
+        Country(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("tenants")
+    private static class Tenant {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference
+        private Country country;
+
+        Tenant() {
+        }
+
+        Tenant(final String name, final Country country) {
+            this.name = name;
+            this.country = country;
+        }
+    }
+
+    private enum Zone {
+        NORTH
+    }
+
+    @Entity("regions")
+    private static class Region {
+        @Id
+        private Zone id;
+        private String name;
+
+        Region() {
+        }
+
+        Region(final Zone id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static class FindCounter implements CommandListener {
+        private volatile int finds;
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("find".equals(event.getCommandName())) {
+                finds++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
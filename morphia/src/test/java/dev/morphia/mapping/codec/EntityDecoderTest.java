@@ -0,0 +1,330 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DefaultDBEncoder;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.client.MongoCollection;
+import dev.morphia.Datastore;
+import dev.morphia.DatastoreImpl;
+import dev.morphia.Morphia;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.AlsoLoad;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PostLoad;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.cache.EntityCache;
+import dev.morphia.query.MorphiaIterator;
+import org.bson.BasicBSONEncoder;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class EntityDecoderTest extends TestBase {
+
+    @Test
+    public void decodeDirectly() {
+        final Datastore direct = createDirectDatastore();
+        Assert.assertTrue(((DatastoreImpl) direct).getDecoderFact(Book.class, null) instanceof EntityDecoderFactory);
+
+        final Author author = new Author("Jules Verne");
+        getDs().save(author);
+        final Book book = new Book();
+        book.title = "Twenty Thousand Leagues Under the Sea";
+        book.pages = 482;
+        book.published = new Date(-3155760000000L);
+        book.isbn = UUID.randomUUID();
+        book.cover = new byte[]{1, 2, 3};
+        book.tags = Arrays.asList("adventure", "science fiction");
+        book.ratings = new HashMap<String, Integer>();
+        book.ratings.put("critics", 4);
+        book.publisher = new Publisher("Pierre-Jules Hetzel", 1837);
+        book.author = author;
+        getDs().save(book);
+
+        final Book loaded = direct.find(Book.class).get();
+        Assert.assertEquals(book, loaded);
+        Assert.assertEquals(author, loaded.author);
+
+        final List<Book> books = direct.find(Book.class).asList();
+        Assert.assertEquals(1, books.size());
+        Assert.assertEquals(book, books.get(0));
+
+        final MorphiaIterator<Book, Book> iterator = direct.find(Book.class).fetch();
+        Assert.assertEquals(book, iterator.next());
+        iterator.close();
+    }
+
+    @Test
+    public void mongoCollection() {
+        final Book book = new Book();
+        book.title = "Around the World in Eighty Days";
+        book.pages = 256;
+        book.tags = Arrays.asList("travel");
+        getDs().save(book);
+
+        final MongoCollection<Book> collection = getDs().getDatabase().getCollection("books", Book.class);
+        Assert.assertEquals(book, collection.find().first());
+    }
+
+    @Test
+    public void userCodecsComeFirst() {
+        final AuthorCodec codec = new AuthorCodec();
+        final MongoClient client = new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().codecRegistry(
+            CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(codec), MongoClient.getDefaultCodecRegistry()))));
+        try {
+            final Datastore datastore = getMorphia().createDatastore(client, getDb().getName());
+            Assert.assertSame(codec, datastore.getDatabase().getCodecRegistry().get(Author.class));
+            Assert.assertTrue(datastore.getDatabase().getCodecRegistry().get(Book.class) instanceof EntityCodec);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void decodeStream() throws IOException {
+        final Datastore direct = createDirectDatastore();
+        final DBDecoder decoder = ((DatastoreImpl) direct).getDecoderFact(Author.class, direct.getMapper().createEntityCache()).create();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BasicBSONEncoder encoder = new BasicBSONEncoder();
+        out.write(encoder.encode(new BasicDBObject("_id", new ObjectId()).append("name", "Jules Verne")));
+        out.write(encoder.encode(new BasicDBObject("_id", new ObjectId()).append("name", "Alexandre Dumas")));
+        final InputStream in = new ByteArrayInputStream(out.toByteArray());
+
+        // each call reads one document and leaves the next in the stream
+        Assert.assertEquals("Jules Verne", ((Author) ((DecodedEntity) decoder.decode(in, (DBCollection) null)).getEntity()).name);
+        Assert.assertEquals("Alexandre Dumas", ((Author) ((DecodedEntity) decoder.decode(in, (DBCollection) null)).getEntity()).name);
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void referencesAreReadAfterDecoding() {
+        final Datastore direct = createDirectDatastore();
+        final Author author = new Author("Jules Verne");
+        getDs().save(author);
+        final Book book = new Book();
+        book.title = "Five Weeks in a Balloon";
+        book.publisher = new Publisher("Pierre-Jules Hetzel", 1837);
+        book.author = author;
+        getDs().save(book);
+
+        final EntityCache cache = direct.getMapper().createEntityCache();
+        final DBDecoder decoder = ((DatastoreImpl) direct).getDecoderFact(Book.class, cache).create();
+        final byte[] bytes = new DefaultDBEncoder().encode(getDs().getCollection(Book.class).findOne());
+        final DecodedEntity decoded = (DecodedEntity) decoder.decode(bytes, (DBCollection) null);
+
+        // nothing is fetched while the driver decodes, only the values are read
+        final Book read = (Book) decoded.getEntity();
+        Assert.assertEquals(book.title, read.title);
+        Assert.assertNull(read.author);
+        Assert.assertNull(read.publisher);
+
+        Assert.assertSame(read, direct.getMapper().fromDBObject(direct, Book.class, decoded, cache));
+        Assert.assertEquals(author, read.author);
+        Assert.assertEquals(book.publisher, read.publisher);
+    }
+
+    @Test
+    public void subtypesAndAliases() {
+        final Datastore direct = createDirectDatastore();
+
+        getDb().getCollection("books").insert(new BasicDBObject("_id", new ObjectId())
+                                                  .append("className", Novel.class.getName())
+                                                  .append("name", "Five Weeks in a Balloon")
+                                                  .append("pages", 300)
+                                                  .append("chapters", 44));
+
+        final Book loaded = direct.find(Book.class).get();
+        Assert.assertTrue(loaded instanceof Novel);
+        Assert.assertEquals("Five Weeks in a Balloon", loaded.title);
+        Assert.assertEquals(300, loaded.pages);
+        Assert.assertEquals(44, ((Novel) loaded).chapters);
+    }
+
+    @Test
+    public void lifecycleMethods() {
+        final Datastore direct = createDirectDatastore();
+
+        final Periodical periodical = new Periodical();
+        periodical.name = "Magasin d'Education et de Recreation";
+        getDs().save(periodical);
+
+        final Periodical loaded = direct.find(Periodical.class).get();
+        Assert.assertEquals(periodical.name, loaded.name);
+        Assert.assertTrue(loaded.loaded);
+    }
+
+    private Datastore createDirectDatastore() {
+        final Morphia morphia = new Morphia(new Mapper(MapperOptions.legacy()
+                                                                    .directDecoding(true)
+                                                                    .build()));
+        morphia.map(Book.class, Novel.class, Author.class, Periodical.class);
+        return morphia.createDatastore(getMongoClient(), getDb().getName());
+    }
+
+    @Entity("books")
+    private static class Book {
+        @Id
+        private ObjectId id;
+        @AlsoLoad("name")
+        private String title;
+        private int pages;
+        private Date published;
+        private UUID isbn;
+        private byte[] cover;
+        private List<String> tags;
+        private Map<String, Integer> ratings;
+        @Embedded
+        private Publisher publisher;
+        @Reference
+        private Author author;
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Book book = (Book) o;
+            return pages == book.pages
+                   && (id != null ? id.equals(book.id) : book.id == null)
+                   && (title != null ? title.equals(book.title) : book.title == null)
+                   && (published != null ? published.equals(book.published) : book.published == null)
+                   && (isbn != null ? isbn.equals(book.isbn) : book.isbn == null)
+                   && Arrays.equals(cover, book.cover)
+                   && (tags != null ? tags.equals(book.tags) : book.tags == null)
+                   && (ratings != null ? ratings.equals(book.ratings) : book.ratings == null)
+                   && (publisher != null ? publisher.equals(book.publisher) : book.publisher == null)
+                   && (author != null ? author.equals(book.author) : book.author == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return id != null ? id.hashCode() : 0;
+        }
+    }
+
+    private static class Novel extends Book {
+        private int chapters;
+    }
+
+    @Embedded
+    private static class Publisher {
+        private String name;
+        private int founded;
+
+        Publisher() {
+        }
+
+        Publisher(final String name, final int founded) {
+            this.name = name;
+            this.founded = founded;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Publisher publisher = (Publisher) o;
+            return founded == publisher.founded && (name != null ? name.equals(publisher.name) : publisher.name == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return name != null ? name.hashCode() : 0;
+        }
+    }
+
+    @Entity("authors")
+    private static class Author {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Author() {
+        }
+
+        Author(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Author author = (Author) o;
+            return (id != null ? id.equals(author.id) : author.id == null)
+                   && (name != null ? name.equals(author.name) : author.name == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return id != null ? id.hashCode() : 0;
+        }
+    }
+
+    private static class AuthorCodec implements Codec<Author> {
+        @Override
+        public Author decode(final BsonReader reader, final DecoderContext decoderContext) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void encode(final BsonWriter writer, final Author value, final EncoderContext encoderContext) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Class<Author> getEncoderClass() {
+            return Author.class;
+        }
+    }
+
+    @Entity("periodicals")
+    private static class Periodical {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient boolean loaded;
+
+        @PostLoad
+        void postLoad() {
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package dev.morphia.mapping.codec;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.client.MongoCollection;
+import dev.morphia.AdvancedDatastore;
+import dev.morphia.Datastore;
+import dev.morphia.Morphia;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PrePersist;
+import dev.morphia.annotations.Version;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MapperOptions;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+public class EntityEncoderTest extends TestBase {
+
+    @Test
+    public void saveDirectly() {
+        final Datastore direct = createDirectDatastore();
+
+        final Ship ship = new Ship("Nautilus", 70);
+        ship.crew = Arrays.asList(new Sailor("Nemo", "captain"), new Sailor("Ned Land", "harpooner"));
+        direct.save(ship);
+        Assert.assertNotNull(ship.id);
+
+        final DBObject stored = getDb().getCollection("ships").findOne();
+        Assert.assertEquals(ship.id, stored.get("_id"));
+        Assert.assertEquals(Ship.class.getName(), stored.get("className"));
+        Assert.assertEquals("Nautilus", stored.get("name"));
+        Assert.assertEquals(70, stored.get("length"));
+        Assert.assertEquals("_id", stored.keySet().iterator().next());
+
+        Assert.assertEquals(ship, getDs().get(Ship.class, ship.id));
+
+        ship.length = 71;
+        direct.save(ship);
+        Assert.assertEquals(1, getDs().getCount(Ship.class));
+        Assert.assertEquals(ship, getDs().get(Ship.class, ship.id));
+    }
+
+    @Test
+    public void insertMany() {
+        final Datastore direct = createDirectDatastore();
+
+        final List<Ship> ships = new ArrayList<Ship>();
+        ships.add(new Ship("Abraham Lincoln", 100));
+        ships.add(new Ship("Duncan", 60));
+        ((AdvancedDatastore) direct).insert(ships);
+
+        Assert.assertEquals(2, getDs().getCount(Ship.class));
+        for (final Ship ship : ships) {
+            Assert.assertNotNull(ship.id);
+            Assert.assertEquals(ship, getDs().get(Ship.class, ship.id));
+        }
+    }
+
+    @Test
+    public void versioned() {
+        final Datastore direct = createDirectDatastore();
+
+        final Logbook logbook = new Logbook();
+        logbook.entry = "Left Long Island";
+        direct.save(logbook);
+        Assert.assertEquals(Long.valueOf(1), logbook.version);
+
+        logbook.entry = "Reached the Pacific";
+        direct.save(logbook);
+        Assert.assertEquals(Long.valueOf(2), logbook.version);
+
+        final Logbook loaded = getDs().get(Logbook.class, logbook.id);
+        Assert.assertEquals("Reached the Pacific", loaded.entry);
+        Assert.assertEquals(Long.valueOf(2), loaded.version);
+    }
+
+    @Test
+    public void lifecycleMethods() {
+        final Datastore direct = createDirectDatastore();
+
+        final Harbor harbor = new Harbor();
+        harbor.name = "Vulcania";
+        direct.save(harbor);
+
+        Assert.assertTrue(harbor.persisted);
+        Assert.assertEquals("Vulcania", getDs().get(Harbor.class, harbor.id).name);
+    }
+
+    @Test
+    public void mongoCollection() {
+        final Ship ship = new Ship("Great Eastern", 211);
+        ship.id = new ObjectId();
+        ship.crew = Arrays.asList(new Sailor("Captain Anderson", "captain"));
+        final MongoCollection<Ship> collection = getDs().getDatabase().getCollection("ships", Ship.class);
+        collection.insertOne(ship);
+
+        Assert.assertEquals(ship, getDs().get(Ship.class, ship.id));
+    }
+
+    @Test
+    public void isDirectlyEncodable() {
+        final EntityEncoder encoder = new EntityEncoder(getDs(), getMongoClient().getMongoClientOptions().getCodecRegistry());
+        Assert.assertTrue(encoder.isDirectlyEncodable(getMorphia().getMapper().getMappedClass(Ship.class)));
+        Assert.assertFalse(encoder.isDirectlyEncodable(getMorphia().getMapper().getMappedClass(Harbor.class)));
+
+        final Ship ship = new Ship("Nautilus", 70);
+        ship.id = new ObjectId();
+        final EntityDocument document = encoder.toDocument(ship, new HashMap<Object, DBObject>());
+        Assert.assertSame(ship, document.getEntity());
+        Assert.assertEquals(ship.id, document.get("_id"));
+        Assert.assertFalse(document.containsField("name"));
+    }
+
+    @Test
+    public void encodedOncePerWrite() {
+        final EntityEncoder encoder = new EntityEncoder(getDs(), getMongoClient().getMongoClientOptions().getCodecRegistry());
+        final Ship ship = new Ship("Nautilus", 70);
+        ship.id = new ObjectId();
+        final EntityDocument document = encoder.toDocument(ship, new HashMap<Object, DBObject>());
+
+        final BasicOutputBuffer first = new BasicOutputBuffer();
+        encoder.writeObject(first, document);
+        ship.name = "Argonaut";
+        final BasicOutputBuffer second = new BasicOutputBuffer();
+        encoder.writeObject(second, document);
+        Assert.assertArrayEquals(first.toByteArray(), second.toByteArray());
+
+        document.put("_id", ship.id);
+        final BasicOutputBuffer changed = new BasicOutputBuffer();
+        encoder.writeObject(changed, document);
+        Assert.assertEquals("Argonaut", new DefaultDBDecoder().decode(changed.toByteArray(), (DBCollection) null).get("name"));
+    }
+
+    private Datastore createDirectDatastore() {
+        final Morphia morphia = new Morphia(new Mapper(MapperOptions.legacy()
+                                                                    .directEncoding(true)
+                                                                    .build()));
+        morphia.map(Ship.class, Logbook.class, Harbor.class);
+        return morphia.createDatastore(getMongoClient(), getDb().getName());
+    }
+
+    @Entity("ships")
+    private static class Ship {
+        @Id
+        private ObjectId id;
+        private String name;
+        private int length;
+        private List<Sailor> crew;
+
+        Ship() {
+        }
+
+        Ship(final String name, final int length) {
+            this.name = name;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Ship ship = (Ship) o;
+            return length == ship.length
+                   && (id != null ? id.equals(ship.id) : ship.id == null)
+                   && (name != null ? name.equals(ship.name) : ship.name == null)
+                   && (crew != null ? crew.equals(ship.crew) : ship.crew == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return id != null ? id.hashCode() : 0;
+        }
+    }
+
+    @Embedded
+    private static class Sailor {
+        private String name;
+        private String rank;
+
+        Sailor() {
+        }
+
+        Sailor(final String name, final String rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Sailor sailor = (Sailor) o;
+            return (name != null ? name.equals(sailor.name) : sailor.name == null)
+                   && (rank != null ? rank.equals(sailor.rank) : sailor.rank == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return name != null ? name.hashCode() : 0;
+        }
+    }
+
+    @Entity("logbooks")
+    private static class Logbook {
+        @Id
+        private ObjectId id;
+        @Version
+        private Long version;
+        private String entry;
+    }
+
+    @Entity("harbors")
+    private static class Harbor {
+        @Id
+        private ObjectId id;
+        private String name;
+        private transient boolean persisted;
+
+        @PrePersist
+        void prePersist() {
+            persisted = true;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.morphia.mapping.instantiation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InstantiationStrategyTest {
+    @Test
+    public void generated() throws Exception {
+        final Instantiator<Widget> widgets = InstantiationStrategy.GENERATED.createInstantiator(Widget.class.getDeclaredConstructor());
+        Assert.assertTrue(widgets instanceof GeneratedInstantiator);
+        Assert.assertEquals("created", widgets.newInstance().state);
+        Assert.assertNotSame(widgets.newInstance(), widgets.newInstance());
+
+        final Instantiator<Hidden> hidden = InstantiationStrategy.GENERATED.createInstantiator(Hidden.class.getDeclaredConstructor());
+        Assert.assertTrue(hidden instanceof ReflectiveInstantiator);
+        Assert.assertNotNull(hidden.newInstance());
+
+        final Instantiator<Failing> failing = InstantiationStrategy.GENERATED.createInstantiator(Failing.class.getDeclaredConstructor());
+        Assert.assertTrue(failing instanceof GeneratedInstantiator);
+        try {
+            failing.newInstance();
+            Assert.fail("The constructor's exception should be thrown");
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void reflection() throws Exception {
+        final Instantiator<Widget> widgets = InstantiationStrategy.REFLECTION.createInstantiator(Widget.class.getDeclaredConstructor());
+        Assert.assertTrue(widgets instanceof ReflectiveInstantiator);
+        Assert.assertEquals("created", widgets.newInstance().state);
+
+        final Instantiator<Hidden> hidden = InstantiationStrategy.REFLECTION.createInstantiator(Hidden.class.getDeclaredConstructor());
+        Assert.assertNotNull(hidden.newInstance());
+    }
+
+    public static class Widget {
+        private String state;
+
+        public Widget() {
+            state = "created";
+        }
+    }
+
+    public static class Failing {
+        public Failing() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    private static class Hidden {
+        private Hidden() {
+        }
+    }
+}
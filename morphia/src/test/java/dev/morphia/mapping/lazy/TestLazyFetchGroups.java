@@ -0,0 +1,195 @@
+package dev.morphia.mapping.lazy;
+
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.Datastore;
+import dev.morphia.Key;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.lazy.proxy.ProxiedReference;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+
+public class TestLazyFetchGroups extends TestBase {
+    private final FindCounter counter;
+
+    public TestLazyFetchGroups() {
+        this(new FindCounter());
+    }
+
+    private TestLazyFetchGroups(final FindCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Test
+    public void fetchGroups() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .fetchGroupSize(4)
+                                                         .build());
+        final List<Parent> parents = createParents();
+
+        counter.finds = 0;
+        Assert.assertEquals("child 0", parents.get(0).getChild().getName());
+        Assert.assertEquals(1, counter.finds);
+        for (int i = 0; i < parents.size(); i++) {
+            Assert.assertEquals(i < 4, isFetched(parents.get(i).getChild()));
+        }
+
+        Assert.assertEquals("child 3", parents.get(3).getChild().getName());
+        Assert.assertEquals(1, counter.finds);
+
+        Assert.assertEquals("child 5", parents.get(5).getChild().getName());
+        Assert.assertEquals(2, counter.finds);
+        Assert.assertTrue(isFetched(parents.get(4).getChild()));
+        Assert.assertNull(((ProxiedReference) parents.get(6).getChild()).__unwrap());
+        Assert.assertEquals(2, counter.finds);
+    }
+
+    @Test
+    public void withoutFetchGroups() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+        final List<Parent> parents = createParents();
+
+        counter.finds = 0;
+        Assert.assertEquals("child 0", parents.get(0).getChild().getName());
+        Assert.assertEquals(1, counter.finds);
+        Assert.assertFalse(isFetched(parents.get(1).getChild()));
+    }
+
+    @Test
+    public void factoryWithoutFetchGroups() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .fetchGroupSize(4)
+                                                         .proxyFactory(new PlainProxyFactory())
+                                                         .build());
+        final List<Parent> parents = createParents();
+
+        counter.finds = 0;
+        Assert.assertEquals("child 0", parents.get(0).getChild().getName());
+        Assert.assertEquals(1, counter.finds);
+        Assert.assertFalse(isFetched(parents.get(1).getChild()));
+    }
+
+    private List<Parent> createParents() {
+        final List<Parent> parents = new ArrayList<Parent>();
+        for (int i = 0; i < 6; i++) {
+            final Child child = new Child("child " + i);
+            getDs().save(child);
+            parents.add(new Parent(i, child));
+        }
+        final Child missing = new Child("missing");
+        missing.id = new ObjectId();
+        parents.add(new Parent(6, missing));
+        getDs().save(parents);
+
+        return getDs().find(Parent.class).order("index").asList();
+    }
+
+    private boolean isFetched(final Object proxy) {
+        return ((ProxiedReference) proxy).__isFetched();
+    }
+
+    @Entity("fetch_group_parents")
+    public static class Parent {
+        @Id
+        private ObjectId id;
+        private int index;
+        @Reference(lazy = true, ignoreMissing = true)
+        private Child child;
+
+        public Parent() {
+        }
+
+        Parent(final int index, final Child child) {
+            this.index = index;
+            this.child = child;
+        }
+
+        public Child getChild() {
+            return child;
+        }
+    }
+
+    @Entity("fetch_group_children")
+    public static class Child {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        public Child() {
+        }
+
+        Child(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class PlainProxyFactory implements LazyProxyFactory {
+        private final LazyProxyFactory delegate = new CGLibLazyProxyFactory();
+
+        @Override
+        public <T extends Collection> T createListProxy(final Datastore datastore, final T listToProxy, final Class referenceObjClass,
+                                                        final boolean ignoreMissing) {
+            return delegate.createListProxy(datastore, listToProxy, referenceObjClass, ignoreMissing);
+        }
+
+        @Override
+        public <T extends Map> T createMapProxy(final Datastore datastore, final T mapToProxy, final Class referenceObjClass,
+                                                final boolean ignoreMissing) {
+            return delegate.createMapProxy(datastore, mapToProxy, referenceObjClass, ignoreMissing);
+        }
+
+        @Override
+        public <T> T createProxy(final Datastore datastore, final Class<T> targetClass, final Key<T> key, final boolean ignoreMissing) {
+            return delegate.createProxy(datastore, targetClass, key, ignoreMissing);
+        }
+    }
+
+    private static class FindCounter implements CommandListener {
+        private volatile int finds;
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("find".equals(event.getCommandName())) {
+                finds++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package dev.morphia.mapping.lazy;
+
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReference;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceList;
+import dev.morphia.mapping.lazy.proxy.ProxiedEntityReferenceMap;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class TestLightweightLazyProxyFactory extends ProxyTestBase {
+
+    @Before
+    public void useFactory() {
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .proxyFactory(new LightweightLazyProxyFactory())
+                                                         .build());
+    }
+
+    @Test
+    public void singleReferences() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+        final Holder loaded = saveAndLoad();
+
+        assertIsProxy(loaded.item);
+        assertNotFetched(loaded.item);
+        Assert.assertFalse(loaded.item.getClass().getName().contains("Dispatching"));
+        Assert.assertSame(loaded.item.getClass(), loaded.other.getClass());
+        Assert.assertNotNull(((ProxiedEntityReference) loaded.item).__getKey().getId());
+        assertNotFetched(loaded.item);
+
+        Assert.assertEquals("first", loaded.item.getName());
+        assertFetched(loaded.item);
+        assertNotFetched(loaded.other);
+        Assert.assertEquals("second", loaded.other.getName());
+    }
+
+    @Test
+    public void listAndMapReferences() {
+        if (!LazyFeatureDependencies.testDependencyFullFilled()) {
+            return;
+        }
+        final Holder loaded = saveAndLoad();
+
+        Assert.assertTrue(loaded.list instanceof ProxiedEntityReferenceList);
+        assertNotFetched(loaded.list);
+        Assert.assertEquals(2, ((ProxiedEntityReferenceList) loaded.list).__getKeysAsList().size());
+        Assert.assertEquals("second", loaded.list.get(1).getName());
+        assertFetched(loaded.list);
+
+        Assert.assertTrue(loaded.map instanceof ProxiedEntityReferenceMap);
+        assertNotFetched(loaded.map);
+        Assert.assertEquals("first", loaded.map.get("a").getName());
+        assertFetched(loaded.map);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void missingReference() {
+        final Item missing = new Item("missing");
+        missing.id = new ObjectId();
+        final Holder holder = new Holder();
+        holder.item = missing;
+        getDs().save(holder);
+
+        getDs().get(holder).item.getName();
+    }
+
+    private Holder saveAndLoad() {
+        final Item first = new Item("first");
+        final Item second = new Item("second");
+        getDs().save(first);
+        getDs().save(second);
+
+        final Holder holder = new Holder();
+        holder.item = first;
+        holder.other = second;
+        holder.list.add(first);
+        holder.list.add(second);
+        holder.map.put("a", first);
+        getDs().save(holder);
+
+        return getDs().get(holder);
+    }
+
+    @Entity("lightweight_holders")
+    public static class Holder {
+        @Id
+        private ObjectId id;
+        @Reference(lazy = true)
+        private Item item;
+        @Reference(lazy = true)
+        private Item other;
+        @Reference(lazy = true)
+        private List<Item> list = new ArrayList<Item>();
+        @Reference(lazy = true)
+        private Map<String, Item> map = new HashMap<String, Item>();
+    }
+
+    @Entity("lightweight_items")
+    public static class Item {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        public Item() {
+        }
+
+        Item(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
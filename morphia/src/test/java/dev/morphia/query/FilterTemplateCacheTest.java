@@ -0,0 +1,135 @@
+package dev.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Embedded;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import dev.morphia.mapping.Mapper;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class FilterTemplateCacheTest extends TestBase {
+    private Mapper mapper;
+    private FilterTemplateCache templates;
+
+    @Before
+    public void mapClasses() {
+        getMorphia().map(Order.class);
+        mapper = getMorphia().getMapper();
+        templates = mapper.getFilterTemplates();
+        // resolving the paths once maps the field types, which clears the cache
+        templates.forCondition(mapper, Order.class, "total", true);
+        templates.forCondition(mapper, Order.class, "address.city", true);
+        templates.clear();
+    }
+
+    @Test
+    public void conditions() {
+        final FilterTemplate template = templates.forCondition(mapper, Order.class, " total >= ", true);
+        Assert.assertEquals("amount", template.getPath());
+        Assert.assertEquals(FilterOperator.GREATER_THAN_OR_EQUAL, template.getOperator());
+        Assert.assertEquals("total", template.getTarget().getJavaFieldName());
+        Assert.assertSame(template, templates.forCondition(mapper, Order.class, " total >= ", true));
+
+        Assert.assertEquals(FilterOperator.EQUAL, templates.forCondition(mapper, Order.class, "total", true).getOperator());
+        Assert.assertEquals("address.town", templates.forCondition(mapper, Order.class, "address.city", true).getPath());
+        Assert.assertEquals(3, templates.size());
+    }
+
+    @Test
+    public void fields() {
+        final FilterTemplate field = templates.forField(mapper, Order.class, "total", true);
+        Assert.assertEquals("amount", field.getPath());
+        Assert.assertNotSame(field, templates.forCondition(mapper, Order.class, "total", true));
+        Assert.assertSame(field, templates.forField(mapper, Order.class, "total", true));
+
+        // unvalidated paths are kept as given
+        Assert.assertEquals("unknown.path", templates.forField(mapper, Order.class, "unknown.path", false).getPath());
+        Assert.assertNull(templates.forField(mapper, Order.class, "unknown.path", false).getTarget());
+    }
+
+    @Test
+    public void invalidConditions() {
+        try {
+            templates.forCondition(mapper, Order.class, "unknown", true);
+            Assert.fail("The unknown field should fail validation");
+        } catch (ValidationException expected) {
+            // expected
+        }
+        try {
+            templates.forCondition(mapper, Order.class, "total > 1 2 3 4 5", true);
+            Assert.fail("The condition has too many parts");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        Assert.assertEquals(0, templates.size());
+    }
+
+    @Test
+    public void valueClasses() {
+        final FilterTemplate template = templates.forCondition(mapper, Order.class, "address", true);
+        Assert.assertSame(mapper.getMappedClass(Address.class), template.getValueClass(mapper, new Address()));
+        Assert.assertNull(template.getValueClass(mapper, "value"));
+        Assert.assertNull(template.getValueClass(mapper, null));
+    }
+
+    @Test
+    public void mappingClears() {
+        templates.forCondition(mapper, Order.class, "total", true);
+        getMorphia().map(Customer.class);
+        Assert.assertEquals(0, templates.size());
+    }
+
+    @Test
+    public void queries() {
+        final Query<Order> query = getDs().find(Order.class)
+                                          .filter("total >", 10)
+                                          .filter("address.city", "Ottawa");
+        query.field("total").lessThan(100);
+
+        Assert.assertEquals(new BasicDBObject("$and", Arrays.asList(
+            new BasicDBObject("amount", new BasicDBObject("$gt", 10)),
+            new BasicDBObject("address.town", "Ottawa"),
+            new BasicDBObject("amount", new BasicDBObject("$lt", 100)))), query.getQueryObject());
+
+        getDs().save(new Order(50, "Ottawa"));
+        Assert.assertEquals(1, getDs().find(Order.class).filter("total >", 10).filter("address.city", "Ottawa").count());
+        Assert.assertEquals(0, getDs().find(Order.class).filter("total >", 60).filter("address.city", "Ottawa").count());
+    }
+
+    @Entity("orders")
+    private static class Order {
+        @Id
+        private ObjectId id;
+        @Property("amount")
+        private int total;
+        private Address address;
+
+        Order() {
+        }
+
+        Order(final int total, final String city) {
+            this.total = total;
+            address = new Address();
+            address.city = city;
+        }
+    }
+
+    @Embedded
+    private static class Address {
+        @Property("town")
+        private String city;
+    }
+
+    @Entity("customers")
+    private static class Customer {
+        @Id
+        private ObjectId id;
+    }
+}
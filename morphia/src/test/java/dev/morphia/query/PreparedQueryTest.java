@@ -0,0 +1,153 @@
+package dev.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.morphia.query.PreparedQuery.param;
+
+public class PreparedQueryTest extends TestBase {
+    @Before
+    public void saveTasks() {
+        getMorphia().map(Task.class);
+        getDs().save(Arrays.asList(new Task("open", 3), new Task("open", 1), new Task("closed", 2), new Task("review", 5)));
+    }
+
+    @Test
+    public void bindValues() {
+        final PreparedQuery<Task> query = getDs().find(Task.class)
+                                                 .filter("status", param("status"))
+                                                 .order("priority")
+                                                 .prepare();
+        Assert.assertEquals(Collections.singleton("status"), query.getParameterNames());
+
+        final List<Task> open = query.asList(values("status", "open"));
+        Assert.assertEquals(2, open.size());
+        Assert.assertEquals(1, open.get(0).priority);
+        Assert.assertEquals(3, open.get(1).priority);
+
+        Assert.assertEquals(1, query.count(values("status", "closed")));
+        Assert.assertNull(query.get(values("status", "unknown")));
+        Assert.assertEquals(new BasicDBObject("state", "review"), query.bind(values("status", "review")).getQueryObject());
+    }
+
+    @Test
+    public void operators() {
+        final PreparedQuery<Task> query = getDs().find(Task.class)
+                                                 .filter("status in", param("statuses"))
+                                                 .filter("priority >", 0)
+                                                 .field("priority").lessThan(param("max"))
+                                                 .prepare();
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put("statuses", Arrays.asList("open", "review"));
+        values.put("max", 4);
+        Assert.assertEquals(2, query.count(values));
+
+        values.put("statuses", "review");
+        values.put("max", 6);
+        Assert.assertEquals(1, query.count(values));
+        Assert.assertEquals(new BasicDBObject("$and", Arrays.asList(
+            new BasicDBObject("state", new BasicDBObject("$in", Collections.singletonList("review"))),
+            new BasicDBObject("priority", new BasicDBObject("$gt", 0)),
+            new BasicDBObject("priority", new BasicDBObject("$lt", 6)))), query.bind(values).getQueryObject());
+    }
+
+    @Test
+    public void boundQueriesAreIndependent() {
+        final PreparedQuery<Task> prepared = getDs().find(Task.class)
+                                                    .filter("status", param("status"))
+                                                    .filter("priority >", 0)
+                                                    .prepare();
+        final Query<Task> first = prepared.bind(values("status", "open"));
+        final DBObject document = first.getQueryObject();
+        document.put("$comment", "changed");
+        final Query<Task> second = prepared.bind(values("status", "closed"));
+
+        Assert.assertNull(second.getQueryObject().get("$comment"));
+        Assert.assertEquals(2, first.asList().size());
+        Assert.assertEquals(1, second.asList().size());
+
+        // bound queries can still be refined
+        Assert.assertEquals(1, prepared.bind(values("status", "open")).filter("priority", 3).count());
+        Assert.assertEquals(2, prepared.count(values("status", "open")));
+    }
+
+    @Test
+    public void matchesPlainQueries() {
+        final Query<Task> query = getDs().find(Task.class).filter("status", param("status")).order("-priority");
+        final PreparedQuery<Task> prepared = query.prepare();
+
+        // later changes to the query are not prepared
+        query.filter("priority", 100);
+
+        for (final String status : Arrays.asList("open", "closed", "review")) {
+            final Query<Task> plain = getDs().find(Task.class).filter("status", status).order("-priority");
+            Assert.assertEquals(plain.getQueryObject(), prepared.bind(values("status", status)).getQueryObject());
+            Assert.assertEquals(priorities(plain.asList()), priorities(prepared.asList(values("status", status))));
+        }
+    }
+
+    @Test
+    public void missingValues() {
+        final PreparedQuery<Task> query = getDs().find(Task.class).filter("status", param("status")).prepare();
+        try {
+            query.bind(Collections.<String, Object>emptyMap());
+            Assert.fail("The parameter has no value");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            final Map<String, Object> values = values("status", "open");
+            values.put("other", 1);
+            query.bind(values);
+            Assert.fail("The query has no such parameter");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static Map<String, Object> values(final String name, final Object value) {
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put(name, value);
+        return values;
+    }
+
+    private static List<Integer> priorities(final List<Task> tasks) {
+        final List<Integer> priorities = new ArrayList<Integer>();
+        for (final Task task : tasks) {
+            priorities.add(task.priority);
+        }
+        return priorities;
+    }
+
+    @Entity("tasks")
+    private static class Task {
+        @Id
+        private ObjectId id;
+        @Property("state")
+        private String status;
+        private int priority;
+
+        Task() {
+        }
+
+        Task(final String status, final int priority) {
+            this.status = status;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package dev.morphia.query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QueryIncludeTest extends TestBase {
+    private final QueryCounter counter;
+
+    public QueryIncludeTest() {
+        this(new QueryCounter());
+    }
+
+    private QueryIncludeTest(final QueryCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Test
+    public void include() {
+        final List<Team> saved = createTeams();
+
+        counter.reset();
+        final List<Team> teams = getDs().find(Team.class)
+                                        .include("members", "captain", "viceCaptain")
+                                        .order("name")
+                                        .asList(new FindOptions().skip(1).limit(3));
+
+        Assert.assertEquals(0, counter.finds);
+        Assert.assertEquals(1, counter.aggregates);
+        Assert.assertEquals(3, teams.size());
+        for (int i = 0; i < teams.size(); i++) {
+            final Team expected = saved.get(i + 1);
+            final Team team = teams.get(i);
+            Assert.assertEquals(expected.name, team.name);
+            Assert.assertEquals(2, team.members.size());
+            Assert.assertEquals(expected.members.get(0).name, team.members.get(0).name);
+            Assert.assertEquals(expected.members.get(1).name, team.members.get(1).name);
+            Assert.assertEquals(expected.captain.name, team.captain.name);
+            Assert.assertEquals(expected.viceCaptain.name, team.viceCaptain.name);
+        }
+        Assert.assertSame(teams.get(0).members.get(1), teams.get(1).members.get(0));
+    }
+
+    @Test
+    public void partialInclude() {
+        final List<Team> saved = createTeams();
+
+        counter.reset();
+        final Team team = getDs().find(Team.class)
+                                 .filter("name", saved.get(0).name)
+                                 .include("captain")
+                                 .get();
+
+        // the first member is the captain so only the second member, who is also the vice captain, is fetched separately
+        Assert.assertEquals(1, counter.aggregates);
+        Assert.assertEquals(1, counter.finds);
+        Assert.assertEquals(saved.get(0).captain.name, team.captain.name);
+        Assert.assertEquals(saved.get(0).members.get(0).name, team.members.get(0).name);
+    }
+
+    @Test
+    public void includeWithProjection() {
+        final List<Team> saved = createTeams();
+
+        final Team team = getDs().find(Team.class)
+                                 .filter("name", saved.get(0).name)
+                                 .project("name", true)
+                                 .project("members", true)
+                                 .include("members")
+                                 .get();
+
+        Assert.assertEquals(saved.get(0).name, team.name);
+        Assert.assertEquals(saved.get(0).members.get(1).name, team.members.get(1).name);
+        Assert.assertNull(team.captain);
+    }
+
+    @Test
+    public void dbRefFieldOrder() {
+        final List<Team> saved = createTeams();
+        // a DBRef written with its fields in another order still has its id found
+        getDs().getCollection(Team.class).update(new BasicDBObject("_id", saved.get(0).id), new BasicDBObject("$set",
+            new BasicDBObject("viceCaptain", new BasicDBObject("$id", saved.get(0).viceCaptain.id).append("$ref", "include_players"))));
+
+        counter.reset();
+        final Team team = getDs().find(Team.class)
+                                 .filter("name", saved.get(0).name)
+                                 .include("viceCaptain")
+                                 .get();
+        Assert.assertEquals(saved.get(0).viceCaptain.name, team.viceCaptain.name);
+        // the other references are only fetched separately if they were not joined
+        Assert.assertEquals(1, counter.finds);
+    }
+
+    @Test(expected = ValidationException.class)
+    @SuppressWarnings("deprecation")
+    public void fetchRejectsIncludes() {
+        getDs().find(Team.class).include("members").fetch();
+    }
+
+    @Test(expected = ValidationException.class)
+    public void notAReference() {
+        getDs().find(Team.class).include("name");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void unknownField() {
+        getDs().find(Team.class).include("coach");
+    }
+
+    private List<Team> createTeams() {
+        final List<Player> players = new ArrayList<Player>();
+        for (int i = 0; i < 6; i++) {
+            players.add(new Player("player " + i));
+        }
+        getDs().save(players);
+
+        final Player retired = new Player("retired");
+        retired.id = new ObjectId();
+
+        final List<Team> teams = new ArrayList<Team>();
+        for (int i = 0; i < 5; i++) {
+            final Team team = new Team("team " + i);
+            team.members.add(players.get(i));
+            team.members.add(players.get(i + 1));
+            team.captain = players.get(i);
+            team.viceCaptain = players.get(i + 1);
+            if (i == 2) {
+                team.members.add(retired);
+            }
+            teams.add(team);
+        }
+        getDs().save(teams);
+        return teams;
+    }
+
+    @Entity("include_teams")
+    private static class Team {
+        @Id
+        private ObjectId id;
+        private String name;
+        @Reference(ignoreMissing = true)
+        private List<Player> members = new ArrayList<Player>();
+        @Reference(idOnly = true)
+        private Player captain;
+        @Reference
+        private Player viceCaptain;
+
+        Team() {
+        }
+
+        Team(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("include_players")
+    private static class Player {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Player() {
+        }
+
+        Player(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static class QueryCounter implements CommandListener {
+        private volatile int finds;
+        private volatile int aggregates;
+
+        void reset() {
+            finds = 0;
+            aggregates = 0;
+        }
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("find".equals(event.getCommandName())) {
+                finds++;
+            } else if ("aggregate".equals(event.getCommandName())) {
+                aggregates++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package dev.morphia.query;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.Key;
+import dev.morphia.TestBase;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.MapperOptions;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class QueryResultCacheTest extends TestBase {
+    private final FindCounter counter;
+    private QueryResultCache resultCache;
+
+    public QueryResultCacheTest() {
+        this(new FindCounter());
+    }
+
+    private QueryResultCacheTest(final FindCounter counter) {
+        super(new MongoClient(new MongoClientURI(getMongoURI(), MongoClientOptions.builder().addCommandListener(counter))));
+        this.counter = counter;
+    }
+
+    @Before
+    public void useResultCache() {
+        resultCache = new QueryResultCache(10, 100);
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .queryResultCache(resultCache)
+                                                         .build());
+    }
+
+    @Test
+    public void cachedResults() {
+        createFlags();
+
+        counter.finds = 0;
+        final List<Flag> first = enabled().asList();
+        final List<Flag> second = enabled().asList();
+
+        Assert.assertEquals(1, counter.finds);
+        Assert.assertEquals(2, second.size());
+        Assert.assertEquals("alpha", second.get(0).name);
+        Assert.assertNotSame(first.get(0), second.get(0));
+
+        Assert.assertEquals("alpha", enabled().get().name);
+        Assert.assertEquals(2, counter.finds);
+        Assert.assertEquals("alpha", enabled().get().name);
+        Assert.assertEquals(2, counter.finds);
+
+        final List<Key<Flag>> keys = enabled().asKeyList();
+        Assert.assertEquals(keys, enabled().asKeyList());
+        Assert.assertEquals(3, counter.finds);
+
+        // the sort is part of the key
+        Assert.assertEquals("gamma", getDs().find(Flag.class).filter("enabled", true).order("-name").cacheResults().asList().get(0).name);
+        Assert.assertEquals(4, counter.finds);
+    }
+
+    @Test
+    public void uncachedQueries() {
+        createFlags();
+
+        counter.finds = 0;
+        getDs().find(Flag.class).filter("enabled", true).asList();
+        getDs().find(Flag.class).filter("enabled", true).asList();
+
+        Assert.assertEquals(2, counter.finds);
+        Assert.assertEquals(0, resultCache.size());
+    }
+
+    @Test
+    public void writesInvalidate() {
+        createFlags();
+        Assert.assertEquals(2, enabled().asList().size());
+
+        getDs().save(new Flag("delta", true));
+        Assert.assertEquals(3, enabled().asList().size());
+
+        getDs().update(getDs().find(Flag.class).filter("name", "delta"), getDs().createUpdateOperations(Flag.class).set("enabled", false));
+        Assert.assertEquals(2, enabled().asList().size());
+
+        getDs().delete(getDs().find(Flag.class).filter("name", "alpha"));
+        Assert.assertEquals(1, enabled().asList().size());
+
+        getDs().findAndModify(getDs().find(Flag.class).filter("name", "delta"),
+                              getDs().createUpdateOperations(Flag.class).set("enabled", true));
+        Assert.assertEquals(2, enabled().asList().size());
+    }
+
+    @Test
+    public void includesAreNotCached() {
+        final Owner owner = new Owner("first");
+        getDs().save(owner);
+        final Toggle toggle = new Toggle();
+        toggle.owner = owner;
+        getDs().save(toggle);
+
+        Assert.assertEquals("first", getDs().find(Toggle.class).include("owner").cacheResults().asList().get(0).owner.name);
+
+        // the joined owner is not stale once its own collection is written to
+        owner.name = "second";
+        getDs().save(owner);
+        Assert.assertEquals("second", getDs().find(Toggle.class).include("owner").cacheResults().asList().get(0).owner.name);
+        Assert.assertEquals(0, resultCache.size());
+    }
+
+    @Test
+    public void bounded() {
+        resultCache = new QueryResultCache(1, 1);
+        getMorphia().getMapper().setOptions(MapperOptions.builder(getMorphia().getMapper().getOptions())
+                                                         .queryResultCache(resultCache)
+                                                         .build());
+        createFlags();
+
+        enabled().asList();
+        Assert.assertEquals(0, resultCache.size());
+
+        getDs().find(Flag.class).filter("name", "alpha").cacheResults().asList();
+        getDs().find(Flag.class).filter("name", "gamma").cacheResults().asList();
+        Assert.assertEquals(1, resultCache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSize() {
+        new QueryResultCache(0, 10);
+    }
+
+    private Query<Flag> enabled() {
+        return getDs().find(Flag.class).filter("enabled", true).order("name").cacheResults();
+    }
+
+    private void createFlags() {
+        getDs().save(new Flag("alpha", true));
+        getDs().save(new Flag("beta", false));
+        getDs().save(new Flag("gamma", true));
+    }
+
+    @Entity("flags")
+    private static class Flag {
+        @Id
+        private ObjectId id;
+        private String name;
+        private boolean enabled;
+
+        Flag() {
+        }
+
+        Flag(final String name, final boolean enabled) {
+            this.name = name;
+            this.enabled = enabled;
+        }
+    }
+
+    @Entity("toggles")
+    private static class Toggle {
+        @Id
+        private ObjectId id;
+        @Reference
+        private Owner owner;
+    }
+
+    @Entity("owners")
+    private static class Owner {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Owner() {
+        }
+
+        Owner(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static class FindCounter implements CommandListener {
+        private volatile int finds;
+
+        @Override
+        public void commandStarted(final CommandStartedEvent event) {
+            if ("find".equals(event.getCommandName())) {
+                finds++;
+            }
+        }
+
+        @Override
+        public void commandSucceeded(final CommandSucceededEvent event) {
+        }
+
+        @Override
+        public void commandFailed(final CommandFailedEvent event) {
+        }
+    }
+}
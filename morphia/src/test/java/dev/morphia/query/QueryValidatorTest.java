@@ -489,6 +489,36 @@ public class QueryValidatorTest {
         new PathTarget(new Mapper(), WithSerializedField.class, "serialized.name").getTarget();
     }
 
+    @Test
+    public void shouldCacheCompatibleVerdicts() {
+        QueryValidator.clear();
+        long validations = QueryValidator.getValidations();
+        for (int i = 0; i < 3; i++) {
+            assertThat(QueryValidator.isCompatibleForOperator(null, null, Integer.class, EQUAL, i, new ArrayList<ValidationFailure>()),
+                       is(true));
+        }
+        assertThat(QueryValidator.getValidations() - validations, is(1L));
+
+        // another value class is validated again
+        validations = QueryValidator.getValidations();
+        List<ValidationFailure> failures = new ArrayList<ValidationFailure>();
+        assertThat(QueryValidator.isCompatibleForOperator(null, null, Integer.class, EQUAL, 1L, failures), is(false));
+        assertThat(QueryValidator.isCompatibleForOperator(null, null, Integer.class, EQUAL, 2L, failures), is(false));
+        assertThat(failures.size(), is(2));
+        assertThat(QueryValidator.getValidations() - validations, is(2L));
+    }
+
+    @Test
+    public void shouldValidateContentsOfValuesEachTime() {
+        QueryValidator.clear();
+        final long validations = QueryValidator.getValidations();
+        assertThat(QueryValidator.isCompatibleForOperator(null, null, SimpleEntity.class, MOD, new int[2],
+                                                          new ArrayList<ValidationFailure>()), is(true));
+        assertThat(QueryValidator.isCompatibleForOperator(null, null, SimpleEntity.class, MOD, new int[3],
+                                                          new ArrayList<ValidationFailure>()), is(false));
+        assertThat(QueryValidator.getValidations() - validations, is(2L));
+    }
+
     private static class GeoEntity {
         private final int[] array = {1};
     }